@@ -58,6 +58,7 @@ import org.jetrs.common.core.HttpHeadersImpl;
 import org.jetrs.common.core.RequestImpl;
 import org.jetrs.common.core.ResponseImpl;
 import org.jetrs.common.ext.ProvidersImpl;
+import org.jetrs.common.util.BufferPool;
 import org.jetrs.common.util.MirrorMultivaluedMap;
 import org.jetrs.common.util.ProviderUtil;
 import org.jetrs.common.util.Responses;
@@ -127,7 +128,7 @@ public class InvocationImpl implements Invocation {
           throw new ProcessingException("Provider not found for " + entity.getEntity().getClass().getName());
 
         final OutputStream entityStream = connection.getOutputStream();
-        ProviderUtil.writeTo(messageBodyWriter, entity.getEntity(), entity.getEntity().getClass(), null, entity.getAnnotations(), entity.getMediaType(), headers == null ? null : headers.getMirrorMap(), entityStream);
+        ProviderUtil.writeTo(BufferPool.DEFAULT, messageBodyWriter, entity.getEntity(), entity.getEntity().getClass(), null, entity.getAnnotations(), entity.getMediaType(), headers == null ? null : headers.getMirrorMap(), entityStream);
         entityStream.flush();
       }
       else {
@@ -23,15 +23,40 @@ import java.lang.reflect.Type;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.core.MediaType;
 
+import org.jetrs.common.ext.UncachedProvider;
 import org.jetrs.common.util.MediaTypes;
 
 public abstract class EntityProviderResource<T> extends TypeProviderResource<T> {
   private final MediaType[] allowedTypes;
+  private final boolean cacheable;
 
   public EntityProviderResource(final Class<T> clazz, final T singleton, final Class<?> interfaceType) throws IllegalAccessException, InstantiationException, InvocationTargetException {
     super(clazz, singleton, getGenericInterfaceType(interfaceType, clazz));
     final Consumes consumes = clazz.getAnnotation(Consumes.class);
-    this.allowedTypes = consumes == null ? null : MediaTypes.parse(consumes.value());
+    this.allowedTypes = consumes == null ? null : MediaTypes.intern(consumes.value());
+    this.cacheable = !clazz.isAnnotationPresent(UncachedProvider.class);
+  }
+
+  /**
+   * Returns whether the selection of this provider for an entity can be cached,
+   * i.e. whether the provider class is not annotated with
+   * {@link UncachedProvider}.
+   *
+   * @return Whether the selection of this provider for an entity can be cached.
+   */
+  public boolean isCacheable() {
+    return this.cacheable;
+  }
+
+  /**
+   * Returns the media types of the {@link Consumes} annotation of the provider
+   * class, or {@code null} if the class is not annotated.
+   *
+   * @return The media types of the {@link Consumes} annotation of the provider
+   *         class, or {@code null} if the class is not annotated.
+   */
+  public MediaType[] getAllowedTypes() {
+    return this.allowedTypes;
   }
 
   /**
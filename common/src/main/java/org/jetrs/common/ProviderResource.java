@@ -24,6 +24,7 @@ import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
 
 import org.jetrs.common.core.AnnotationInjector;
+import org.jetrs.common.core.InjectionPlan;
 import org.libj.lang.Classes;
 
 public class ProviderResource<T> {
@@ -51,6 +52,7 @@ public class ProviderResource<T> {
   private final T singleton;
   private final int priority;
   private final T matchInstance;
+  private final boolean injectSingleton;
 
   public ProviderResource(final Class<T> clazz, final T singleton) throws IllegalAccessException, InstantiationException, InvocationTargetException {
     this.clazz = clazz;
@@ -58,6 +60,8 @@ public class ProviderResource<T> {
     final Priority priority = clazz.getAnnotation(Priority.class);
     this.priority = priority == null ? Priorities.USER : priority.value();
     this.matchInstance = singleton != null ? singleton : AnnotationInjector.CONTEXT_ONLY.newProviderInstance(clazz);
+    final InjectionPlan injectionPlan = InjectionPlan.get(singleton != null ? singleton.getClass() : clazz);
+    this.injectSingleton = singleton != null && !injectionPlan.isEmpty();
   }
 
   public final Class<T> getProviderClass() {
@@ -77,6 +81,9 @@ public class ProviderResource<T> {
       if (annotationInjector == null)
         return singleton != null ? singleton : clazz.getConstructor().newInstance();
 
+      if (singleton != null && !injectSingleton)
+        return singleton;
+
       return annotationInjector.injectFields(singleton != null ? singleton : annotationInjector.newProviderInstance(clazz));
     }
     catch (final IllegalAccessException | InstantiationException | NoSuchMethodException e) {
@@ -17,17 +17,12 @@
 package org.jetrs.common.core;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,22 +42,17 @@ import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
-import javax.ws.rs.ext.ParamConverterProvider;
 import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.Sse;
 
-import org.jetrs.common.ProviderResource;
+import org.jetrs.common.util.ParameterConverterCache;
 import org.jetrs.common.util.ParameterUtil;
-import org.libj.lang.Classes;
 import org.libj.lang.IllegalAnnotationException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * @see <a href="http://download.oracle.com/otn-pub/jcp/jaxrs-2_0_rev_A-mrel-spec/jsr339-jaxrs-2.0-final-spec.pdf">JSR339 JAX-RS 2.0 [9.2]</a>
  */
 public class AnnotationInjector {
-  private static final Logger logger = LoggerFactory.getLogger(AnnotationInjector.class);
-
   private static final Class<?>[] contextTypes = {
     // ResourceContext.class,
     Application.class,
@@ -73,19 +63,28 @@ public class AnnotationInjector {
     Request.class,
     HttpHeaders.class,
     HttpServletRequest.class,
-    HttpServletResponse.class
+    HttpServletResponse.class,
+    Sse.class
   };
 
-  private static Class<?> getAssignableContextClass(final Class<?> clazz) {
-    for (final Class<?> contextType : contextTypes)
-      if (contextType.isAssignableFrom(clazz))
-        return contextType;
-
-    return null;
+  /**
+   * Returns the index in {@link #contextTypes} of the context type that is
+   * assignable from the specified class, or {@code -1} if the class is not an
+   * injectable context type.
+   *
+   * @param clazz The class.
+   * @return The index in {@link #contextTypes} of the context type that is
+   *         assignable from the specified class, or {@code -1} if the class is
+   *         not an injectable context type.
+   */
+  public static int getContextSlot(final Class<?> clazz) {
+    for (int i = 0; i < contextTypes.length; ++i)
+      if (contextTypes[i].isAssignableFrom(clazz))
+        return i;
+
+    return -1;
   }
 
-  private static final Comparator<Constructor<?>> parameterCountComparator = Comparator.comparingInt(Constructor::getParameterCount);
-
   public static final AnnotationInjector CONTEXT_ONLY = new AnnotationInjector(null, null, null, null, null, null, null);
 
   @SuppressWarnings("unchecked")
@@ -133,6 +132,7 @@ public class AnnotationInjector {
   private final Application application;
   // NOTE: Have to leave this non-final because there is a circular reference in the createAnnotationInjector() factory method
   private Providers providers;
+  private Sse sse;
 
   public AnnotationInjector(final ContainerRequestContext containerRequestContext, final Request request, final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse, final HttpHeaders httpHeaders, final Configuration configuration, final Application application) {
     this.containerRequestContext = containerRequestContext;
@@ -148,52 +148,61 @@ public class AnnotationInjector {
     this.providers = providers;
   }
 
+  public void setSse(final Sse sse) {
+    this.sse = sse;
+  }
+
   @SuppressWarnings("unchecked")
   public <T>T getContextObject(final Class<T> clazz) {
-    final Class<?> contextClass = getAssignableContextClass(clazz);
-    if (contextClass == null)
-      throw new IllegalArgumentException(getClass().getSimpleName() + " configuration does not allow injection of object of class " + clazz.getName());
-
-    if (Request.class.isAssignableFrom(contextClass))
-      return (T)request;
-
-    if (HttpHeaders.class.isAssignableFrom(contextClass))
-      return (T)httpHeaders;
-
-    if (HttpServletRequest.class.isAssignableFrom(contextClass))
-      return (T)httpServletRequest;
-
-    if (HttpServletResponse.class.isAssignableFrom(contextClass))
-      return (T)httpServletResponse;
-
-    if (UriInfo.class.isAssignableFrom(contextClass))
-      return (T)containerRequestContext.getUriInfo();
-
-    if (Configuration.class.isAssignableFrom(contextClass))
-      return (T)configuration;
-
-    if (Application.class.isAssignableFrom(contextClass))
-      return (T)application;
-
-    if (SecurityContext.class.isAssignableFrom(contextClass))
-      return (T)containerRequestContext.getSecurityContext();
-
-    if (Providers.class.isAssignableFrom(contextClass))
-      return (T)providers;
+    return (T)getContextObject(getContextSlot(clazz), clazz);
+  }
 
-    throw new IllegalStateException("Should have returned a @Context object");
+  /**
+   * Returns the context object for the specified slot, as resolved with
+   * {@link #getContextSlot(Class)} for the provided class.
+   *
+   * @param slot The index in {@link #contextTypes} of the context type.
+   * @param clazz The class for which the slot was resolved.
+   * @return The context object for the specified slot.
+   * @throws IllegalArgumentException If {@code slot} is {@code -1}.
+   */
+  public Object getContextObject(final int slot, final Class<?> clazz) {
+    switch (slot) {
+      case 0:
+        return application;
+      case 1:
+        return configuration;
+      case 2:
+        return providers;
+      case 3:
+        return containerRequestContext.getSecurityContext();
+      case 4:
+        return containerRequestContext.getUriInfo();
+      case 5:
+        return request;
+      case 6:
+        return httpHeaders;
+      case 7:
+        return httpServletRequest;
+      case 8:
+        return httpServletResponse;
+      case 9:
+        return sse;
+      default:
+        throw new IllegalArgumentException(getClass().getSimpleName() + " configuration does not allow injection of object of class " + clazz.getName());
+    }
   }
 
-  public Object getParamObject(final Annotation annotation, final Class<?> parameterType, final Annotation[] annotations, final Type genericParameterType, final List<ProviderResource<ParamConverterProvider>> paramConverterProviders) {
+  public Object getParamObject(final Annotation annotation, final Class<?> parameterType, final Annotation[] annotations, final Type genericParameterType, final ParameterConverterCache parameterConverters) {
     if (annotation.annotationType() == QueryParam.class) {
       final boolean decode = ParameterUtil.decode(annotations);
-      return ParameterUtil.convertParameter(parameterType, genericParameterType, annotations, containerRequestContext.getUriInfo().getQueryParameters(decode).get(((QueryParam)annotation).value()), paramConverterProviders);
+      return ParameterUtil.convertParameter(parameterType, genericParameterType, annotations, containerRequestContext.getUriInfo().getQueryParameters(decode).get(((QueryParam)annotation).value()), parameterConverters);
     }
 
     if (annotation.annotationType() == PathParam.class) {
       final boolean decode = ParameterUtil.decode(annotations);
       final String pathParam = ((PathParam)annotation).value();
-      return ParameterUtil.convertParameter(parameterType, genericParameterType, annotations, containerRequestContext.getUriInfo().getPathParameters(decode).get(pathParam), paramConverterProviders);
+      return ParameterUtil.convertParameter(parameterType, genericParameterType, annotations, containerRequestContext.getUriInfo().getPathParameters(decode).get(pathParam), parameterConverters);
     }
 
     if (annotation.annotationType() == MatrixParam.class) {
@@ -234,60 +243,12 @@ public class AnnotationInjector {
     return newInstance(clazz, false);
   }
 
-  @SuppressWarnings("unchecked")
   private <T>T newInstance(final Class<T> clazz, final boolean isResource) throws IllegalAccessException, InstantiationException, InvocationTargetException {
-    final Constructor<?>[] constructors = clazz.getConstructors();
-    Arrays.sort(constructors, parameterCountComparator);
-    outer:
-    for (final Constructor<?> constructor : constructors) {
-      final Parameter[] parameters = constructor.getParameters();
-      if (parameters.length == 0)
-        return (T)constructor.newInstance();
-
-      final Object[] parameterInstances = new Object[parameters.length];
-      for (int i = 0; i < parameters.length; ++i) {
-        final Parameter parameter = parameters[i];
-        final Annotation injectableAnnotation = isResource ? getInjectableAnnotation(parameter, parameter.getAnnotations()) : parameter.getAnnotation(Context.class);
-        if (injectableAnnotation == null) {
-          logger.warn("Unsupported parameter type: " + parameter.getName() + " on: " + clazz.getName() + "(" + Arrays.stream(parameters).map(p -> p.getType().getSimpleName()).collect(Collectors.joining(",")) + ")");
-          continue outer;
-        }
-
-        final Object injectableObject = getContextObject(parameter.getType());
-        if (injectableObject == null) {
-          logger.warn("Unsupported @Context parameter: " + parameter.getName() + " on: " + clazz.getName() + "(" + Arrays.stream(parameters).map(p -> p.getType().getSimpleName()).collect(Collectors.joining(",")) + ")");
-          continue outer;
-        }
-
-        parameterInstances[i] = injectableObject;
-      }
-
-      return (T)constructor.newInstance(parameterInstances);
-    }
-
-    throw new InstantiationException("No suitable constructor found on " + (isResource ? "resource" : "provider") + " " + clazz.getName());
+    return (isResource ? ConstructorPlan.forResource(clazz) : ConstructorPlan.forProvider(clazz)).newInstance(this);
   }
 
   public <T>T injectFields(final T instance) throws IllegalAccessException {
-    return injectFields(instance, true);
-  }
-
-  // the "inject" boolean is intended to allow a way to test DURING LOAD TIME whether a class WILL BE ABLE TO BE injectable during runtime
-  private <T>T injectFields(final T instance, final boolean inject) throws IllegalAccessException {
-    final Field[] fields = Classes.getDeclaredFieldsDeep(instance.getClass());
-    for (final Field field : fields) {
-      if (field.isAnnotationPresent(Context.class)) {
-        final Object injectableObject = getContextObject(field.getType());
-        if (injectableObject == null)
-          throw new UnsupportedOperationException("Unsupported @Context type: " + field.getType().getName() + " on: " + instance.getClass().getName() + "." + field.getName());
-
-        if (inject) {
-          field.setAccessible(true);
-          field.set(instance, injectableObject);
-        }
-      }
-    }
-
+    InjectionPlan.get(instance.getClass()).inject(this, instance);
     return instance;
   }
 }
\ No newline at end of file
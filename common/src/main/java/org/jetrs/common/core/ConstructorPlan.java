@@ -0,0 +1,207 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The plan for the instantiation of a resource or provider class, computed once
+ * per class. The plan holds the public constructors of the class in ascending
+ * order of parameter count, each with the slots of its context parameters
+ * pre-resolved by the {@link AnnotationInjector}, and a {@link MethodHandle}
+ * adapted to {@code (Object[])Object}. Constructors with a parameter that is
+ * not injectable are reported once, when the plan is computed.
+ */
+public final class ConstructorPlan {
+  private static final Logger logger = LoggerFactory.getLogger(ConstructorPlan.class);
+  private static final Comparator<Constructor<?>> parameterCountComparator = Comparator.comparingInt(Constructor::getParameterCount);
+
+  private static final ClassValue<ConstructorPlan> resourcePlans = new ClassValue<ConstructorPlan>() {
+    @Override
+    protected ConstructorPlan computeValue(final Class<?> type) {
+      return new ConstructorPlan(type, true);
+    }
+  };
+
+  private static final ClassValue<ConstructorPlan> providerPlans = new ClassValue<ConstructorPlan>() {
+    @Override
+    protected ConstructorPlan computeValue(final Class<?> type) {
+      return new ConstructorPlan(type, false);
+    }
+  };
+
+  /**
+   * Returns the {@link ConstructorPlan} for the specified resource class.
+   *
+   * @param cls The resource class.
+   * @return The {@link ConstructorPlan} for the specified resource class.
+   * @throws NullPointerException If {@code cls} is null.
+   */
+  public static ConstructorPlan forResource(final Class<?> cls) {
+    return resourcePlans.get(cls);
+  }
+
+  /**
+   * Returns the {@link ConstructorPlan} for the specified provider class.
+   *
+   * @param cls The provider class.
+   * @return The {@link ConstructorPlan} for the specified provider class.
+   * @throws NullPointerException If {@code cls} is null.
+   */
+  public static ConstructorPlan forProvider(final Class<?> cls) {
+    return providerPlans.get(cls);
+  }
+
+  private static String toString(final Class<?> cls, final Parameter[] parameters) {
+    return cls.getName() + "(" + Arrays.stream(parameters).map(p -> p.getType().getSimpleName()).collect(Collectors.joining(",")) + ")";
+  }
+
+  private static MethodHandle getMethodHandle(final Constructor<?> constructor) {
+    try {
+      final int parameterCount = constructor.getParameterCount();
+      return MethodHandles.lookup().unreflectConstructor(constructor).asFixedArity().asType(MethodType.genericMethodType(parameterCount)).asSpreader(Object[].class, parameterCount);
+    }
+    catch (final IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static final class Candidate {
+    private final Constructor<?> constructor;
+    private final MethodHandle methodHandle;
+    private final Parameter[] parameters;
+    private final int[] slots;
+    private final int injectableCount;
+    private final RuntimeException exception;
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    private Candidate(final Class<?> cls, final Constructor<?> constructor, final boolean isResource) {
+      this.constructor = constructor;
+      this.parameters = constructor.getParameters();
+      this.slots = new int[parameters.length];
+      int injectableCount = 0;
+      RuntimeException exception = null;
+      try {
+        for (; injectableCount < parameters.length; ++injectableCount) {
+          final Parameter parameter = parameters[injectableCount];
+          final Annotation injectableAnnotation = isResource ? AnnotationInjector.getInjectableAnnotation(parameter, parameter.getAnnotations()) : parameter.getAnnotation(Context.class);
+          if (injectableAnnotation == null) {
+            logger.warn("Unsupported parameter type: " + parameter.getName() + " on: " + ConstructorPlan.toString(cls, parameters));
+            break;
+          }
+
+          slots[injectableCount] = AnnotationInjector.getContextSlot(parameter.getType());
+        }
+      }
+      catch (final RuntimeException e) {
+        exception = e;
+      }
+
+      this.injectableCount = injectableCount;
+      this.exception = exception;
+      this.methodHandle = exception == null && injectableCount == parameters.length && !Modifier.isAbstract(cls.getModifiers()) ? getMethodHandle(constructor) : null;
+    }
+
+    private Object newInstance(final AnnotationInjector annotationInjector) throws IllegalAccessException, InstantiationException, InvocationTargetException {
+      final Object[] parameterInstances = new Object[injectableCount];
+      boolean exact = true;
+      for (int i = 0; i < injectableCount; ++i) {
+        final Parameter parameter = parameters[i];
+        final Object injectableObject = annotationInjector.getContextObject(slots[i], parameter.getType());
+        if (injectableObject == null) {
+          if (!warned.getAndSet(true))
+            logger.warn("Unsupported @Context parameter: " + parameter.getName() + " on: " + ConstructorPlan.toString(constructor.getDeclaringClass(), parameters));
+
+          return null;
+        }
+
+        exact &= parameter.getType().isInstance(injectableObject);
+        parameterInstances[i] = injectableObject;
+      }
+
+      if (exception != null)
+        throw exception;
+
+      if (injectableCount < parameters.length)
+        return null;
+
+      if (methodHandle == null || !exact)
+        return constructor.newInstance(parameterInstances);
+
+      try {
+        return (Object)methodHandle.invokeExact(parameterInstances);
+      }
+      catch (final Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+  }
+
+  private final Class<?> cls;
+  private final boolean isResource;
+  private final Candidate[] candidates;
+
+  private ConstructorPlan(final Class<?> cls, final boolean isResource) {
+    this.cls = cls;
+    this.isResource = isResource;
+    final Constructor<?>[] constructors = cls.getConstructors();
+    Arrays.sort(constructors, parameterCountComparator);
+    this.candidates = new Candidate[constructors.length];
+    for (int i = 0; i < constructors.length; ++i)
+      candidates[i] = new Candidate(cls, constructors[i], isResource);
+  }
+
+  /**
+   * Returns a new instance of the class of this plan, created with the first
+   * constructor whose parameters can all be injected with the context objects
+   * of the specified {@link AnnotationInjector}.
+   *
+   * @param <T> The type of the class.
+   * @param annotationInjector The {@link AnnotationInjector}.
+   * @return A new instance of the class of this plan.
+   * @throws IllegalAccessException If the constructor is not accessible.
+   * @throws InstantiationException If no suitable constructor is found, or if
+   *           the class is abstract.
+   * @throws InvocationTargetException If the constructor throws an exception.
+   */
+  @SuppressWarnings("unchecked")
+  <T>T newInstance(final AnnotationInjector annotationInjector) throws IllegalAccessException, InstantiationException, InvocationTargetException {
+    for (final Candidate candidate : candidates) {
+      final Object instance = candidate.newInstance(annotationInjector);
+      if (instance != null)
+        return (T)instance;
+    }
+
+    throw new InstantiationException("No suitable constructor found on " + (isResource ? "resource" : "provider") + " " + cls.getName());
+  }
+}
@@ -17,6 +17,7 @@
 package org.jetrs.common.core;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
@@ -35,6 +36,7 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import org.jetrs.common.ext.delegate.CookieHeaderDelegate;
 import org.jetrs.common.ext.delegate.DateHeaderDelegate;
+import org.jetrs.common.util.HeaderNameMap;
 import org.jetrs.common.util.HttpHeadersMap;
 import org.jetrs.common.util.MirrorMultivaluedMap;
 import org.jetrs.common.util.MirrorQualityList;
@@ -52,6 +54,53 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
   private static final List<Locale> WILDCARD_LOCALE = Collections.unmodifiableList(Collections.singletonList(new Locale("*")));
   private static final List<MediaType> WILDCARD_ACCEPT = Collections.unmodifiableList(Collections.singletonList(MediaType.WILDCARD_TYPE));
 
+  /**
+   * Quality-sorted view of the values of all elements of a header, each of
+   * which is a {@link MirrorQualityList} of the values of a header line. The
+   * view is collated once, and is collated again only when the versions of the
+   * header or its elements have changed.
+   *
+   * @param <T> The type of the values.
+   */
+  private static final class AggregateView<T> {
+    private MirrorQualityList<Object,String> header;
+    private int version;
+    private int elementsVersion;
+    private List<T> view;
+
+    private static int getElementsVersion(final MirrorQualityList<Object,String> header) {
+      int version = 0;
+      for (int i = 0, len = header.size(); i < len; ++i) {
+        final Object element = header.get(i);
+        if (element instanceof MirrorQualityList)
+          version += ((MirrorQualityList<?,?>)element).getVersion();
+      }
+
+      return version;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<T> get(final MirrorQualityList<Object,String> header) {
+      // The elements are the same instances as long as the version of the header is unchanged
+      final int elementsVersion = getElementsVersion(header);
+      if (view != null && header == this.header && header.getVersion() == version && elementsVersion == this.elementsVersion)
+        return view;
+
+      final MirrorQualityList<?,String> all = ((MirrorQualityList<?,String>)header.get(0)).clone();
+      for (int i = 1; i < header.size(); ++i)
+        all.addAll((MirrorQualityList)header.get(i));
+
+      this.header = header;
+      this.version = header.getVersion();
+      this.elementsVersion = elementsVersion;
+      return view = Collections.unmodifiableList((List<T>)all);
+    }
+  }
+
+  private HttpServletRequest request;
+  private Set<String> unmaterialized;
+  private AggregateView<Locale> acceptLanguages;
+
   /**
    * Creates a new {@link HttpHeadersImpl} with the specified map of headers as
    * lists of strings.
@@ -82,7 +131,10 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
   /**
    * Creates a new {@link HttpHeadersImpl} with the specified
    * {@link HttpServletRequest} as the source from which to initialize the
-   * header values.
+   * header values. Only the names of the headers are read when the instance is
+   * created. The values of a header are read from the request, and parsed, the
+   * first time the header is accessed, and all headers are read when the
+   * instance is accessed as a whole (e.g. with {@link #entrySet()}).
    *
    * @param request The {@link HttpServletRequest} from which to initialize the
    *          header values.
@@ -91,11 +143,12 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
     this();
     if (request != null) {
       final Enumeration<String> headerNames = request.getHeaderNames();
-      while (headerNames.hasMoreElements()) {
-        final String headerName = headerNames.nextElement();
-        final Enumeration<String> enumeration = request.getHeaders(headerName);
-        while (enumeration.hasMoreElements())
-          add(headerName, enumeration.nextElement());
+      if (headerNames != null && headerNames.hasMoreElements()) {
+        this.request = request;
+        this.unmaterialized = Collections.newSetFromMap(new HeaderNameMap<>());
+        do
+          unmaterialized.add(headerNames.nextElement());
+        while (headerNames.hasMoreElements());
       }
     }
   }
@@ -132,6 +185,222 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
     }, HttpHeadersUtil.qualifier);
   }
 
+  /**
+   * Adds the values of the specified header from the
+   * {@link HttpServletRequest}, if they have not yet been added.
+   *
+   * @param name The name of the header.
+   */
+  private void materialize(final Object name) {
+    if (unmaterialized == null || !unmaterialized.remove(name))
+      return;
+
+    final Enumeration<String> values = request.getHeaders((String)name);
+    if (unmaterialized.isEmpty()) {
+      unmaterialized = null;
+      request = null;
+    }
+
+    while (values.hasMoreElements())
+      super.add((String)name, values.nextElement());
+  }
+
+  /**
+   * Adds the values of all headers from the {@link HttpServletRequest} that
+   * have not yet been added.
+   */
+  private void materialize() {
+    if (unmaterialized != null)
+      for (final String name : unmaterialized.toArray(new String[unmaterialized.size()]))
+        materialize(name);
+  }
+
+  private int unmaterializedSize() {
+    return unmaterialized == null ? 0 : unmaterialized.size();
+  }
+
+  @Override
+  protected HttpHeadersMap<String,Object,String> newMirrorInstance(final Map<String,List<Object>> values) {
+    // The mirror map materializes the headers of the HttpServletRequest just as this map does
+    return new HttpHeadersMap<String,Object,String>(this, values, getReverseMirror()) {
+      @Override
+      @SuppressWarnings("unlikely-arg-type")
+      public MirrorQualityList<Object,String> get(final Object key) {
+        materialize(key);
+        return super.get(key);
+      }
+
+      @Override
+      public boolean containsKey(final Object key) {
+        materialize(key);
+        return super.containsKey(key);
+      }
+
+      @Override
+      public MirrorQualityList<Object,String> put(final String key, final List<Object> value) {
+        materialize(key);
+        return super.put(key, value);
+      }
+
+      @Override
+      public MirrorQualityList<Object,String> putIfAbsent(final String key, final List<Object> value) {
+        materialize(key);
+        return super.putIfAbsent(key, value);
+      }
+
+      @Override
+      @SuppressWarnings("unlikely-arg-type")
+      public MirrorQualityList<Object,String> remove(final Object key) {
+        materialize(key);
+        return super.remove(key);
+      }
+
+      @Override
+      public MirrorQualityList<Object,String> replace(final String key, final List<Object> value) {
+        materialize(key);
+        return super.replace(key, value);
+      }
+
+      @Override
+      public int size() {
+        return super.size() + unmaterializedSize();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return unmaterializedSize() == 0 && super.isEmpty();
+      }
+
+      @Override
+      public boolean containsValue(final Object value) {
+        materialize();
+        return super.containsValue(value);
+      }
+
+      @Override
+      public Set<String> keySet() {
+        materialize();
+        return super.keySet();
+      }
+
+      @Override
+      public Collection<List<Object>> values() {
+        materialize();
+        return super.values();
+      }
+
+      @Override
+      public Set<Map.Entry<String,List<Object>>> entrySet() {
+        materialize();
+        return super.entrySet();
+      }
+
+      @Override
+      public void clear() {
+        unmaterialized = null;
+        request = null;
+        super.clear();
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unlikely-arg-type")
+  public MirrorQualityList<String,Object> get(final Object key) {
+    materialize(key);
+    return super.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    materialize(key);
+    return super.containsKey(key);
+  }
+
+  @Override
+  public MirrorQualityList<String,Object> put(final String key, final List<String> value) {
+    materialize(key);
+    return super.put(key, value);
+  }
+
+  @Override
+  public MirrorQualityList<String,Object> putIfAbsent(final String key, final List<String> value) {
+    materialize(key);
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  @SuppressWarnings("unlikely-arg-type")
+  public MirrorQualityList<String,Object> remove(final Object key) {
+    materialize(key);
+    return super.remove(key);
+  }
+
+  @Override
+  public MirrorQualityList<String,Object> replace(final String key, final List<String> value) {
+    materialize(key);
+    return super.replace(key, value);
+  }
+
+  @Override
+  public int size() {
+    return super.size() + unmaterializedSize();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return unmaterializedSize() == 0 && super.isEmpty();
+  }
+
+  @Override
+  public boolean containsValue(final Object value) {
+    materialize();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    materialize();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<List<String>> values() {
+    materialize();
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String,List<String>>> entrySet() {
+    materialize();
+    return super.entrySet();
+  }
+
+  @Override
+  public void clear() {
+    unmaterialized = null;
+    request = null;
+    super.clear();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    materialize();
+    return super.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    materialize();
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    materialize();
+    return super.toString();
+  }
+
   @Override
   public List<String> getRequestHeader(final String name) {
     return get(name);
@@ -155,20 +424,15 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
   }
 
   @Override
-  @SuppressWarnings({"rawtypes", "unchecked"})
   public List<Locale> getAcceptableLanguages() {
-    // FIXME: This is a lot of processing to collate all "Accept-Language" headers.
-    // FIXME: Need to add a `isDirty` flag to see if this work needs to be redone.
-    final MirrorQualityList<?,String> headers = getMirrorMap().get(HttpHeaders.ACCEPT_LANGUAGE);
+    final MirrorQualityList<Object,String> headers = getMirrorMap().get(HttpHeaders.ACCEPT_LANGUAGE);
     if (headers == null || headers.size() == 0)
       return WILDCARD_LOCALE;
 
-    final MirrorQualityList<?,String> all = ((MirrorQualityList<?,String>)headers.get(0)).clone();
-    for (int i = 1; i < headers.size(); ++i) {
-      all.addAll((MirrorQualityList)headers.get(i));
-    }
+    if (acceptLanguages == null)
+      acceptLanguages = new AggregateView<>();
 
-    return (List<Locale>)all;
+    return acceptLanguages.get(headers);
   }
 
   @Override
@@ -264,6 +528,8 @@ public class HttpHeadersImpl extends HttpHeadersMap<String,String,Object> implem
 
   @Override
   public HttpHeadersImpl clone() {
+    // The mirror of the clone refers to this instance, so the headers are materialized before cloning
+    materialize();
     return (HttpHeadersImpl)super.clone();
   }
 }
\ No newline at end of file
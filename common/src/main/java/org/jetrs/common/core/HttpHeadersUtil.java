@@ -36,6 +36,7 @@ import javax.ws.rs.core.NewCookie;
 
 import org.jetrs.common.ext.delegate.CookieHeaderDelegate;
 import org.jetrs.common.ext.delegate.DateHeaderDelegate;
+import org.jetrs.common.util.HeaderNameTable;
 import org.jetrs.common.util.MediaTypes;
 import org.jetrs.common.util.MirrorQualityList;
 import org.jetrs.common.util.Responses;
@@ -53,15 +54,8 @@ final class HttpHeadersUtil {
     if (value == null)
       return null;
 
-    final Object requestHeader = parseRequestHeader(key, value, single);
-    if (requestHeader != NOT_FOUND)
-      return requestHeader;
-
-    final Object responseHeader = parseResponseHeader(key, value);
-    if (responseHeader != NOT_FOUND)
-      return responseHeader;
-
-    return value;
+    final HeaderParser parser = parsers.get(key);
+    return parser != null ? parser.parse(key, value, single) : value;
   }
 
   static String reflectionToValue(final Object value) {
@@ -142,7 +136,8 @@ final class HttpHeadersUtil {
   static long getQualityFromString(final String str, int i) {
     boolean dotSeen = false;
     boolean qFinished = false;
-    StringBuilder builder = null;
+    int start = -1;
+    int end = -1;
     final int len = str.length();
     for (int stage = 1; i <= len; ++i) {
       final char ch;
@@ -167,31 +162,68 @@ final class HttpHeadersUtil {
       else if (stage == 3) {
         if ('0' <= ch && ch <= '9' || (dotSeen = ch == '.' && !dotSeen)) {
           if (!qFinished) {
-            if (builder == null)
-              builder = new StringBuilder();
+            if (start == -1)
+              start = i;
 
-            builder.append(ch);
+            end = i + 1;
             continue;
           }
         }
         else if (ch == ' ') {
-          qFinished |= builder != null && builder.length() > 0;
+          qFinished |= start != -1;
           continue;
         }
 
         stage = 0;
         dotSeen = false;
         qFinished = false;
-        if (builder != null)
-          builder.setLength(0);
+        start = -1;
       }
     }
 
-    // FIXME: Can we avoid Float.parseFloat?
-    final float quality = builder == null || builder.length() == 0 ? 1f : Float.parseFloat(builder.toString());
+    final float quality = start == -1 ? 1f : parseQuality(str, start, end);
     return Numbers.Compound.encode(quality, i);
   }
 
+  private static final float[] POWERS_OF_TEN = {1f, 10f, 100f, 1000f, 10000f, 100000f, 1000000f, 10000000f};
+
+  /**
+   * Returns the {@code float} value of the quality in the specified range of
+   * the string, which consists of digits and at most one {@code '.'}. Qualities
+   * of up to 7 digits are computed from the digits, which gives the same value
+   * as {@link Float#parseFloat(String)}, because the numerator and the power of
+   * ten are exact {@code float} values, and the division is correctly rounded.
+   *
+   * @param str The string.
+   * @param start The index of the first character of the quality.
+   * @param end The index following the last character of the quality.
+   * @return The {@code float} value of the quality in the specified range of
+   *         the string.
+   * @throws NumberFormatException If the range does not contain a digit.
+   */
+  private static float parseQuality(final String str, final int start, final int end) {
+    int digits = 0;
+    int numerator = 0;
+    int scale = -1;
+    for (int i = start; i < end; ++i) {
+      final char ch = str.charAt(i);
+      if (ch == '.') {
+        scale = 0;
+      }
+      else {
+        numerator = numerator * 10 + (ch - '0');
+        ++digits;
+        if (scale != -1)
+          ++scale;
+      }
+    }
+
+    if (digits == 0 || digits >= POWERS_OF_TEN.length)
+      return Float.parseFloat(str.substring(start, end));
+
+    return scale <= 0 ? numerator : numerator / POWERS_OF_TEN[scale];
+  }
+
   static <T>ArrayFloatList parseMultiHeaderNoSort(final List<? super String> values, final ArrayFloatList qualities, final String header, final Function<String,T> stringToObjectFunction, final boolean hasQuality) {
     final int len = header.length();
     String value = null;
@@ -315,6 +347,93 @@ final class HttpHeadersUtil {
 
   private static final Object NOT_FOUND = new Object();
 
+  /**
+   * Strategy that parses the value of a HTTP header to its strongly-typed
+   * representation.
+   */
+  @FunctionalInterface
+  interface HeaderParser {
+    /**
+     * Returns the strongly-typed representation of the specified HTTP header
+     * {@code key} and {@code value}.
+     *
+     * @param key The key (i.e. the name of the HTTP header).
+     * @param value The value (i.e. the value of the HTTP header).
+     * @param single Whether {@code value} is a single element of a header
+     *          with multiple values.
+     * @return The strongly-typed representation of the specified HTTP header
+     *         {@code key} and {@code value}.
+     */
+    Object parse(String key, String value, boolean single);
+  }
+
+  private static final HeaderParser STRING = (k, v, s) -> v;
+  private static final HeaderParser DATE = (k, v, s) -> DateHeaderDelegate.parse(v);
+  private static final HeaderParser LONG = (k, v, s) -> Numbers.parseLong(v);
+  private static final HeaderParser MEDIA_TYPE = (k, v, s) -> MediaTypes.parse(v);
+
+  // https://en.wikipedia.org/wiki/List_of_HTTP_header_fields
+  private static final HeaderNameTable<HeaderParser> requestParsers = new HeaderNameTable<>(64);
+  private static final HeaderNameTable<HeaderParser> responseParsers = new HeaderNameTable<>(64);
+
+  /**
+   * Parsers of both the request and response headers, with the request parser
+   * for a header that is both a request and a response header.
+   */
+  private static final HeaderNameTable<HeaderParser> parsers = new HeaderNameTable<>(128);
+
+  static {
+    // Standard request headers...
+
+    requestParsers.put(HttpHeaders.ACCEPT, MEDIA_TYPE);
+    requestParsers.put(HttpHeaders.ACCEPT_CHARSET, (k, v, s) -> s ? Charsets.lookup(removeQuality(v)) : makeMirrorList(k, v, Charsets::lookup, true, ArrayList::new));
+    requestParsers.put(HttpHeaders.ACCEPT_ENCODING, (k, v, s) -> s ? removeQuality(v) : makeMirrorList(k, v, e -> e, true, ArrayList::new));
+    requestParsers.put(HttpHeaders.ACCEPT_LANGUAGE, (k, v, s) -> s ? Locales.fromRFC1766(removeQuality(v)) : makeMirrorList(k, v, Locales::fromRFC1766, true, ArrayList::new));
+    requestParsers.put("Accept-Datetime", DATE);
+    requestParsers.put(HttpHeaders.CACHE_CONTROL, (k, v, s) -> CacheControl.valueOf(v));
+    requestParsers.put(HttpHeaders.CONTENT_LENGTH, LONG);
+    requestParsers.put(HttpHeaders.CONTENT_TYPE, MEDIA_TYPE);
+    requestParsers.put(HttpHeaders.COOKIE, (k, v, s) -> CookieHeaderDelegate.parse(v.split(";")));
+    requestParsers.put(HttpHeaders.DATE, DATE);
+    requestParsers.put(HttpHeaders.IF_MODIFIED_SINCE, DATE);
+    requestParsers.put(HttpHeaders.IF_UNMODIFIED_SINCE, DATE);
+    requestParsers.put("Max-Forwards", LONG);
+    // Via: Multiple acceptable, but no q value (order matters)
+    requestParsers.put("Via", (k, v, s) -> s ? removeQuality(v) : makeMirrorList(k, v, e -> e, false, ArrayList::new));
+
+    // Non-standard request headers...
+
+    requestParsers.put("Upgrade-Insecure-Requests", LONG);
+
+    // FIXME: Do these have a strong type?
+    // TE: Multiple acceptable with q value
+    // Warning: <warn-code> <warn-agent> <warn-text> [<warn-date>]
+    for (final String key : new String[] {"Access-Control-Request-Method", HttpHeaders.AUTHORIZATION, "Connection", "Content-MD5", "Expect", "Forwarded", "From", HttpHeaders.HOST, "HTTP2-Settings", HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, "Origin", "Pragma", "Proxy-Authorization", "Range", "Referrer", "TE", HttpHeaders.USER_AGENT, "Upgrade", "Warning", "X-Requested-With", "DNT", "X-Forwarded-For", "X-Forwarded-Host", "X-Forwarded-Proto", "Front-End-Https", "X-Http-Method-Override", "X-ATT-DeviceId", "X-Wap-Profile", "Proxy-Connection", "X-UIDH", "X-Csrf-Token", "X-Request-ID", "X-Correlation-ID", "Save-Data"})
+      requestParsers.put(key, STRING);
+
+    // Response headers...
+
+    responseParsers.put("Accept-Patch", MEDIA_TYPE);
+    responseParsers.put("Age", LONG);
+    responseParsers.put(HttpHeaders.CONTENT_LANGUAGE, (k, v, s) -> Locale.forLanguageTag(v));
+    responseParsers.put(HttpHeaders.CONTENT_LENGTH, (k, v, s) -> Long.parseLong(v));
+    responseParsers.put(HttpHeaders.EXPIRES, (k, v, s) -> Numbers.isNumber(v) ? new Date((Integer.parseInt(v) + System.currentTimeMillis() / 1000) * 1000) : DateHeaderDelegate.parse(v));
+    responseParsers.put(HttpHeaders.LAST_MODIFIED, DATE);
+    responseParsers.put(HttpHeaders.LOCATION, (k, v, s) -> URI.create(v));
+    responseParsers.put(HttpHeaders.SET_COOKIE, (k, v, s) -> NewCookie.valueOf(v));
+    responseParsers.put("Status", (k, v, s) -> Responses.from(v));
+    responseParsers.put("X-Content-Duration", (k, v, s) -> new BigDecimal(v));
+
+    // FIXME: Do these have a strong type?
+    // Content-Encoding, Content-Location: Multiple acceptable, but no q value (order matters)
+    // Transfer-Encoding: Multiple acceptable, but no q value (order matters)
+    for (final String key : new String[] {"Access-Control-Allow-Origin", "Access-Control-Allow-Credentials", "Access-Control-Expose-Headers", "Access-Control-Max-Age", "Access-Control-Allow-Methods", "Access-Control-Allow-Headers", "Accept-Ranges", HttpHeaders.ALLOW, "Alt-Svc", HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LOCATION, "Content-Range", "Delta-Base", HttpHeaders.ETAG, "IM", HttpHeaders.LINK, "P3P", "Proxy-Authenticate", "Public-Key-Pins", HttpHeaders.RETRY_AFTER, "Server", "Strict-Transport-Security", "Trailer", "Transfer-Encoding", "Tk", HttpHeaders.VARY, HttpHeaders.WWW_AUTHENTICATE, "X-Frame-Options", "Content-Security-Policy", "X-Content-Security-Policy", "X-WebKit-CSP", "Refresh", "Timing-Allow-Origin", "X-Content-Type-Options", "X-Powered-By", "X-Request-ID", "X-Correlation-ID", "X-UA-Compatible", "X-XSS-Protection"})
+      responseParsers.put(key, STRING);
+
+    parsers.putAll(responseParsers);
+    parsers.putAll(requestParsers);
+  }
+
   /**
    * Parses the specified HTTP header {@code key} and {@code value} by matching
    * the {@code key} to standard request header names.
@@ -324,249 +443,9 @@ final class HttpHeadersUtil {
    * @return A strongly-typed representation of a HTTP header specified by
    *         {@code key} and {@code value}.
    */
-  // https://en.wikipedia.org/wiki/List_of_HTTP_header_fields
   static Object parseRequestHeader(final String key, final String value, final boolean single) {
-    // Standard headers...
-
-    if (HttpHeaders.ACCEPT.equalsIgnoreCase(key)) {
-      return MediaTypes.parse(value);
-    }
-
-    if (HttpHeaders.ACCEPT_CHARSET.equalsIgnoreCase(key)) {
-      return single ? Charsets.lookup(removeQuality(value)) : makeMirrorList(key, value, Charsets::lookup, true, ArrayList::new);
-    }
-
-    if (HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(key)) {
-      return single ? removeQuality(value) : makeMirrorList(key, value, s -> s, true, ArrayList::new);
-    }
-
-    if (HttpHeaders.ACCEPT_LANGUAGE.equalsIgnoreCase(key)) {
-      return single ? Locales.fromRFC1766(removeQuality(value)) : makeMirrorList(key, value, Locales::fromRFC1766, true, ArrayList::new);
-    }
-
-    if ("Accept-Datetime".equalsIgnoreCase(key)) {
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if ("Access-Control-Request-Method".equalsIgnoreCase(key)) {
-      return value;
-    }
-
-    if (HttpHeaders.AUTHORIZATION.equalsIgnoreCase(key)) {
-      return value;
-    }
-
-    if (HttpHeaders.CACHE_CONTROL.equalsIgnoreCase(key)) {
-      return CacheControl.valueOf(value);
-    }
-
-    if ("Connection".equalsIgnoreCase(key)) {
-      return value;
-    }
-
-    if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(key)) {
-      return Numbers.parseLong(value);
-    }
-
-    if ("Content-MD5".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(key)) {
-      return MediaTypes.parse(value);
-    }
-
-    if (HttpHeaders.COOKIE.equalsIgnoreCase(key)) {
-      return CookieHeaderDelegate.parse(value.split(";"));
-    }
-
-    if (HttpHeaders.DATE.equalsIgnoreCase(key)) {
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if ("Expect".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Forwarded".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("From".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.HOST.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("HTTP2-Settings".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.IF_MATCH.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.IF_MODIFIED_SINCE.equalsIgnoreCase(key)) {
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if (HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.IF_UNMODIFIED_SINCE.equalsIgnoreCase(key)) {
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if ("Max-Forwards".equalsIgnoreCase(key)) {
-      return Numbers.parseLong(value);
-    }
-
-    if ("Origin".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Pragma".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Proxy-Authorization".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Range".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Referrer".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("TE".equalsIgnoreCase(key)) {
-      // TRANSFER ENCODING: Multiple acceptable with q value
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.USER_AGENT.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Upgrade".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Via".equalsIgnoreCase(key)) {
-      // Multiple acceptable, but no q value (order matters)
-      // FIXME: Does this have a strong type?
-      return single ? removeQuality(value) : makeMirrorList(key, value, s -> s, false, ArrayList::new);
-    }
-
-    // Warning: <warn-code> <warn-agent> <warn-text> [<warn-date>]
-    if ("Warning".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    // Non-standard headers...
-
-    if ("Upgrade-Insecure-Requests".equalsIgnoreCase(key)) {
-      return Numbers.parseLong(value);
-    }
-
-    if ("X-Requested-With".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("DNT".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Forwarded-For".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Forwarded-Host".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Forwarded-Proto".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Front-End-Https".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Http-Method-Override".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-ATT-DeviceId".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Wap-Profile".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Proxy-Connection".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-UIDH".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Csrf-Token".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Request-ID".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Correlation-ID".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Save-Data".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    return NOT_FOUND;
+    final HeaderParser parser = requestParsers.get(key);
+    return parser != null ? parser.parse(key, value, single) : NOT_FOUND;
   }
 
   /**
@@ -579,211 +458,8 @@ final class HttpHeadersUtil {
    *         {@code key} and {@code value}.
    */
   static Object parseResponseHeader(final String key, final String value) {
-    if ("Access-Control-Allow-Origin".equalsIgnoreCase(key) || "Access-Control-Allow-Credentials".equalsIgnoreCase(key) || "Access-Control-Expose-Headers".equalsIgnoreCase(key) || "Access-Control-Max-Age".equalsIgnoreCase(key) || "Access-Control-Allow-Methods".equalsIgnoreCase(key) || "Access-Control-Allow-Headers".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Accept-Patch".equalsIgnoreCase(key)) {
-      return MediaTypes.parse(value);
-    }
-
-    if ("Accept-Ranges".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Age".equalsIgnoreCase(key)) {
-      return Numbers.parseLong(value);
-    }
-
-    if (HttpHeaders.ALLOW.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Alt-Svc".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.CONTENT_DISPOSITION.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(key)) {
-      // multiple acceptable, but no q value (order matters)
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.CONTENT_LANGUAGE.equalsIgnoreCase(key)) {
-      return Locale.forLanguageTag(value);
-    }
-
-    if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(key)) {
-      return Long.parseLong(value);
-    }
-
-    if (HttpHeaders.CONTENT_LOCATION.equalsIgnoreCase(key)) {
-      // multiple acceptable, but no q value (order matters)
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Content-Range".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Delta-Base".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.ETAG.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.EXPIRES.equalsIgnoreCase(key)) {
-      if (Numbers.isNumber(value))
-        return new Date((Integer.parseInt(value) + System.currentTimeMillis() / 1000) * 1000);
-
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if ("IM".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.LAST_MODIFIED.equalsIgnoreCase(key)) {
-      return DateHeaderDelegate.parse(value);
-    }
-
-    if (HttpHeaders.LINK.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.LOCATION.equalsIgnoreCase(key)) {
-      return URI.create(value);
-    }
-
-    if ("P3P".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Proxy-Authenticate".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Public-Key-Pins".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.RETRY_AFTER.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Server".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.SET_COOKIE.equalsIgnoreCase(key)) {
-      return NewCookie.valueOf(value);
-    }
-
-    if ("Strict-Transport-Security".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Trailer".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Transfer-Encoding".equalsIgnoreCase(key)) {
-      // TRANSFER ENCODING: Multiple acceptable, but no q value (order matters)
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Tk".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.VARY.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if (HttpHeaders.WWW_AUTHENTICATE.equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Frame-Options".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Content-Security-Policy".equalsIgnoreCase(key) || "X-Content-Security-Policy".equalsIgnoreCase(key) || "X-WebKit-CSP".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Refresh".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("Status".equalsIgnoreCase(key))
-      return Responses.from(value);
-
-    if ("Timing-Allow-Origin".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Content-Duration".equalsIgnoreCase(key))
-      return new BigDecimal(value);
-
-    if ("X-Content-Type-Options".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Powered-By".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-Request-ID".equalsIgnoreCase(key) || "X-Correlation-ID".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-UA-Compatible".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    if ("X-XSS-Protection".equalsIgnoreCase(key)) {
-      // FIXME: Does this have a strong type?
-      return value;
-    }
-
-    return NOT_FOUND;
+    final HeaderParser parser = responseParsers.get(key);
+    return parser != null ? parser.parse(key, value, true) : NOT_FOUND;
   }
 
   private HttpHeadersUtil() {
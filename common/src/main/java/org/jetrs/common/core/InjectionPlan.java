@@ -0,0 +1,138 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+
+import javax.ws.rs.core.Context;
+
+import org.libj.lang.Classes;
+
+/**
+ * The plan for the injection of the {@link Context} fields of a class, computed
+ * once per class. The plan holds the {@link Context} fields of the class and
+ * its superclasses, each with the slot of its context type pre-resolved by the
+ * {@link AnnotationInjector}, and a {@link MethodHandle} setter adapted to
+ * {@code (Object,Object)void}. Injecting an instance is thus a loop over the
+ * fields without any reflective lookups.
+ */
+public final class InjectionPlan {
+  private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final ClassValue<InjectionPlan> plans = new ClassValue<InjectionPlan>() {
+    @Override
+    protected InjectionPlan computeValue(final Class<?> type) {
+      return new InjectionPlan(type);
+    }
+  };
+
+  /**
+   * Returns the {@link InjectionPlan} for the specified class.
+   *
+   * @param cls The class.
+   * @return The {@link InjectionPlan} for the specified class.
+   * @throws NullPointerException If {@code cls} is null.
+   */
+  public static InjectionPlan get(final Class<?> cls) {
+    return plans.get(cls);
+  }
+
+  private static MethodHandle getSetter(final Field field) {
+    try {
+      final MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+      return (Modifier.isStatic(field.getModifiers()) ? MethodHandles.dropArguments(setter, 0, Object.class) : setter).asType(setterType);
+    }
+    catch (final IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private final Field[] fields;
+  private final int[] slots;
+  private final MethodHandle[] setters;
+
+  private InjectionPlan(final Class<?> cls) {
+    final ArrayList<Field> fields = new ArrayList<>();
+    for (final Field field : Classes.getDeclaredFieldsDeep(cls))
+      if (field.isAnnotationPresent(Context.class))
+        fields.add(field);
+
+    this.fields = fields.toArray(new Field[fields.size()]);
+    this.slots = new int[this.fields.length];
+    this.setters = new MethodHandle[this.fields.length];
+    for (int i = 0; i < this.fields.length; ++i) {
+      final Field field = this.fields[i];
+      slots[i] = AnnotationInjector.getContextSlot(field.getType());
+      field.setAccessible(true);
+      setters[i] = getSetter(field);
+    }
+  }
+
+  /**
+   * Returns whether the class of this plan has no {@link Context} fields.
+   *
+   * @return Whether the class of this plan has no {@link Context} fields.
+   */
+  public boolean isEmpty() {
+    return fields.length == 0;
+  }
+
+  /**
+   * Injects the {@link Context} fields of the specified instance with the
+   * context objects of the provided {@link AnnotationInjector}.
+   *
+   * @param annotationInjector The {@link AnnotationInjector}.
+   * @param instance The instance.
+   * @throws IllegalAccessException If a field cannot be set.
+   * @throws IllegalArgumentException If the type of a field is not an
+   *           injectable context type.
+   * @throws UnsupportedOperationException If the {@link AnnotationInjector}
+   *           has no context object for the type of a field.
+   */
+  void inject(final AnnotationInjector annotationInjector, final Object instance) throws IllegalAccessException {
+    for (int i = 0; i < fields.length; ++i) {
+      final Field field = fields[i];
+      final Object injectableObject = annotationInjector.getContextObject(slots[i], field.getType());
+      if (injectableObject == null)
+        throw new UnsupportedOperationException("Unsupported @Context type: " + field.getType().getName() + " on: " + instance.getClass().getName() + "." + field.getName());
+
+      final MethodHandle setter = setters[i];
+      if (setter == null) {
+        field.set(instance, injectableObject);
+        continue;
+      }
+
+      try {
+        setter.invokeExact(instance, injectableObject);
+      }
+      catch (final ClassCastException e) {
+        throw new IllegalArgumentException(e);
+      }
+      catch (final RuntimeException | Error e) {
+        throw e;
+      }
+      catch (final Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.common.ext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ws.rs.core.MediaType;
+
+import org.jetrs.common.EntityProviderResource;
+
+/**
+ * Bounded cache of the {@link EntityProviderResource} selected for an entity,
+ * keyed by the raw type, generic type, annotations and media type of the
+ * entity. The absence of a compatible provider is cached as well.
+ * <p>
+ * The media type of a key is reduced to its type, subtype, and the parameters
+ * that are named in the media types of the providers, so that parameters that
+ * differ with each request, such as the {@code boundary} of a multipart
+ * entity, do not create a key for each request. A provider that inspects other
+ * parameters of the media type must be annotated with {@link UncachedProvider}.
+ * <p>
+ * The cache is tied to the immutable list of providers of a
+ * {@link ProvidersImpl}, and is thus invalidated only by the construction of a
+ * {@link ProvidersImpl} with a different set of providers. The cache holds at
+ * most {@link #MAX_SIZE} entries in two generations: entries are put into the
+ * young generation, which becomes the old generation when it is full, and the
+ * previous old generation is discarded. An entry that is found in the old
+ * generation is put back into the young generation, so entries that are in use
+ * are retained.
+ */
+final class EntityProviderCache {
+  private static final int MAX_SIZE = 4096;
+  static final Object NONE = new Object();
+
+  static final class Key {
+    private static int hashCode(final String string) {
+      int hashCode = 0;
+      for (int i = 0, len = string.length(); i < len; ++i)
+        hashCode = 31 * hashCode + Character.toLowerCase(string.charAt(i));
+
+      return hashCode;
+    }
+
+    private final Class<?> type;
+    private final Type genericType;
+    private final Annotation[] annotations;
+    private final String mediaType;
+    private final String mediaSubtype;
+    private final Map<String,String> parameters;
+    private final int hashCode;
+
+    private Key(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final Map<String,String> parameters) {
+      this.type = type;
+      this.genericType = genericType;
+      this.annotations = annotations;
+      this.mediaType = mediaType == null ? null : mediaType.getType();
+      this.mediaSubtype = mediaType == null ? null : mediaType.getSubtype();
+      this.parameters = parameters;
+
+      int hashCode = type == null ? 0 : type.hashCode();
+      hashCode = 31 * hashCode + (genericType == null ? 0 : genericType == type ? 1 : genericType.hashCode());
+      if (annotations != null)
+        for (final Annotation annotation : annotations)
+          hashCode = 31 * hashCode + annotation.annotationType().hashCode();
+
+      if (mediaType != null) {
+        hashCode = 31 * hashCode + hashCode(this.mediaType);
+        hashCode = 31 * hashCode + hashCode(mediaSubtype);
+        hashCode = 31 * hashCode + parameters.hashCode();
+      }
+
+      this.hashCode = hashCode;
+    }
+
+    private boolean annotationsEqual(final Annotation[] annotations) {
+      final int length1 = this.annotations == null ? 0 : this.annotations.length;
+      final int length2 = annotations == null ? 0 : annotations.length;
+      if (length1 != length2)
+        return false;
+
+      for (int i = 0; i < length1; ++i)
+        if (this.annotations[i] != annotations[i] && !this.annotations[i].equals(annotations[i]))
+          return false;
+
+      return true;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      if (hashCode != that.hashCode || type != that.type)
+        return false;
+
+      if (genericType != that.genericType && (genericType == null || !genericType.equals(that.genericType)))
+        return false;
+
+      if (mediaType == null ? that.mediaType != null : that.mediaType == null || !mediaType.equalsIgnoreCase(that.mediaType) || !mediaSubtype.equalsIgnoreCase(that.mediaSubtype) || !parameters.equals(that.parameters))
+        return false;
+
+      return annotationsEqual(that.annotations);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final Set<String> parameterNames;
+  private volatile Map<Key,Object> young = new ConcurrentHashMap<>();
+  private volatile Map<Key,Object> old = Collections.emptyMap();
+
+  /**
+   * Creates a new {@link EntityProviderCache} for the specified providers.
+   *
+   * @param providers The providers.
+   */
+  EntityProviderCache(final List<? extends EntityProviderResource<?>> providers) {
+    final Set<String> parameterNames = new HashSet<>();
+    for (final EntityProviderResource<?> provider : providers) {
+      final MediaType[] allowedTypes = provider.getAllowedTypes();
+      if (allowedTypes != null)
+        for (final MediaType allowedType : allowedTypes)
+          for (final String name : allowedType.getParameters().keySet())
+            parameterNames.add(name.toLowerCase(Locale.ROOT));
+    }
+
+    parameterNames.remove("q");
+    this.parameterNames = parameterNames;
+  }
+
+  /**
+   * Returns a new {@link Key} for the specified entity.
+   *
+   * @param type The {@link Class} of the entity.
+   * @param genericType The generic {@link Type} of the entity.
+   * @param annotations The annotations attached to the entity.
+   * @param mediaType The {@link MediaType} of the entity.
+   * @return A new {@link Key} for the specified entity.
+   */
+  Key newKey(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+    Map<String,String> parameters = Collections.emptyMap();
+    if (mediaType != null && parameterNames.size() > 0) {
+      for (final Map.Entry<String,String> entry : mediaType.getParameters().entrySet()) {
+        final String name = entry.getKey().toLowerCase(Locale.ROOT);
+        if (parameterNames.contains(name)) {
+          if (parameters.isEmpty())
+            parameters = new HashMap<>();
+
+          parameters.put(name, entry.getValue());
+        }
+      }
+    }
+
+    return new Key(type, genericType, annotations, mediaType, parameters);
+  }
+
+  /**
+   * Returns the {@link EntityProviderResource} cached for the specified key,
+   * {@link #NONE} if the absence of a compatible provider is cached, or
+   * {@code null} if nothing is cached.
+   *
+   * @param key The key.
+   * @return The {@link EntityProviderResource} cached for the specified key,
+   *         {@link #NONE} if the absence of a compatible provider is cached, or
+   *         {@code null} if nothing is cached.
+   */
+  Object get(final Key key) {
+    Object value = young.get(key);
+    if (value == null && (value = old.get(key)) != null)
+      put0(key, value);
+
+    return value;
+  }
+
+  void put(final Key key, final EntityProviderResource<?> provider) {
+    put0(key, provider != null ? provider : NONE);
+  }
+
+  private void put0(final Key key, final Object value) {
+    final Map<Key,Object> young = this.young;
+    young.put(key, value);
+    if (young.size() >= MAX_SIZE / 2) {
+      synchronized (this) {
+        if (this.young == young) {
+          this.old = young;
+          this.young = new ConcurrentHashMap<>();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries in this cache.
+   *
+   * @return The number of entries in this cache.
+   */
+  int size() {
+    return young.size() + old.size();
+  }
+}
@@ -20,6 +20,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.ContextResolver;
@@ -38,15 +39,25 @@ import org.jetrs.common.core.AnnotationInjector;
 public class ProvidersImpl implements Providers {
   public static final Comparator<TypeProviderResource<?>> providerResourceComparator = Comparator.nullsFirst((o1, o2) -> o1.getType() == o2.getType() ? Integer.compare(o1.getPriority(), o2.getPriority()) : o1.getType().isAssignableFrom(o2.getType()) ? 1 : -1);
 
+  private static final int MAX_EXCEPTION_MAPPER_CACHE_SIZE = 256;
+
   private final List<? extends ExceptionMappingProviderResource> exceptionMappers;
   private final List<? extends EntityReaderProviderResource> entityReaders;
   private final List<? extends EntityWriterProviderResource> entityWriters;
+  // Not a ClassValue, because a value that is associated with a class of the
+  // JDK (e.g. java.io.IOException) would retain the application's classloader
+  private final ConcurrentHashMap<Class<?>,Object> exceptionMapperCache;
+  private final EntityProviderCache readerCache;
+  private final EntityProviderCache writerCache;
   private final AnnotationInjector annotationInjector;
 
   public ProvidersImpl(final ProvidersImpl copy, final AnnotationInjector annotationInjector) {
     this.exceptionMappers = copy.exceptionMappers;
     this.entityReaders = copy.entityReaders;
     this.entityWriters = copy.entityWriters;
+    this.exceptionMapperCache = copy.exceptionMapperCache;
+    this.readerCache = copy.readerCache;
+    this.writerCache = copy.writerCache;
     this.annotationInjector = annotationInjector;
   }
 
@@ -54,6 +65,9 @@ public class ProvidersImpl implements Providers {
     this.exceptionMappers = exceptionMappers;
     this.entityReaders = entityReaders;
     this.entityWriters = entityWriters;
+    this.exceptionMapperCache = new ConcurrentHashMap<>();
+    this.readerCache = new EntityProviderCache(entityReaders);
+    this.writerCache = new EntityProviderCache(entityWriters);
     this.annotationInjector = null;
 
     this.exceptionMappers.sort(providerResourceComparator);
@@ -61,33 +75,82 @@ public class ProvidersImpl implements Providers {
     this.entityWriters.sort(providerResourceComparator);
   }
 
+  /**
+   * Returns the {@link ExceptionMappingProviderResource} whose type is nearest
+   * to the specified exception type in its superclass hierarchy, or
+   * {@code null} if no exception mapper is assignable from the type. Of the
+   * exception mappers for a same type, the one with the highest priority is
+   * returned.
+   *
+   * @param exceptionMappers The exception mappers sorted with
+   *          {@link #providerResourceComparator}.
+   * @param type The exception type.
+   * @return The {@link ExceptionMappingProviderResource} whose type is nearest
+   *         to the specified exception type in its superclass hierarchy, or
+   *         {@code null} if no exception mapper is assignable from the type.
+   */
+  private static ExceptionMappingProviderResource getExceptionMapper(final List<? extends ExceptionMappingProviderResource> exceptionMappers, final Class<?> type) {
+    for (Class<?> cls = type; cls != null; cls = cls.getSuperclass())
+      for (final ExceptionMappingProviderResource exceptionMapper : exceptionMappers)
+        if (exceptionMapper.getType() == cls)
+          return exceptionMapper;
+
+    return null;
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked"})
-  private <T,M>M getProvider(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final List<? extends EntityProviderResource<?>> providers) {
-    for (final EntityProviderResource provider : providers)
-      if (provider.getCompatibleMediaType(provider.getMatchInstance(), type, genericType, annotations, mediaType) != null)
+  private <T,M>M getProvider(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final List<? extends EntityProviderResource<?>> providers, final EntityProviderCache cache) {
+    final EntityProviderCache.Key key = cache.newKey(type, genericType, annotations, mediaType);
+    final Object cached = cache.get(key);
+    if (cached == EntityProviderCache.NONE)
+      return null;
+
+    if (cached != null)
+      return (M)((EntityProviderResource)cached).getSingletonOrNewInstance(annotationInjector);
+
+    boolean cacheable = true;
+    for (final EntityProviderResource provider : providers) {
+      cacheable &= provider.isCacheable();
+      if (provider.getCompatibleMediaType(provider.getMatchInstance(), type, genericType, annotations, mediaType) != null) {
+        if (cacheable)
+          cache.put(key, provider);
+
         return (M)provider.getSingletonOrNewInstance(annotationInjector);
+      }
+    }
+
+    if (cacheable)
+      cache.put(key, null);
 
     return null;
   }
 
   @Override
   public <T>MessageBodyReader<T> getMessageBodyReader(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
-    return getProvider(type, genericType, annotations, mediaType, entityReaders);
+    return getProvider(type, genericType, annotations, mediaType, entityReaders, readerCache);
   }
 
   @Override
   public <T>MessageBodyWriter<T> getMessageBodyWriter(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
-    return getProvider(type, genericType, annotations, mediaType, entityWriters);
+    return getProvider(type, genericType, annotations, mediaType, entityWriters, writerCache);
   }
 
   @Override
   @SuppressWarnings("unchecked")
   public <T extends Throwable>ExceptionMapper<T> getExceptionMapper(final Class<T> type) {
-    for (final ExceptionMappingProviderResource exceptionMapper : exceptionMappers)
-      if (exceptionMapper.getType().isAssignableFrom(type))
-        return (ExceptionMapper<T>)exceptionMapper.getSingletonOrNewInstance(annotationInjector);
-
-    return null;
+    Object cached = exceptionMapperCache.get(type);
+    if (cached == null) {
+      final ExceptionMappingProviderResource exceptionMapper = getExceptionMapper(exceptionMappers, type);
+      cached = exceptionMapper != null ? exceptionMapper : EntityProviderCache.NONE;
+      // The exception types of an application are few, so the cache is cleared
+      // only to bound it against a pathological number of exception types
+      if (exceptionMapperCache.size() >= MAX_EXCEPTION_MAPPER_CACHE_SIZE)
+        exceptionMapperCache.clear();
+
+      exceptionMapperCache.put(type, cached);
+    }
+
+    return cached == EntityProviderCache.NONE ? null : (ExceptionMapper<T>)((ExceptionMappingProviderResource)cached).getSingletonOrNewInstance(annotationInjector);
   }
 
   @Override
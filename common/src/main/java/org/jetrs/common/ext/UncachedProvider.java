@@ -0,0 +1,43 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.common.ext;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * Indicates that the selection of the annotated {@link MessageBodyReader} or
+ * {@link MessageBodyWriter} must not be cached by {@link ProvidersImpl}.
+ * <p>
+ * The selection of entity providers is cached on the raw type, generic type,
+ * annotations and media type of the entity. A provider whose
+ * {@link MessageBodyReader#isReadable isReadable} or
+ * {@link MessageBodyWriter#isWriteable isWriteable} depends on anything else,
+ * such as injected context or mutable state, should be annotated with
+ * {@link UncachedProvider}. Lookups that consult an uncached provider are
+ * always evaluated against the registered providers.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UncachedProvider {
+}
@@ -0,0 +1,39 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import javax.ws.rs.BadRequestException;
+
+/**
+ * {@link BadRequestException} for a {@link javax.ws.rs.QueryParam} or
+ * {@link javax.ws.rs.PathParam} value that cannot be parsed to the primitive
+ * type of the parameter. Malformed parameters are a client error that is
+ * expected in normal operation, so this exception does not fill in its stack
+ * trace.
+ */
+final class BadParameterException extends BadRequestException {
+  private static final long serialVersionUID = -5117613282870361520L;
+
+  BadParameterException(final String message) {
+    super(message);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
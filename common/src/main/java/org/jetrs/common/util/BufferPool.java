@@ -0,0 +1,213 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped pool of fixed-size {@code byte[]} segments for the serialization of
+ * entities. A segment is acquired from, and released to, the stripe of the
+ * current thread, so threads rarely contend for the same stripe. At most
+ * {@link #getMaxRetained()} segments are retained by the pool; segments that
+ * are released to a full stripe are discarded.
+ * <p>
+ * The {@link #DEFAULT} pool has segments of {@link #DEFAULT_SEGMENT_SIZE}
+ * bytes, and retains at most {@link #DEFAULT_MAX_RETAINED} segments. A server
+ * application that is configured with other values creates its own pool.
+ */
+public final class BufferPool {
+  /** The default size of a segment. */
+  public static final int DEFAULT_SEGMENT_SIZE = 8192;
+
+  /** The default maximum number of segments retained by a pool. */
+  public static final int DEFAULT_MAX_RETAINED = 1024;
+
+  public static final BufferPool DEFAULT = new BufferPool(DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_RETAINED);
+
+  private static final class Stripe {
+    private final byte[][] segments;
+    private int size;
+
+    private Stripe(final int capacity) {
+      this.segments = new byte[capacity][];
+    }
+  }
+
+  private final int segmentSize;
+  private final int maxRetained;
+  private final Stripe[] stripes;
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder allocated = new LongAdder();
+  private final LongAdder released = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+
+  /**
+   * Creates a new {@link BufferPool} with the specified segment size and
+   * maximum number of retained segments.
+   *
+   * @param segmentSize The size of a segment.
+   * @param maxRetained The maximum number of segments retained by the pool.
+   * @throws IllegalArgumentException If {@code segmentSize} is not positive,
+   *           or if {@code maxRetained} is negative.
+   */
+  public BufferPool(final int segmentSize, final int maxRetained) {
+    if (segmentSize <= 0)
+      throw new IllegalArgumentException("segmentSize (" + segmentSize + ") must be positive");
+
+    if (maxRetained < 0)
+      throw new IllegalArgumentException("maxRetained (" + maxRetained + ") must be non-negative");
+
+    this.segmentSize = segmentSize;
+    this.maxRetained = maxRetained;
+    int count = 1;
+    while (count < 2 * Runtime.getRuntime().availableProcessors() && count * 2 <= maxRetained / 4)
+      count *= 2;
+
+    this.stripes = new Stripe[count];
+    final int capacity = maxRetained / count;
+    for (int i = 0; i < count; ++i)
+      stripes[i] = new Stripe(capacity);
+  }
+
+  private Stripe stripe() {
+    final long id = Thread.currentThread().getId();
+    return stripes[(int)(id ^ (id >>> 32)) & (stripes.length - 1)];
+  }
+
+  /**
+   * Returns a segment of {@link #getSegmentSize()} bytes, which is either
+   * reused from this pool or newly allocated. The content of a reused segment
+   * is undefined.
+   *
+   * @return A segment of {@link #getSegmentSize()} bytes.
+   */
+  public byte[] acquire() {
+    acquired.increment();
+    final Stripe stripe = stripe();
+    synchronized (stripe) {
+      if (stripe.size > 0) {
+        final byte[] segment = stripe.segments[--stripe.size];
+        stripe.segments[stripe.size] = null;
+        return segment;
+      }
+    }
+
+    allocated.increment();
+    return new byte[segmentSize];
+  }
+
+  /**
+   * Returns the specified segment to this pool. The segment must not be used by
+   * the caller after it is released.
+   *
+   * @param segment The segment.
+   * @throws IllegalArgumentException If the length of {@code segment} is not
+   *           {@link #getSegmentSize()}.
+   */
+  public void release(final byte[] segment) {
+    if (segment.length != segmentSize)
+      throw new IllegalArgumentException("Segment length (" + segment.length + ") does not match segmentSize (" + segmentSize + ")");
+
+    released.increment();
+    final Stripe stripe = stripe();
+    synchronized (stripe) {
+      if (stripe.size < stripe.segments.length) {
+        stripe.segments[stripe.size++] = segment;
+        return;
+      }
+    }
+
+    discarded.increment();
+  }
+
+  /**
+   * Returns the size of a segment of this pool.
+   *
+   * @return The size of a segment of this pool.
+   */
+  public int getSegmentSize() {
+    return this.segmentSize;
+  }
+
+  /**
+   * Returns the maximum number of segments retained by this pool.
+   *
+   * @return The maximum number of segments retained by this pool.
+   */
+  public int getMaxRetained() {
+    return this.maxRetained;
+  }
+
+  /**
+   * Returns the number of segments that are retained by this pool.
+   *
+   * @return The number of segments that are retained by this pool.
+   */
+  public int getRetainedCount() {
+    int retained = 0;
+    for (final Stripe stripe : stripes) {
+      synchronized (stripe) {
+        retained += stripe.size;
+      }
+    }
+
+    return retained;
+  }
+
+  /**
+   * Returns the number of segments that have been acquired from this pool.
+   *
+   * @return The number of segments that have been acquired from this pool.
+   */
+  public long getAcquiredCount() {
+    return acquired.sum();
+  }
+
+  /**
+   * Returns the number of segments that have been allocated by this pool,
+   * because no segment could be reused.
+   *
+   * @return The number of segments that have been allocated by this pool.
+   */
+  public long getAllocatedCount() {
+    return allocated.sum();
+  }
+
+  /**
+   * Returns the number of segments that have been released to this pool.
+   *
+   * @return The number of segments that have been released to this pool.
+   */
+  public long getReleasedCount() {
+    return released.sum();
+  }
+
+  /**
+   * Returns the number of released segments that have been discarded, because
+   * the pool was full.
+   *
+   * @return The number of released segments that have been discarded.
+   */
+  public long getDiscardedCount() {
+    return discarded.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "{segmentSize: " + segmentSize + ", maxRetained: " + maxRetained + ", retained: " + getRetainedCount() + ", acquired: " + getAcquiredCount() + ", allocated: " + getAllocatedCount() + ", released: " + getReleasedCount() + ", discarded: " + getDiscardedCount() + "}";
+  }
+}
@@ -0,0 +1,328 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.ws.rs.core.HttpHeaders;
+
+/**
+ * Open-addressing {@link java.util.Map} of HTTP header names to values, in
+ * which names are compared case-insensitively. The case-insensitive hash code
+ * of each name is stored alongside the name, so that a probe compares the
+ * characters of a name only if the hash codes are equal.
+ * <p>
+ * Names that are equal to a well-known header name are replaced with the
+ * interned constant of that name when they are put in the map, so that maps
+ * that are created for each request share the instances of the names.
+ * <p>
+ * This map does not permit {@code null} names, and is not synchronized.
+ *
+ * @param <V> The type of mapped values.
+ */
+public class HeaderNameMap<V> extends AbstractMap<String,V> implements Cloneable {
+  private static final String[] wellKnownNames = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_CHARSET, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.ALLOW, HttpHeaders.AUTHORIZATION, HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_ID, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_LOCATION, HttpHeaders.CONTENT_TYPE, HttpHeaders.COOKIE, HttpHeaders.DATE, HttpHeaders.ETAG, HttpHeaders.EXPIRES, HttpHeaders.HOST, HttpHeaders.IF_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_UNMODIFIED_SINCE, HttpHeaders.LAST_EVENT_ID_HEADER, HttpHeaders.LAST_MODIFIED, HttpHeaders.LINK, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER, HttpHeaders.SET_COOKIE, HttpHeaders.USER_AGENT, HttpHeaders.VARY, HttpHeaders.WWW_AUTHENTICATE, "Accept-Ranges", "Connection", "Origin", "Pragma", "Referer", "Server", "Transfer-Encoding", "Upgrade", "Via", "X-Forwarded-For", "X-Forwarded-Host", "X-Forwarded-Proto", "X-Request-ID"};
+  private static final HeaderNameTable<String> interned = new HeaderNameTable<>(wellKnownNames.length);
+
+  static {
+    for (final String name : wellKnownNames)
+      interned.put(name, name);
+  }
+
+  /** Marker of a slot from which a mapping has been removed. */
+  private static final String REMOVED = new String();
+
+  private String[] names;
+  private Object[] values;
+  private int[] hashes;
+  private int size;
+  private int removed;
+  private int modCount;
+
+  /**
+   * Creates a new {@link HeaderNameMap} with capacity for the specified number
+   * of names before it is resized.
+   *
+   * @param expectedSize The expected number of names.
+   */
+  public HeaderNameMap(final int expectedSize) {
+    init(Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1);
+  }
+
+  /**
+   * Creates a new {@link HeaderNameMap} with capacity for 16 names before it is
+   * resized.
+   */
+  public HeaderNameMap() {
+    this(16);
+  }
+
+  private void init(final int capacity) {
+    this.names = new String[capacity];
+    this.values = new Object[capacity];
+    this.hashes = new int[capacity];
+  }
+
+  private static String intern(final String name) {
+    final String wellKnown = interned.getName(name);
+    return wellKnown != null && wellKnown.equals(name) ? wellKnown : name;
+  }
+
+  private int indexOf(final Object key) {
+    if (!(key instanceof String))
+      return -1;
+
+    final String name = (String)key;
+    final int hash = HeaderNameTable.hashCode(name);
+    final int mask = names.length - 1;
+    for (int i = hash & mask; names[i] != null; i = (i + 1) & mask)
+      if (hashes[i] == hash && names[i] != REMOVED && (names[i] == name || names[i].equalsIgnoreCase(name)))
+        return i;
+
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(final Object key) {
+    final int index = indexOf(key);
+    return index < 0 ? null : (V)values[index];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(final String key, final V value) {
+    final int hash = HeaderNameTable.hashCode(key);
+    final int mask = names.length - 1;
+    int free = -1;
+    int i = hash & mask;
+    for (String name; (name = names[i]) != null; i = (i + 1) & mask) {
+      if (name == REMOVED) {
+        if (free == -1)
+          free = i;
+      }
+      else if (hashes[i] == hash && (name == key || name.equalsIgnoreCase(key))) {
+        final V previous = (V)values[i];
+        values[i] = value;
+        return previous;
+      }
+    }
+
+    if (free != -1) {
+      i = free;
+      --removed;
+    }
+    else if ((size + removed + 1) * 2 > names.length) {
+      resize(size * 4 >= names.length ? names.length << 1 : names.length);
+      i = hash & (names.length - 1);
+      while (names[i] != null)
+        i = (i + 1) & (names.length - 1);
+    }
+
+    names[i] = intern(key);
+    values[i] = value;
+    hashes[i] = hash;
+    ++size;
+    ++modCount;
+    return null;
+  }
+
+  private void resize(final int capacity) {
+    final String[] names = this.names;
+    final Object[] values = this.values;
+    final int[] hashes = this.hashes;
+    init(capacity);
+    final int mask = capacity - 1;
+    for (int j = 0; j < names.length; ++j) {
+      if (names[j] != null && names[j] != REMOVED) {
+        int i = hashes[j] & mask;
+        while (this.names[i] != null)
+          i = (i + 1) & mask;
+
+        this.names[i] = names[j];
+        this.values[i] = values[j];
+        this.hashes[i] = hashes[j];
+      }
+    }
+
+    removed = 0;
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final int index = indexOf(key);
+    return index < 0 ? null : removeAt(index);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V removeAt(final int index) {
+    final V previous = (V)values[index];
+    names[index] = REMOVED;
+    values[index] = null;
+    --size;
+    ++removed;
+    ++modCount;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    if (size + removed == 0)
+      return;
+
+    Arrays.fill(names, null);
+    Arrays.fill(values, null);
+    size = 0;
+    removed = 0;
+    ++modCount;
+  }
+
+  private Set<Map.Entry<String,V>> entrySet;
+
+  @Override
+  public Set<Map.Entry<String,V>> entrySet() {
+    return entrySet == null ? entrySet = new AbstractSet<Map.Entry<String,V>>() {
+      @Override
+      public Iterator<Map.Entry<String,V>> iterator() {
+        return new Iterator<Map.Entry<String,V>>() {
+          private int expectedModCount = modCount;
+          private int next = advance(0);
+          private int last = -1;
+
+          private int advance(int i) {
+            while (i < names.length && (names[i] == null || names[i] == REMOVED))
+              ++i;
+
+            return i;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next < names.length;
+          }
+
+          @Override
+          public Map.Entry<String,V> next() {
+            if (modCount != expectedModCount)
+              throw new ConcurrentModificationException();
+
+            if (next >= names.length)
+              throw new NoSuchElementException();
+
+            final int index = last = next;
+            next = advance(next + 1);
+            return new Map.Entry<String,V>() {
+              @Override
+              public String getKey() {
+                return names[index];
+              }
+
+              @Override
+              @SuppressWarnings("unchecked")
+              public V getValue() {
+                return (V)values[index];
+              }
+
+              @Override
+              @SuppressWarnings("unchecked")
+              public V setValue(final V value) {
+                final V previous = (V)values[index];
+                values[index] = value;
+                return previous;
+              }
+
+              @Override
+              public boolean equals(final Object obj) {
+                if (!(obj instanceof Map.Entry))
+                  return false;
+
+                final Map.Entry<?,?> that = (Map.Entry<?,?>)obj;
+                return getKey().equals(that.getKey()) && (getValue() == null ? that.getValue() == null : getValue().equals(that.getValue()));
+              }
+
+              @Override
+              public int hashCode() {
+                return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+              }
+
+              @Override
+              public String toString() {
+                return getKey() + "=" + getValue();
+              }
+            };
+          }
+
+          @Override
+          public void remove() {
+            if (last == -1)
+              throw new IllegalStateException();
+
+            if (modCount != expectedModCount)
+              throw new ConcurrentModificationException();
+
+            removeAt(last);
+            expectedModCount = modCount;
+            last = -1;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public void clear() {
+        HeaderNameMap.this.clear();
+      }
+    } : entrySet;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public HeaderNameMap<V> clone() {
+    try {
+      final HeaderNameMap<V> clone = (HeaderNameMap<V>)super.clone();
+      clone.names = names.clone();
+      clone.values = values.clone();
+      clone.hashes = hashes.clone();
+      clone.entrySet = null;
+      return clone;
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+/**
+ * Open-addressing table that maps HTTP header names to values, in which names
+ * are compared case-insensitively. A name is hashed with its ASCII letters
+ * folded to lower case, so a lookup probes the table without creating a lower
+ * case copy of the name, and a name that is absent from the table is usually
+ * rejected by its first probe.
+ * <p>
+ * The table is not synchronized. Tables that are shared between threads must
+ * be fully populated before they are published.
+ *
+ * @param <V> The type of the values.
+ */
+public class HeaderNameTable<V> {
+  /**
+   * Returns the case-insensitive hash code of the specified header name.
+   *
+   * @param name The header name.
+   * @return The case-insensitive hash code of the specified header name.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  public static int hashCode(final String name) {
+    int h = 0;
+    for (int i = 0, len = name.length(); i < len; ++i) {
+      final char ch = name.charAt(i);
+      h = 31 * h + (ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch);
+    }
+
+    return h ^ (h >>> 16);
+  }
+
+  private String[] names;
+  private Object[] values;
+  private int size;
+
+  /**
+   * Creates a new {@link HeaderNameTable} with capacity for the specified
+   * number of names before it is resized.
+   *
+   * @param expectedSize The expected number of names.
+   */
+  public HeaderNameTable(final int expectedSize) {
+    final int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    this.names = new String[capacity];
+    this.values = new Object[capacity];
+  }
+
+  private int indexOf(final String name) {
+    final int mask = names.length - 1;
+    int i = hashCode(name) & mask;
+    for (String key; (key = names[i]) != null; i = (i + 1) & mask)
+      if (key == name || key.equalsIgnoreCase(name))
+        return i;
+
+    return ~i;
+  }
+
+  /**
+   * Returns the value to which the specified header name is mapped, or
+   * {@code null} if this table has no mapping for the name.
+   *
+   * @param name The header name.
+   * @return The value to which the specified header name is mapped, or
+   *         {@code null} if this table has no mapping for the name.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final String name) {
+    final int index = indexOf(name);
+    return index < 0 ? null : (V)values[index];
+  }
+
+  /**
+   * Returns the name in this table that is equal to the specified header name
+   * ignoring case, or {@code null} if this table has no mapping for the name.
+   *
+   * @param name The header name.
+   * @return The name in this table that is equal to the specified header name
+   *         ignoring case, or {@code null} if this table has no mapping for the
+   *         name.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  public String getName(final String name) {
+    final int index = indexOf(name);
+    return index < 0 ? null : names[index];
+  }
+
+  /**
+   * Maps the specified header name to the specified value. The case of a name
+   * that is already in the table is retained.
+   *
+   * @param name The header name.
+   * @param value The value.
+   * @return The previous value to which the name was mapped, or {@code null}
+   *         if this table had no mapping for the name.
+   * @throws NullPointerException If {@code name} is null.
+   */
+  @SuppressWarnings("unchecked")
+  public V put(final String name, final V value) {
+    int index = indexOf(name);
+    if (index >= 0) {
+      final V previous = (V)values[index];
+      values[index] = value;
+      return previous;
+    }
+
+    if (++size * 2 > names.length) {
+      resize(names.length << 1);
+      index = indexOf(name);
+    }
+
+    index = ~index;
+    names[index] = name;
+    values[index] = value;
+    return null;
+  }
+
+  /**
+   * Copies all mappings of the specified table to this table.
+   *
+   * @param table The {@link HeaderNameTable} of the mappings to copy.
+   * @throws NullPointerException If {@code table} is null.
+   */
+  @SuppressWarnings("unchecked")
+  public void putAll(final HeaderNameTable<? extends V> table) {
+    for (int i = 0; i < table.names.length; ++i)
+      if (table.names[i] != null)
+        put(table.names[i], (V)table.values[i]);
+  }
+
+  private void resize(final int capacity) {
+    final String[] names = this.names;
+    final Object[] values = this.values;
+    this.names = new String[capacity];
+    this.values = new Object[capacity];
+    for (int i = 0; i < names.length; ++i) {
+      if (names[i] != null) {
+        final int index = ~indexOf(names[i]);
+        this.names[index] = names[i];
+        this.values[index] = values[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the number of names in this table.
+   *
+   * @return The number of names in this table.
+   */
+  public int size() {
+    return size;
+  }
+}
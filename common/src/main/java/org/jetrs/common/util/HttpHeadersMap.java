@@ -17,7 +17,6 @@
 package org.jetrs.common.util;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,7 +28,8 @@ import org.libj.util.MirrorMap;
 /**
  * A {@link MirrorMultivaluedMap} that uses lists of type
  * {@link MirrorQualityList}, which automatically sort header values based on
- * quality (i.e. {@code "q=0.2"}).
+ * quality (i.e. {@code "q=0.2"}). The keys of the map are header names, which
+ * are compared case-insensitively.
  *
  * @param <K> The type of keys maintained by this map.
  * @param <V> The type of value elements in this map.
@@ -47,6 +47,19 @@ public class HttpHeadersMap<K,V,R> extends MirrorMultivaluedMap<K,V,R> {
     return (C)new ArrayList<>(list);
   }
 
+  /**
+   * Returns a new {@link HeaderNameMap} for the underlying maps of a
+   * {@link HttpHeadersMap}, the keys of which are header names.
+   *
+   * @param <K> The type of keys.
+   * @param <V> The type of mapped values.
+   * @return A new {@link HeaderNameMap}.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K,V>Map<K,V> newHeaderNameMap() {
+    return (Map<K,V>)new HeaderNameMap<V>();
+  }
+
   /**
    * Creates a new {@link HttpHeadersMap} with a default
    * {@link org.jetrs.common.util.MirrorMultivaluedMap.Mirror} that instantiates
@@ -62,7 +75,7 @@ public class HttpHeadersMap<K,V,R> extends MirrorMultivaluedMap<K,V,R> {
    * @throws NullPointerException If any of the specified parameters is null.
    */
   public HttpHeadersMap(final MirrorMap.Mirror<? super K,V,R> mirror, final Qualifier<V,R> qualifier) {
-    super(new HashMap<>(), new HashMap<>(), new MirrorMultivaluedMap.Mirror<K,V,R>() {
+    this(newHeaderNameMap(), newHeaderNameMap(), new MirrorMultivaluedMap.Mirror<K,V,R>() {
       @Override
       @SuppressWarnings("unchecked")
       public MirrorQualityList<R,V> valueToReflection(final K key, final List<V> value) {
@@ -154,7 +167,7 @@ public class HttpHeadersMap<K,V,R> extends MirrorMultivaluedMap<K,V,R> {
   }
 
   @Override
-  protected final HttpHeadersMap<K,R,V> newMirrorInstance(final Map<K,List<R>> values) {
+  protected HttpHeadersMap<K,R,V> newMirrorInstance(final Map<K,List<R>> values) {
     return new HttpHeadersMap<>(this, values, getReverseMirror());
   }
 
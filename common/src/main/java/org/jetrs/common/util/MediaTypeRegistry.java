@@ -0,0 +1,233 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Bounded registry of canonical {@link MediaType} instances, keyed by their
+ * string representation. Lookups are performed directly on a region of a
+ * header string, without allocating a substring.
+ * <p>
+ * Only media types of the form {@code type/subtype(;name=value)*} are
+ * registered, whereby each token is free of whitespace and quotes. For such
+ * keys, a region that differs from the key only by whitespace around the
+ * {@code '/'}, {@code ';'} and {@code '='} delimiters is parsed to an equal
+ * {@link MediaType}, and thus resolves to the same instance.
+ * <p>
+ * The registry is copy-on-write: lookups read an immutable table, and
+ * registrations replace it. Media types are registered only for the built-in
+ * constants and for the {@link javax.ws.rs.Consumes} and
+ * {@link javax.ws.rs.Produces} annotations of an application, and not for the
+ * media types that are parsed from request headers, so that clients cannot
+ * fill the registry. Registrations stop once {@link #MAX_SIZE} entries have
+ * been registered.
+ */
+final class MediaTypeRegistry {
+  private static final int MAX_SIZE = 512;
+  private static final int MASK = MAX_SIZE * 2 - 1;
+
+  private static final class Table {
+    private final String[] keys;
+    private final MediaType[] values;
+    private final int size;
+
+    private Table(final String[] keys, final MediaType[] values, final int size) {
+      this.keys = keys;
+      this.values = values;
+      this.size = size;
+    }
+  }
+
+  private static int index(final int hashCode) {
+    return (hashCode ^ (hashCode >>> 16)) & MASK;
+  }
+
+  private static boolean isDelimiter(final char ch) {
+    return ch == '/' || ch == ';' || ch == '=';
+  }
+
+  /**
+   * Returns the index of the first char at or after {@code i} that is not an
+   * insignificant space, or {@code -1} if a significant space is encountered.
+   * A space is insignificant if {@code all} is {@code true}, or if it is
+   * leading or trailing in the region, or if it is adjacent to a delimiter.
+   */
+  private static int skip(final String string, final int start, int i, final int end, final boolean all) {
+    if (i >= end || string.charAt(i) != ' ')
+      return i;
+
+    final int from = i;
+    while (++i < end && string.charAt(i) == ' ');
+    return all || from == start || i == end || isDelimiter(string.charAt(from - 1)) || isDelimiter(string.charAt(i)) ? i : -1;
+  }
+
+  /**
+   * Returns the key of the specified media type string with its insignificant
+   * spaces removed, or {@code null} if the string is not of the form
+   * {@code type/subtype(;name=value)*}.
+   */
+  private static String getKey(final String string) {
+    final int end = string.length();
+    final StringBuilder builder = new StringBuilder(end);
+    char expect = '/';
+    boolean token = false;
+    for (int i = skip(string, 0, 0, end, false); i < end; i = skip(string, 0, i + 1, end, false)) {
+      if (i < 0)
+        return null;
+
+      final char ch = string.charAt(i);
+      if (ch == '"' || ch == ',')
+        return null;
+
+      if (isDelimiter(ch)) {
+        if (!token || ch != expect)
+          return null;
+
+        expect = ch == ';' ? '=' : ';';
+        token = false;
+      }
+      else {
+        token = true;
+      }
+
+      builder.append(ch);
+    }
+
+    return token && expect == ';' ? builder.toString() : null;
+  }
+
+  private volatile Table table = new Table(new String[MASK + 1], new MediaType[MASK + 1], 0);
+
+  /**
+   * Creates a new {@link MediaTypeRegistry} with the specified
+   * {@link MediaType}s registered.
+   *
+   * @param mediaTypes The {@link MediaType}s to register.
+   */
+  MediaTypeRegistry(final MediaType ... mediaTypes) {
+    for (final MediaType mediaType : mediaTypes)
+      put(MediaTypes.toString(mediaType), mediaType);
+  }
+
+  /**
+   * Returns the registered {@link MediaType} for the specified region of the
+   * provided string, or {@code null} if no {@link MediaType} is registered for
+   * the region.
+   *
+   * @param string The string.
+   * @param start The start index of the region, inclusive.
+   * @param end The end index of the region, exclusive.
+   * @param all If {@code true}, all spaces in the region are disregarded;
+   *          otherwise, only the spaces that are leading, trailing, or adjacent
+   *          to a delimiter are disregarded.
+   * @return The registered {@link MediaType} for the specified region of the
+   *         provided string, or {@code null} if no {@link MediaType} is
+   *         registered for the region.
+   */
+  MediaType get(final String string, final int start, final int end, final boolean all) {
+    int hashCode = 0;
+    int length = 0;
+    for (int i = skip(string, start, start, end, all); i < end; i = skip(string, start, i + 1, end, all), ++length) {
+      if (i < 0)
+        return null;
+
+      hashCode = 31 * hashCode + string.charAt(i);
+    }
+
+    if (length == 0)
+      return null;
+
+    final Table table = this.table;
+    for (int index = index(hashCode); table.keys[index] != null; index = (index + 1) & MASK) {
+      final String key = table.keys[index];
+      if (key.length() != length || key.hashCode() != hashCode)
+        continue;
+
+      int k = 0;
+      for (int i = skip(string, start, start, end, all); i < end && key.charAt(k) == string.charAt(i); i = skip(string, start, i + 1, end, all), ++k);
+      if (k == length)
+        return table.values[index];
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the registered {@link MediaType} with the specified type and
+   * subtype and no parameters, or {@code null} if no such {@link MediaType} is
+   * registered.
+   *
+   * @param type The type.
+   * @param subtype The subtype.
+   * @return The registered {@link MediaType} with the specified type and
+   *         subtype and no parameters, or {@code null} if no such
+   *         {@link MediaType} is registered.
+   */
+  MediaType get(final String type, final String subtype) {
+    int hashCode = 31 * type.hashCode() + '/';
+    for (int i = 0, len = subtype.length(); i < len; ++i)
+      hashCode = 31 * hashCode + subtype.charAt(i);
+
+    final int length = type.length() + 1 + subtype.length();
+    final Table table = this.table;
+    for (int index = index(hashCode); table.keys[index] != null; index = (index + 1) & MASK) {
+      final String key = table.keys[index];
+      if (key.length() == length && key.hashCode() == hashCode && key.startsWith(type) && key.charAt(type.length()) == '/' && key.endsWith(subtype))
+        return table.values[index];
+    }
+
+    return null;
+  }
+
+  /**
+   * Registers the specified {@link MediaType} that was parsed from the provided
+   * string, if the string is of the form {@code type/subtype(;name=value)*} and
+   * this registry is not full, and returns the registered {@link MediaType}
+   * for the string.
+   *
+   * @param string The string from which the {@link MediaType} was parsed.
+   * @param mediaType The {@link MediaType}.
+   * @return The {@link MediaType} that was registered for the string before,
+   *         or otherwise the specified {@link MediaType}.
+   */
+  MediaType put(final String string, final MediaType mediaType) {
+    final String key = getKey(string);
+    if (key == null)
+      return mediaType;
+
+    synchronized (this) {
+      final Table table = this.table;
+      final int hashCode = key.hashCode();
+      int index = index(hashCode);
+      for (; table.keys[index] != null; index = (index + 1) & MASK)
+        if (table.keys[index].equals(key))
+          return table.values[index];
+
+      if (table.size >= MAX_SIZE)
+        return mediaType;
+
+      final String[] keys = table.keys.clone();
+      final MediaType[] values = table.values.clone();
+      keys[index] = key;
+      values[index] = mediaType;
+      this.table = new Table(keys, values, table.size + 1);
+    }
+
+    return mediaType;
+  }
+}
@@ -16,9 +16,7 @@
 
 package org.jetrs.common.util;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -41,11 +39,51 @@ public final class MediaTypes {
   public static final MediaType APPLICATION_XML = new MediaType("application", "xml");
   public static final MediaType APPLICATION_JSON = new MediaType("application", "json");
 
-  private static final Comparator<MediaType> qComparator = (o1, o2) -> {
-    final Double s1 = o1 == null ? null : Numbers.parseDouble(o1.getParameters().get("q"));
-    final Double s2 = o2 == null ? null : Numbers.parseDouble(o2.getParameters().get("q"));
-    return Double.compare(s2 == null ? 1 : s2, s1 == null ? 1 : s1);
-  };
+  private static final MediaTypeRegistry registry = new MediaTypeRegistry(
+    MediaType.WILDCARD_TYPE,
+    APPLICATION_JSON,
+    new MediaType("application", "json", "UTF-8"),
+    new MediaType("application", "json", "utf-8"),
+    APPLICATION_XML,
+    MediaType.APPLICATION_OCTET_STREAM_TYPE,
+    MediaType.APPLICATION_FORM_URLENCODED_TYPE,
+    MediaType.MULTIPART_FORM_DATA_TYPE,
+    TEXT_PLAIN,
+    new MediaType("text", "plain", "UTF-8"),
+    MediaType.TEXT_HTML_TYPE,
+    TEXT_XML);
+
+  /**
+   * Sorts the specified array of {@link MediaType}s on the "q" parameter in
+   * descending order. The quality of each {@link MediaType} is parsed once, and
+   * the array is sorted with a stable insertion sort, as the arrays of media
+   * types of a header are small. A null {@link MediaType}, or one without a
+   * valid "q" parameter, has the quality {@code 1}.
+   *
+   * @param mediaTypes The array of {@link MediaType}s.
+   */
+  private static void sortByQuality(final MediaType[] mediaTypes) {
+    final int len = mediaTypes.length;
+    if (len < 2)
+      return;
+
+    final float[] qualities = new float[len];
+    for (int i = 0; i < len; ++i)
+      qualities[i] = mediaTypes[i] == null ? 1f : Numbers.parseFloat(mediaTypes[i].getParameters().get("q"), 1f);
+
+    for (int i = 1; i < len; ++i) {
+      final MediaType mediaType = mediaTypes[i];
+      final float quality = qualities[i];
+      int j = i - 1;
+      for (; j >= 0 && qualities[j] < quality; --j) {
+        mediaTypes[j + 1] = mediaTypes[j];
+        qualities[j + 1] = qualities[j];
+      }
+
+      mediaTypes[j + 1] = mediaType;
+      qualities[j + 1] = quality;
+    }
+  }
 
   /**
    * Returns the first compatible {@link MediaType} that is encountered by
@@ -97,7 +135,6 @@ public final class MediaTypes {
    *         {@link MediaType} is found.
    */
   public static MediaType getCompatible(final MediaType mediaType1, final MediaType[] mediaTypes2) {
-    Arrays.sort(mediaTypes2, qComparator);
     for (final MediaType mediaType2 : mediaTypes2) {
       final MediaType mediaType = getCompatible(mediaType1, mediaType2);
       if (mediaType != null)
@@ -148,10 +185,28 @@ public final class MediaTypes {
     return getCompatibleSubtype(subType1.substring(index1 + 1), subType2.substring(index2 + 1), false);
   }
 
+  private static MediaType newMediaType(final String type, final String subtype, final Map<String,String> parameters) {
+    if (parameters.isEmpty()) {
+      final MediaType mediaType = registry.get(type, subtype);
+      if (mediaType != null)
+        return mediaType;
+    }
+
+    return new MediaType(type, subtype, parameters);
+  }
+
   private static Map<String,String> mergeParameters(final MediaType mediaType1, final MediaType mediaType2) {
+    final Map<String,String> parameters1 = mediaType1.getParameters();
+    final Map<String,String> parameters2 = mediaType2.getParameters();
+    if (parameters2.isEmpty() && !parameters1.containsKey("q"))
+      return parameters1;
+
+    if (parameters1.isEmpty() && !parameters2.containsKey("q"))
+      return parameters2;
+
     final Map<String,String> parameters = new HashMap<>();
-    parameters.putAll(mediaType1.getParameters());
-    parameters.putAll(mediaType2.getParameters());
+    parameters.putAll(parameters1);
+    parameters.putAll(parameters2);
     parameters.remove("q");
     return parameters;
   }
@@ -162,7 +217,7 @@ public final class MediaTypes {
 
     final Map<String,String> parameters = new HashMap<>(mediaType.getParameters());
     parameters.remove("q");
-    return new MediaType(mediaType.getType(), mediaType.getSubtype(), parameters);
+    return newMediaType(mediaType.getType(), mediaType.getSubtype(), parameters);
   }
 
   /**
@@ -205,12 +260,12 @@ public final class MediaTypes {
       if (type.equalsIgnoreCase(mediaType2.getType()) && subType.equalsIgnoreCase(mediaType2.getSubtype()) && mediaType1.getParameters().isEmpty())
         return filter(mediaType2);
 
-      return new MediaType(type, subType, mergeParameters(mediaType1, mediaType2));
+      return newMediaType(type, subType, mergeParameters(mediaType1, mediaType2));
     }
 
     // FIXME: Need to compare parameters for compatibility.
     final Map<String,String> parameters = mergeParameters(mediaType1, mediaType2);
-    return new MediaType(type, subType, parameters);
+    return newMediaType(type, subType, parameters);
   }
 
   private interface Adapter<T> {
@@ -270,6 +325,18 @@ public final class MediaTypes {
       }
 
       final int len = header.length();
+      if (builder == null || builder.length() == 0) {
+        final int comma = header.indexOf(',', start);
+        final int end = comma < 0 ? len : comma;
+        mediaType = registry.get(header, start, end, true);
+        if (mediaType != null) {
+          if ((start = end + 1) >= len)
+            header = null;
+
+          continue;
+        }
+      }
+
       for (int i = start; i <= len; ++i) {
         final char ch;
         if (i == len || (ch = header.charAt(i)) == ',') {
@@ -324,7 +391,7 @@ public final class MediaTypes {
     if (mediaTypes == null)
       return EMPTY_ARRAY;
 
-    Arrays.sort(mediaTypes, qComparator);
+    sortByQuality(mediaTypes);
     return mediaTypes;
   }
 
@@ -349,7 +416,7 @@ public final class MediaTypes {
     if (mediaTypes == null)
       return EMPTY_ARRAY;
 
-    Arrays.sort(mediaTypes, qComparator);
+    sortByQuality(mediaTypes);
     return mediaTypes;
   }
 
@@ -372,7 +439,29 @@ public final class MediaTypes {
     if (mediaTypes == null)
       return EMPTY_ARRAY;
 
-    Arrays.sort(mediaTypes, qComparator);
+    sortByQuality(mediaTypes);
+    return mediaTypes;
+  }
+
+  /**
+   * Parses the specified array of strings of a {@link javax.ws.rs.Consumes} or
+   * {@link javax.ws.rs.Produces} annotation, and registers the parsed
+   * {@link MediaType}s, so that equal media types that are parsed from request
+   * headers resolve to the same instances. This method is to be called only
+   * when an application is initialized, as request headers must not be
+   * registered.
+   *
+   * @param strings The the strings array.
+   * @return An array of the registered {@link MediaType} objects.
+   * @throws NullPointerException If {@code strings} is null.
+   */
+  public static MediaType[] intern(final String ... strings) {
+    final MediaType[] mediaTypes = parse(strings);
+    if (mediaTypes != null)
+      for (int i = 0; i < mediaTypes.length; ++i)
+        if (mediaTypes[i] != null)
+          mediaTypes[i] = registry.put(toString(mediaTypes[i]), mediaTypes[i]);
+
     return mediaTypes;
   }
 
@@ -401,13 +490,20 @@ public final class MediaTypes {
    * @return The corresponding {@link MediaType} object, or {@code null} if the
    *         specified string is null.
    */
-  // FIXME: Reimplement with char-by-char algorithm
   // FIXME: What are the legal name and sub-name spec? Need to properly throw IllegalArgumentException!
   public static MediaType parse(String string) {
     if (string == null)
       throw new IllegalArgumentException(string);
 
-    string = string.trim();
+    final MediaType registered = registry.get(string, 0, string.length(), false);
+    if (registered != null)
+      return registered;
+
+    // The parsed MediaType is not registered, as the string may be the value of a request header
+    return parseMediaType(string.trim());
+  }
+
+  private static MediaType parseMediaType(final String string) {
     if (string.length() == 0)
       throw new IllegalArgumentException(string);
 
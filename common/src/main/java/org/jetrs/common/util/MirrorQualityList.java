@@ -124,6 +124,7 @@ public class MirrorQualityList<V,R> extends MirrorList<V,R> implements Cloneable
   private Qualifier<V,R> qualifier;
   private Qualifier<R,V> reverse;
   private ArrayFloatList qualities;
+  private int version;
 
   /**
    * Creates a new {@link MirrorQualityList} with the specified target lists,
@@ -252,6 +253,17 @@ public class MirrorQualityList<V,R> extends MirrorList<V,R> implements Cloneable
     return reverse == null ? reverse = getQualifier().reverse() : reverse;
   }
 
+  /**
+   * Returns the version of this list, which increases with each modification
+   * of this list or its mirror list. Views that are derived from this list can
+   * compare the version to determine whether they need to be derived again.
+   *
+   * @return The version of this list.
+   */
+  public int getVersion() {
+    return mirrorList == null ? version : version + getMirrorList().version;
+  }
+
   /**
    * Returns the quality for the value at the specified index.
    *
@@ -386,6 +398,7 @@ public class MirrorQualityList<V,R> extends MirrorList<V,R> implements Cloneable
 
   @Override
   protected Object beforeAdd(final int index, final V element, final Object preventDefault) {
+    ++version;
     final boolean unlocked = unlock();
     final long qualityAndIndex = qualifier.valueToQuality(element, 0);
     final float quality = Numbers.Compound.decodeFloat(qualityAndIndex, 0);
@@ -405,6 +418,7 @@ public class MirrorQualityList<V,R> extends MirrorList<V,R> implements Cloneable
 
   @Override
   protected boolean beforeRemove(final int index) {
+    ++version;
     final boolean unlocked = unlock();
     if (qualities() != null)
       qualities.removeIndex(indexToQualitiesIndex(index));
@@ -0,0 +1,182 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
+
+import javax.ws.rs.ext.ParamConverter;
+
+import org.libj.util.CollectionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converter of the values of a {@link javax.ws.rs.QueryParam} or
+ * {@link javax.ws.rs.PathParam} to an instance of the type of the parameter,
+ * compiled by {@link ParameterUtil#newParameterConverter(List,Class,java.lang.reflect.Type,java.lang.annotation.Annotation[])}
+ * for a parameter type, generic type and annotations, and cached by
+ * {@link ParameterConverterCache}.
+ */
+public abstract class ParameterConverter {
+  private static final Logger logger = LoggerFactory.getLogger(ParameterConverter.class);
+
+  /**
+   * Converts the specified values to an instance of the type of the parameter.
+   *
+   * @param values The values.
+   * @return The converted value, {@code null} if {@code values} is null or
+   *         empty, or the {@link Exception} that occurred while invoking the
+   *         {@code valueOf(String)} or {@code fromString(String)} method of the
+   *         type of the parameter.
+   */
+  public final Object convert(final List<String> values) {
+    return values == null || values.size() == 0 ? null : convertValues(values);
+  }
+
+  abstract Object convertValues(List<String> values);
+
+  /**
+   * Converter that delegates to the {@link ParamConverter} provided by a
+   * {@link javax.ws.rs.ext.ParamConverterProvider}.
+   */
+  static final class Provided extends ParameterConverter {
+    private final ParamConverter<?> paramConverter;
+
+    Provided(final ParamConverter<?> paramConverter) {
+      this.paramConverter = paramConverter;
+    }
+
+    @Override
+    Object convertValues(final List<String> values) {
+      return paramConverter.fromString(CollectionUtil.toString(values, ';'));
+    }
+  }
+
+  /**
+   * Converter that applies a {@code (String)Object} {@link MethodHandle} to the
+   * first value, for the types that are converted by the JDK, such as
+   * {@link String} or {@link java.math.BigDecimal}. Exceptions are thrown to
+   * the caller.
+   */
+  static final class First extends ParameterConverter {
+    private final MethodHandle handle;
+
+    First(final MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    Object convertValues(final List<String> values) {
+      final String value = values.get(0);
+      try {
+        return (Object)handle.invokeExact(value);
+      }
+      catch (final RuntimeException | Error e) {
+        throw e;
+      }
+      catch (final Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    }
+  }
+
+  /**
+   * Converter for the primitive types and their wrappers, which parses the
+   * first value with {@link ParameterUtil#parseLong(CharSequence,int,int,long,long)},
+   * {@link ParameterUtil#parseDouble(String)} or
+   * {@link ParameterUtil#parseFloat(String)}. Malformed values are reported
+   * with a {@link javax.ws.rs.BadRequestException} that does not fill in its
+   * stack trace.
+   */
+  static final class Primitive extends ParameterConverter {
+    private final Class<?> type;
+
+    Primitive(final Class<?> type) {
+      this.type = type;
+    }
+
+    @Override
+    Object convertValues(final List<String> values) {
+      final String value = values.get(0);
+      if (type == int.class)
+        return (int)ParameterUtil.parseLong(value, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+      if (type == long.class)
+        return ParameterUtil.parseLong(value, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE);
+
+      if (type == double.class)
+        return ParameterUtil.parseDouble(value);
+
+      if (type == float.class)
+        return ParameterUtil.parseFloat(value);
+
+      if (type == short.class)
+        return (short)ParameterUtil.parseLong(value, 0, value.length(), Short.MIN_VALUE, Short.MAX_VALUE);
+
+      if (type == byte.class)
+        return (byte)ParameterUtil.parseLong(value, 0, value.length(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+
+      // FIXME: What if it's out of range of char?
+      return (char)ParameterUtil.parseLong(value, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Converter that applies a {@code (String)Object} {@link MethodHandle} of a
+   * static {@code valueOf(String)} or {@code fromString(String)} method to the
+   * values joined with {@code ';'}. Exceptions are logged and returned.
+   */
+  static final class ValueOf extends ParameterConverter {
+    private final MethodHandle handle;
+
+    ValueOf(final MethodHandle handle) {
+      this.handle = handle;
+    }
+
+    @Override
+    Object convertValues(final List<String> values) {
+      final String value = CollectionUtil.toString(values, ';');
+      try {
+        return (Object)handle.invokeExact(value);
+      }
+      catch (final Throwable t) {
+        // FIXME: This error is kinda hidden in the logs, but it should somehow be highlighted to be fixed?!
+        logger.error(t.getMessage(), t);
+        return t;
+      }
+    }
+  }
+
+  /**
+   * Converter for the parameter types that cannot be compiled to a
+   * {@link MethodHandle}, which are converted reflectively with each call.
+   */
+  static final class Reflective extends ParameterConverter {
+    private final Class<?> parameterType;
+
+    Reflective(final Class<?> parameterType) {
+      this.parameterType = parameterType;
+    }
+
+    @Override
+    Object convertValues(final List<String> values) {
+      return ParameterUtil.convertReflectively(parameterType, values);
+    }
+  }
+}
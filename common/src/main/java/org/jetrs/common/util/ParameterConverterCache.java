@@ -0,0 +1,135 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ws.rs.ext.ParamConverterProvider;
+
+import org.jetrs.common.ProviderResource;
+
+/**
+ * Cache of the {@link ParameterConverter}s of the parameters of an
+ * application, keyed by the raw type, generic type and annotations of the
+ * parameter. The cache is owned by the application together with its
+ * {@link ParamConverterProvider}s, so that the converters, and the classes
+ * they reference, are released with the application. Converters are resolved
+ * for the declared parameters of the resources of the application, so the
+ * size of the cache is bounded by the number of distinct parameter
+ * declarations.
+ */
+public final class ParameterConverterCache {
+  private static final class Key {
+    private final Class<?> rawType;
+    private final Type genericType;
+    private final Annotation[] annotations;
+    private final int hashCode;
+
+    private Key(final Class<?> rawType, final Type genericType, final Annotation[] annotations) {
+      this.rawType = rawType;
+      this.genericType = genericType;
+      this.annotations = annotations;
+
+      int hashCode = rawType.hashCode();
+      hashCode = 31 * hashCode + (genericType == null ? 0 : genericType == rawType ? 1 : genericType.hashCode());
+      if (annotations != null)
+        for (final Annotation annotation : annotations)
+          hashCode = 31 * hashCode + annotation.annotationType().hashCode();
+
+      this.hashCode = hashCode;
+    }
+
+    private boolean annotationsEqual(final Annotation[] annotations) {
+      final int length1 = this.annotations == null ? 0 : this.annotations.length;
+      final int length2 = annotations == null ? 0 : annotations.length;
+      if (length1 != length2)
+        return false;
+
+      for (int i = 0; i < length1; ++i)
+        if (this.annotations[i] != annotations[i] && !this.annotations[i].equals(annotations[i]))
+          return false;
+
+      return true;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      if (hashCode != that.hashCode || rawType != that.rawType)
+        return false;
+
+      if (genericType != that.genericType && (genericType == null || !genericType.equals(that.genericType)))
+        return false;
+
+      return annotationsEqual(that.annotations);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final ConcurrentHashMap<Key,ParameterConverter> converters = new ConcurrentHashMap<>();
+  private final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders;
+
+  /**
+   * Creates a new {@link ParameterConverterCache} for the specified
+   * {@link ParamConverterProvider}s.
+   *
+   * @param paramConverterProviders The {@link ParamConverterProvider}s.
+   */
+  public ParameterConverterCache(final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders) {
+    this.paramConverterProviders = paramConverterProviders;
+  }
+
+  /**
+   * Returns the {@link ParamConverterProvider}s of this cache.
+   *
+   * @return The {@link ParamConverterProvider}s of this cache.
+   */
+  public List<? extends ProviderResource<ParamConverterProvider>> getParamConverterProviders() {
+    return paramConverterProviders;
+  }
+
+  /**
+   * Returns the {@link ParameterConverter} for the specified parameter, which
+   * is the first {@link javax.ws.rs.ext.ParamConverter} provided by the
+   * {@link ParamConverterProvider}s of this cache, or otherwise the conversion
+   * of the parameter type by the JDK or by its static {@code valueOf(String)}
+   * or {@code fromString(String)} method.
+   *
+   * @param rawType The raw type of the parameter.
+   * @param genericType The generic type of the parameter.
+   * @param annotations The annotations of the parameter.
+   * @return The {@link ParameterConverter} for the specified parameter.
+   */
+  public ParameterConverter get(final Class<?> rawType, final Type genericType, final Annotation[] annotations) {
+    final Key key = new Key(rawType, genericType, annotations);
+    final ParameterConverter converter = converters.get(key);
+    return converter != null ? converter : converters.computeIfAbsent(key, k -> ParameterUtil.newParameterConverter(paramConverterProviders, rawType, genericType, annotations));
+  }
+}
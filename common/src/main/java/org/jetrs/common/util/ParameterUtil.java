@@ -17,17 +17,24 @@
 package org.jetrs.common.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Encoded;
 import javax.ws.rs.ext.ParamConverter;
 import javax.ws.rs.ext.ParamConverterProvider;
@@ -54,7 +61,21 @@ public final class ParameterUtil {
     return null;
   }
 
-  private static <T>ParamConverter<T> lookupParamConverter(final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders, final Class<T> rawType, final Type genericType, final Annotation[] annotations) {
+  /**
+   * Returns the first {@link ParamConverter} provided by the specified
+   * {@link ParamConverterProvider}s for the given parameter, or {@code null}
+   * if none of the providers supports the parameter.
+   *
+   * @param <T> The type of the parameter.
+   * @param paramConverterProviders The {@link ParamConverterProvider}s.
+   * @param rawType The raw type of the parameter.
+   * @param genericType The generic type of the parameter.
+   * @param annotations The annotations of the parameter.
+   * @return The first {@link ParamConverter} provided by the specified
+   *         {@link ParamConverterProvider}s for the given parameter, or
+   *         {@code null} if none of the providers supports the parameter.
+   */
+  public static <T>ParamConverter<T> lookupParamConverter(final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders, final Class<T> rawType, final Type genericType, final Annotation[] annotations) {
     for (final ProviderResource<ParamConverterProvider> paramConverterProvider : paramConverterProviders) {
       final ParamConverter<T> paramConverter = paramConverterProvider.getMatchInstance().getConverter(rawType, genericType, annotations);
       if (paramConverter != null)
@@ -64,47 +85,259 @@ public final class ParameterUtil {
     return null;
   }
 
-  // http://download.oracle.com/otn-pub/jcp/jaxrs-2_0_rev_A-mrel-eval-spec/jsr339-jaxrs-2.0-final-spec.pdf Section 3.2
-  @SuppressWarnings({"rawtypes", "unchecked"})
-  public static Object convertParameter(final Class<?> parameterType, final Type genericType, final Annotation[] annotations, final List<String> values, final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders) {
-    if (values == null || values.size() == 0)
-      return null;
+  private static final Map<Class<?>,ParameterConverter> firstValueConverters = new HashMap<>();
 
-    final ParamConverter<?> paramConverter = lookupParamConverter(paramConverterProviders, parameterType, genericType, annotations);
-    if (paramConverter != null)
-      return paramConverter.fromString(CollectionUtil.toString(values, ';'));
+  static {
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    final MethodType type = MethodType.methodType(Object.class, String.class);
+    try {
+      putConverter(new ParameterConverter.First(MethodHandles.identity(String.class).asType(type)), String.class);
+      putConverter(new ParameterConverter.First(lookup.findConstructor(BigInteger.class, MethodType.methodType(void.class, String.class)).asType(type)), BigInteger.class);
+      putConverter(new ParameterConverter.First(lookup.findConstructor(BigDecimal.class, MethodType.methodType(void.class, String.class)).asType(type)), BigDecimal.class);
+    }
+    catch (final IllegalAccessException | NoSuchMethodException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+
+    putConverter(new ParameterConverter.Primitive(long.class), Long.class, long.class);
+    putConverter(new ParameterConverter.Primitive(double.class), Double.class, double.class);
+    putConverter(new ParameterConverter.Primitive(float.class), Float.class, float.class);
+    putConverter(new ParameterConverter.Primitive(int.class), Integer.class, int.class);
+    putConverter(new ParameterConverter.Primitive(short.class), Short.class, short.class);
+    putConverter(new ParameterConverter.Primitive(char.class), Character.class, char.class);
+    putConverter(new ParameterConverter.Primitive(byte.class), Byte.class, byte.class);
+  }
+
+  private static void putConverter(final ParameterConverter converter, final Class<?> ... types) {
+    for (final Class<?> type : types)
+      firstValueConverters.put(type, converter);
+  }
+
+  private static BadRequestException newBadParameterException(final CharSequence chars, final int start, final int end) {
+    return new BadParameterException("For input string: \"" + chars.subSequence(start, end) + "\"");
+  }
+
+  /**
+   * Parses the signed decimal integer in the specified region of a
+   * {@link CharSequence}, with the same grammar as
+   * {@link Long#parseLong(String)}, without allocating an intermediate
+   * {@link String}.
+   *
+   * @param chars The {@link CharSequence}.
+   * @param start The start index of the region, inclusive.
+   * @param end The end index of the region, exclusive.
+   * @param min The minimum value of the integer.
+   * @param max The maximum value of the integer.
+   * @return The parsed integer.
+   * @throws BadRequestException If the region does not contain a parsable
+   *           integer between {@code min} and {@code max}. The exception
+   *           does not fill in its stack trace.
+   */
+  public static long parseLong(final CharSequence chars, final int start, final int end, final long min, final long max) {
+    if (start >= end)
+      throw newBadParameterException(chars, start, end);
+
+    int i = start;
+    boolean negative = false;
+    long limit = -Long.MAX_VALUE;
+    final char first = chars.charAt(i);
+    if (first < '0') {
+      if (first == '-') {
+        negative = true;
+        limit = Long.MIN_VALUE;
+      }
+      else if (first != '+') {
+        throw newBadParameterException(chars, start, end);
+      }
+
+      if (++i == end)
+        throw newBadParameterException(chars, start, end);
+    }
+
+    final long multmin = limit / 10;
+    long result = 0;
+    for (; i < end; ++i) {
+      final int digit = Character.digit(chars.charAt(i), 10);
+      if (digit < 0 || result < multmin)
+        throw newBadParameterException(chars, start, end);
+
+      result *= 10;
+      if (result < limit + digit)
+        throw newBadParameterException(chars, start, end);
+
+      result -= digit;
+    }
+
+    if (negative ? result < min : -result > max)
+      throw newBadParameterException(chars, start, end);
+
+    return negative ? result : -result;
+  }
+
+  private static boolean isDigit(final char ch, final boolean hex) {
+    return ch >= '0' && ch <= '9' || hex && (ch >= 'a' && ch <= 'f' || ch >= 'A' && ch <= 'F');
+  }
+
+  /**
+   * Returns whether the specified {@link String} matches the grammar of
+   * {@link Double#valueOf(String)}, so that it can be parsed without
+   * {@link NumberFormatException}.
+   *
+   * @param value The {@link String}.
+   * @return Whether the specified {@link String} matches the grammar of
+   *         {@link Double#valueOf(String)}.
+   */
+  static boolean isFloatingPoint(final String value) {
+    // Leading and trailing whitespace is trimmed as by String#trim()
+    int i = 0;
+    int end = value.length();
+    while (i < end && value.charAt(i) <= ' ')
+      ++i;
 
-    if (parameterType == String.class)
-      return values.get(0);
+    while (end > i && value.charAt(end - 1) <= ' ')
+      --end;
 
-    if (parameterType == BigInteger.class)
-      return new BigInteger(values.get(0));
+    if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-'))
+      ++i;
 
-    if (parameterType == BigDecimal.class)
-      return new BigDecimal(values.get(0));
+    if (i == end)
+      return false;
 
-    if (parameterType == Long.class || parameterType == long.class)
-      return Long.valueOf(values.get(0));
+    if (value.charAt(i) == 'N' || value.charAt(i) == 'I')
+      return end - i == 3 && value.startsWith("NaN", i) || end - i == 8 && value.startsWith("Infinity", i);
 
-    if (parameterType == Double.class || parameterType == double.class)
-      return Double.valueOf(values.get(0));
+    final boolean hex = end - i > 2 && value.charAt(i) == '0' && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X');
+    if (hex)
+      i += 2;
 
-    if (parameterType == Float.class || parameterType == float.class)
-      return Float.valueOf(values.get(0));
+    boolean digits = false;
+    for (; i < end && isDigit(value.charAt(i), hex); ++i)
+      digits = true;
 
-    if (parameterType == Integer.class || parameterType == int.class)
-      return Integer.valueOf(values.get(0));
+    if (i < end && value.charAt(i) == '.')
+      for (++i; i < end && isDigit(value.charAt(i), hex); ++i)
+        digits = true;
 
-    if (parameterType == Short.class || parameterType == short.class)
-      return Short.valueOf(values.get(0));
+    if (!digits)
+      return false;
 
-    // FIXME: What if it's out of range of char?
-    if (parameterType == Character.class || parameterType == char.class)
-      return Character.valueOf((char)Integer.parseInt(values.get(0)));
+    // The binary exponent of a hexadecimal number is required
+    final char exponent = i < end ? value.charAt(i) : 0;
+    if (hex ? exponent == 'p' || exponent == 'P' : exponent == 'e' || exponent == 'E') {
+      if (++i < end && (value.charAt(i) == '+' || value.charAt(i) == '-'))
+        ++i;
 
-    if (parameterType == Byte.class || parameterType == byte.class)
-      return Byte.valueOf(values.get(0));
+      final int start = i;
+      while (i < end && isDigit(value.charAt(i), false))
+        ++i;
 
+      if (i == start)
+        return false;
+    }
+    else if (hex) {
+      return false;
+    }
+
+    if (i < end && "fFdD".indexOf(value.charAt(i)) > -1)
+      ++i;
+
+    return i == end;
+  }
+
+  /**
+   * Parses the decimal floating-point number in the specified {@link String},
+   * with the same grammar as {@link Double#parseDouble(String)}. The grammar is
+   * validated before the string is parsed, so that an unparsable string does
+   * not incur the cost of a {@link NumberFormatException}.
+   *
+   * @param value The {@link String}.
+   * @return The parsed number.
+   * @throws BadRequestException If the string does not contain a parsable
+   *           number. The exception does not fill in its stack trace.
+   */
+  public static double parseDouble(final String value) {
+    if (!isFloatingPoint(value))
+      throw newBadParameterException(value, 0, value.length());
+
+    return Double.parseDouble(value);
+  }
+
+  /**
+   * Parses the decimal floating-point number in the specified {@link String},
+   * with the same grammar as {@link Float#parseFloat(String)}. The grammar is
+   * validated before the string is parsed, so that an unparsable string does
+   * not incur the cost of a {@link NumberFormatException}.
+   *
+   * @param value The {@link String}.
+   * @return The parsed number.
+   * @throws BadRequestException If the string does not contain a parsable
+   *           number. The exception does not fill in its stack trace.
+   */
+  public static float parseFloat(final String value) {
+    if (!isFloatingPoint(value))
+      throw newBadParameterException(value, 0, value.length());
+
+    return Float.parseFloat(value);
+  }
+
+  /**
+   * Returns the {@link ParameterConverter} for the specified parameter, which
+   * is the first {@link ParamConverter} provided by the specified
+   * {@link ParamConverterProvider}s, or otherwise the conversion of the
+   * parameter type by the JDK or by its static {@code valueOf(String)} or
+   * {@code fromString(String)} method, compiled to a {@link MethodHandle}.
+   * Converters are cached by {@link ParameterConverterCache}.
+   *
+   * @param paramConverterProviders The {@link ParamConverterProvider}s.
+   * @param rawType The raw type of the parameter.
+   * @param genericType The generic type of the parameter.
+   * @param annotations The annotations of the parameter.
+   * @return The {@link ParameterConverter} for the specified parameter.
+   */
+  static ParameterConverter newParameterConverter(final List<? extends ProviderResource<ParamConverterProvider>> paramConverterProviders, final Class<?> rawType, final Type genericType, final Annotation[] annotations) {
+    final ParamConverter<?> paramConverter = lookupParamConverter(paramConverterProviders, rawType, genericType, annotations);
+    if (paramConverter != null)
+      return new ParameterConverter.Provided(paramConverter);
+
+    final ParameterConverter converter = firstValueConverters.get(rawType);
+    if (converter != null)
+      return converter;
+
+    if (rawType == Set.class || rawType == List.class || rawType == SortedSet.class)
+      return new ParameterConverter.Reflective(rawType);
+
+    final Method method = findToString(rawType);
+    if (method == null || !Modifier.isStatic(method.getModifiers()))
+      return new ParameterConverter.Reflective(rawType);
+
+    try {
+      return new ParameterConverter.ValueOf(MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object.class, String.class)));
+    }
+    catch (final IllegalAccessException e) {
+      return new ParameterConverter.Reflective(rawType);
+    }
+  }
+
+  // http://download.oracle.com/otn-pub/jcp/jaxrs-2_0_rev_A-mrel-eval-spec/jsr339-jaxrs-2.0-final-spec.pdf Section 3.2
+  public static Object convertParameter(final Class<?> parameterType, final Type genericType, final Annotation[] annotations, final List<String> values, final ParameterConverterCache parameterConverters) {
+    if (values == null || values.size() == 0)
+      return null;
+
+    return parameterConverters.get(parameterType, genericType, annotations).convert(values);
+  }
+
+  /**
+   * Converts the specified values to an instance of the given parameter type
+   * reflectively, for the parameter types that are not compiled to a
+   * {@link MethodHandle} by {@link #newParameterConverter(List,Class,Type,Annotation[])}.
+   *
+   * @param parameterType The type of the parameter.
+   * @param values The values.
+   * @return The converted value, or the {@link Exception} that occurred during
+   *         conversion.
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static Object convertReflectively(final Class<?> parameterType, final List<String> values) {
     try {
       if (parameterType == Set.class || parameterType == List.class || parameterType == SortedSet.class) {
         final Collection collection = CollectionUtil.concat(((Class<? extends Collection>)parameterType).getDeclaredConstructor().newInstance(), values);
@@ -0,0 +1,224 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} that buffers up to a limit of bytes in segments that
+ * are acquired from a {@link BufferPool}. Once a write would exceed the limit,
+ * the buffered bytes are written to the underlying stream, the segments are
+ * released, and further writes are passed through to the underlying stream.
+ * <p>
+ * Unlike {@link java.io.BufferedOutputStream}, {@link #flush()} does not write
+ * the buffered bytes, so that the {@link #getCount() count} of a buffered
+ * entity is known when it has been written. The buffered bytes are written with
+ * {@link #drain()} or {@link #writeTo(OutputStream)}, and the segments must be
+ * returned to the pool with {@link #release()}.
+ */
+public class PooledBufferedOutputStream extends OutputStream {
+  private final BufferPool pool;
+  private final OutputStream out;
+  private final int limit;
+  private final int segmentSize;
+  private byte[][] segments = new byte[4][];
+  private int segmentCount;
+  private int count;
+  private boolean passThrough;
+
+  /**
+   * Creates a new {@link PooledBufferedOutputStream} that buffers up to the
+   * specified limit of bytes before writing to the provided
+   * {@link OutputStream}.
+   *
+   * @param pool The {@link BufferPool} from which to acquire segments.
+   * @param out The underlying {@link OutputStream}, or {@code null} if all
+   *          bytes are to be buffered.
+   * @param limit The maximum number of bytes to buffer.
+   */
+  public PooledBufferedOutputStream(final BufferPool pool, final OutputStream out, final int limit) {
+    this.pool = pool;
+    this.out = out;
+    this.limit = out != null ? limit : Integer.MAX_VALUE;
+    this.segmentSize = pool.getSegmentSize();
+  }
+
+  /**
+   * Creates a new {@link PooledBufferedOutputStream} that buffers all bytes.
+   *
+   * @param pool The {@link BufferPool} from which to acquire segments.
+   */
+  public PooledBufferedOutputStream(final BufferPool pool) {
+    this(pool, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the number of bytes that are buffered.
+   *
+   * @return The number of bytes that are buffered.
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns whether the limit of this stream has been exceeded, and bytes are
+   * passed through to the underlying stream.
+   *
+   * @return Whether the limit of this stream has been exceeded.
+   */
+  public boolean isPassThrough() {
+    return passThrough;
+  }
+
+  private byte[] segment(final int index) {
+    if (index < segmentCount)
+      return segments[index];
+
+    if (segmentCount == segments.length) {
+      final byte[][] copy = new byte[segmentCount * 2][];
+      System.arraycopy(segments, 0, copy, 0, segmentCount);
+      segments = copy;
+    }
+
+    return segments[segmentCount++] = pool.acquire();
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if (passThrough) {
+      out.write(b);
+    }
+    else if (count == limit) {
+      drain();
+      passThrough = true;
+      out.write(b);
+    }
+    else {
+      segment(count / segmentSize)[count % segmentSize] = (byte)b;
+      ++count;
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (passThrough) {
+      out.write(b, off, len);
+    }
+    else if (len > limit - count) {
+      drain();
+      passThrough = true;
+      out.write(b, off, len);
+    }
+    else {
+      for (int i = off, remaining = len; remaining > 0;) {
+        final int position = count % segmentSize;
+        final int length = Math.min(remaining, segmentSize - position);
+        System.arraycopy(b, i, segment(count / segmentSize), position, length);
+        count += length;
+        i += length;
+        remaining -= length;
+      }
+    }
+  }
+
+  /**
+   * Writes the buffered bytes to the specified {@link OutputStream}.
+   *
+   * @param out The {@link OutputStream}.
+   * @throws IOException If an I/O error has occurred.
+   */
+  public void writeTo(final OutputStream out) throws IOException {
+    for (int i = 0, remaining = count; remaining > 0; ++i, remaining -= segmentSize)
+      out.write(segments[i], 0, Math.min(remaining, segmentSize));
+  }
+
+  /**
+   * Writes the buffered bytes from the specified position to the end of the
+   * segment that contains it, so that the buffered bytes can be written to a
+   * non-blocking stream one segment at a time.
+   *
+   * @param out The {@link OutputStream}.
+   * @param position The position of the first byte to write.
+   * @return The position following the last byte written, which is equal to
+   *         {@link #getCount()} once all buffered bytes are written.
+   * @throws IndexOutOfBoundsException If {@code position} is negative, or
+   *           greater than {@link #getCount()}.
+   * @throws IOException If an I/O error has occurred.
+   */
+  public int writeTo(final OutputStream out, final int position) throws IOException {
+    if (position < 0 || position > count)
+      throw new IndexOutOfBoundsException("position: " + position + ", count: " + count);
+
+    final int offset = position % segmentSize;
+    final int length = Math.min(count - position, segmentSize - offset);
+    if (length > 0)
+      out.write(segments[position / segmentSize], offset, length);
+
+    return position + length;
+  }
+
+  /**
+   * Writes the buffered bytes to the underlying stream, releases the segments,
+   * and flushes the underlying stream.
+   *
+   * @throws IOException If an I/O error has occurred.
+   */
+  public void drain() throws IOException {
+    if (out == null)
+      throw new IllegalStateException("There is no underlying stream");
+
+    writeTo(out);
+    release();
+    out.flush();
+  }
+
+  /**
+   * Flushes the underlying stream, if the limit of this stream has been
+   * exceeded. Buffered bytes are not written.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (passThrough)
+      out.flush();
+  }
+
+  /**
+   * Returns the segments of this stream to the {@link BufferPool}, and
+   * discards the buffered bytes.
+   */
+  public void release() {
+    for (int i = 0; i < segmentCount; ++i) {
+      pool.release(segments[i]);
+      segments[i] = null;
+    }
+
+    segmentCount = 0;
+    count = 0;
+  }
+
+  /**
+   * Closing a {@link PooledBufferedOutputStream} has no effect, because the
+   * buffered bytes are written with {@link #drain()} or
+   * {@link #writeTo(OutputStream)}, and the segments are returned to the pool
+   * with {@link #release()}.
+   */
+  @Override
+  public void close() {
+  }
+}
@@ -41,17 +41,26 @@ public final class ProviderUtil {
     AUTO_CONTENT_LENGTH_THRESHOLD = Numbers.isNumber(autoContentLengthThreshold) ? Integer.parseInt(autoContentLengthThreshold) : 65536;
   }
 
-  public static <T>void writeTo(final MessageBodyWriter<T> provider, final T t, final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String,Object> httpHeaders, final OutputStream entityStream) throws IOException, WebApplicationException {
-    final boolean hasContentLength = httpHeaders.containsKey(HttpHeaders.CONTENT_LENGTH);
-    final OutputStream out = hasContentLength ? entityStream : new CountingBufferedOutputStream(entityStream, AUTO_CONTENT_LENGTH_THRESHOLD);
-    provider.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, out);
-    // FIXME: This sets the CONTENT_LENGTH only if the written size is less than DEFAULT_BUFFER_SIZE. Is this correct?!?!
-    if (!hasContentLength) {
-      final int length;
-      if (!httpHeaders.containsKey(HttpHeaders.CONTENT_LENGTH) && (length = ((CountingBufferedOutputStream)out).getCount()) < AUTO_CONTENT_LENGTH_THRESHOLD)
-        httpHeaders.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+  public static <T>void writeTo(final BufferPool bufferPool, final MessageBodyWriter<T> provider, final T t, final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String,Object> httpHeaders, final OutputStream entityStream) throws IOException, WebApplicationException {
+    if (httpHeaders.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+      provider.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+      return;
+    }
+
+    final PooledBufferedOutputStream out = new PooledBufferedOutputStream(bufferPool, entityStream, AUTO_CONTENT_LENGTH_THRESHOLD);
+    try {
+      provider.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, out);
+      // CONTENT_LENGTH is set only if the entity fits in the buffer, otherwise it is not known before the entity is written
+      if (!out.isPassThrough() && !httpHeaders.containsKey(HttpHeaders.CONTENT_LENGTH) && out.getCount() < AUTO_CONTENT_LENGTH_THRESHOLD)
+        httpHeaders.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(out.getCount()));
 
-      out.flush();
+      if (out.isPassThrough())
+        out.flush();
+      else
+        out.drain();
+    }
+    finally {
+      out.release();
     }
   }
 
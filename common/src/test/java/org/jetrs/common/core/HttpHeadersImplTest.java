@@ -18,13 +18,18 @@ package org.jetrs.common.core;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.ListIterator;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
@@ -32,6 +37,7 @@ import org.jetrs.common.ext.RuntimeDelegateTest;
 import org.jetrs.common.util.HttpHeadersMap;
 import org.jetrs.common.util.MirrorQualityList;
 import org.junit.Test;
+import org.libj.util.Locales;
 import org.libj.util.MirrorList;
 import org.libj.util.function.TriConsumer;
 
@@ -215,4 +221,58 @@ public class HttpHeadersImplTest extends RuntimeDelegateTest {
     assertSame(list.getMirrorList(), headers.get(key));
     assertSame(list, headers.getMirrorMap().get(key));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRequest() {
+    final Map<String,List<String>> values = new HashMap<>();
+    values.put(HttpHeaders.ACCEPT, Arrays.asList("application/json;q=.5", "application/xml"));
+    values.put(HttpHeaders.CONTENT_LENGTH, Collections.singletonList("100"));
+    values.put(HttpHeaders.HOST, Collections.singletonList("localhost"));
+
+    final List<String> read = new ArrayList<>();
+    final HttpServletRequest request = (HttpServletRequest)Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(), new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+      if ("getHeaderNames".equals(method.getName()))
+        return Collections.enumeration(values.keySet());
+
+      if ("getHeaders".equals(method.getName())) {
+        read.add((String)args[0]);
+        return Collections.enumeration(values.get(args[0]));
+      }
+
+      throw new UnsupportedOperationException(method.getName());
+    });
+
+    final HttpHeadersImpl headers = new HttpHeadersImpl(request);
+    assertEquals(3, headers.size());
+    assertTrue(read.isEmpty());
+
+    assertEquals(MediaType.APPLICATION_XML_TYPE, headers.getMirrorMap().getFirst(HttpHeaders.ACCEPT));
+    assertEquals(100, headers.getLength());
+    assertEquals(Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.CONTENT_LENGTH), read);
+    assertEquals(3, headers.size());
+
+    assertEquals(values.keySet(), headers.keySet());
+    assertEquals(3, read.size());
+    assertEquals("localhost", headers.getFirst(HttpHeaders.HOST));
+  }
+
+  @Test
+  public void testAcceptableLanguages() {
+    final HttpHeadersImpl headers = new HttpHeadersImpl();
+    assertEquals(1, headers.getAcceptableLanguages().size());
+
+    headers.add(HttpHeaders.ACCEPT_LANGUAGE, "fr;q=0.9, en;q=0.8");
+    final List<Locale> languages = headers.getAcceptableLanguages();
+    assertEquals(Arrays.asList(Locales.fromRFC1766("fr"), Locales.fromRFC1766("en")), languages);
+    assertSame(languages, headers.getAcceptableLanguages());
+
+    headers.add(HttpHeaders.ACCEPT_LANGUAGE, "de");
+    final List<Locale> updated = headers.getAcceptableLanguages();
+    assertNotSame(languages, updated);
+    assertEquals(Arrays.asList(Locales.fromRFC1766("de"), Locales.fromRFC1766("fr"), Locales.fromRFC1766("en")), updated);
+    assertSame(updated, headers.getAcceptableLanguages());
+
+    headers.remove(HttpHeaders.ACCEPT_LANGUAGE);
+    assertEquals(1, headers.getAcceptableLanguages().size());
+  }
+}
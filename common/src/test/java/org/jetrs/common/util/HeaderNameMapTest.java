@@ -0,0 +1,100 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.junit.Test;
+
+public class HeaderNameMapTest {
+  @Test
+  public void testCaseInsensitive() {
+    final HeaderNameMap<String> map = new HeaderNameMap<>();
+    assertNull(map.put("Content-Type", "text/plain"));
+    assertEquals("text/plain", map.get("content-type"));
+    assertEquals("text/plain", map.get("CONTENT-TYPE"));
+    assertTrue(map.containsKey("Content-type"));
+    assertFalse(map.containsKey(1));
+
+    assertEquals("text/plain", map.put("content-type", "text/html"));
+    assertEquals(1, map.size());
+    assertEquals("Content-Type", map.keySet().iterator().next());
+    assertSame(HttpHeaders.CONTENT_TYPE, map.keySet().iterator().next());
+
+    assertEquals("text/html", map.remove("CONTENT-TYPE"));
+    assertTrue(map.isEmpty());
+    assertNull(map.get("Content-Type"));
+  }
+
+  @Test
+  public void testGrowAndRemove() {
+    final HeaderNameMap<Integer> map = new HeaderNameMap<>(2);
+    final Map<String,Integer> expected = new HashMap<>();
+    for (int i = 0; i < 200; ++i) {
+      map.put("X-Header-" + i, i);
+      expected.put("X-Header-" + i, i);
+      if (i % 3 == 0) {
+        assertEquals(Integer.valueOf(i / 2), map.remove("x-header-" + i / 2));
+        expected.remove("X-Header-" + i / 2);
+      }
+    }
+
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+    assertEquals(expected.hashCode(), map.hashCode());
+    for (final Map.Entry<String,Integer> entry : expected.entrySet())
+      assertEquals(entry.getValue(), map.get(entry.getKey().toUpperCase()));
+  }
+
+  @Test
+  public void testIterator() {
+    final HeaderNameMap<Integer> map = new HeaderNameMap<>();
+    for (int i = 0; i < 20; ++i)
+      map.put("X-Header-" + i, i);
+
+    for (final Iterator<Map.Entry<String,Integer>> iterator = map.entrySet().iterator(); iterator.hasNext();) {
+      final Map.Entry<String,Integer> entry = iterator.next();
+      if (entry.getValue() % 2 == 0)
+        iterator.remove();
+      else
+        entry.setValue(-entry.getValue());
+    }
+
+    assertEquals(10, map.size());
+    for (int i = 0; i < 20; ++i)
+      assertEquals(i % 2 == 0 ? null : Integer.valueOf(-i), map.get("x-header-" + i));
+  }
+
+  @Test
+  public void testClone() {
+    final HeaderNameMap<String> map = new HeaderNameMap<>();
+    map.put(HttpHeaders.ACCEPT, "text/plain");
+    final HeaderNameMap<String> clone = map.clone();
+    clone.put("accept", "text/html");
+    clone.put(HttpHeaders.HOST, "localhost");
+    assertEquals("text/plain", map.get(HttpHeaders.ACCEPT));
+    assertEquals(1, map.size());
+    assertEquals("text/html", clone.get(HttpHeaders.ACCEPT));
+    assertEquals(2, clone.size());
+  }
+}
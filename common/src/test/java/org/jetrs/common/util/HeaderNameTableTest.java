@@ -0,0 +1,66 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HeaderNameTableTest {
+  @Test
+  public void testCaseInsensitive() {
+    final HeaderNameTable<Integer> table = new HeaderNameTable<>(2);
+    for (int i = 0; i < 100; ++i)
+      assertNull(table.put("X-Header-" + i, i));
+
+    assertEquals(100, table.size());
+    for (int i = 0; i < 100; ++i) {
+      assertEquals(Integer.valueOf(i), table.get("x-header-" + i));
+      assertEquals(Integer.valueOf(i), table.get("X-HEADER-" + i));
+      assertEquals("X-Header-" + i, table.getName("x-HEADER-" + i));
+    }
+
+    assertNull(table.get("X-Header-100"));
+    assertNull(table.getName("X-Header"));
+    assertEquals(Integer.valueOf(7), table.put("x-header-7", -7));
+    assertEquals(Integer.valueOf(-7), table.get("X-Header-7"));
+    assertEquals("X-Header-7", table.getName("X-Header-7"));
+    assertEquals(100, table.size());
+  }
+
+  @Test
+  public void testPutAll() {
+    final HeaderNameTable<String> a = new HeaderNameTable<>(4);
+    a.put("Content-Length", "a");
+    a.put("Accept", "a");
+    final HeaderNameTable<String> b = new HeaderNameTable<>(4);
+    b.put("content-length", "b");
+    b.put("Host", "b");
+    a.putAll(b);
+    assertEquals(3, a.size());
+    assertEquals("b", a.get("CONTENT-LENGTH"));
+    assertEquals("Content-Length", a.getName("content-length"));
+    assertEquals("a", a.get("accept"));
+    assertEquals("b", a.get("host"));
+  }
+
+  @Test
+  public void testHashCode() {
+    assertEquals(HeaderNameTable.hashCode("Content-Type"), HeaderNameTable.hashCode("content-type"));
+    assertEquals(HeaderNameTable.hashCode("Content-Type"), HeaderNameTable.hashCode("CONTENT-TYPE"));
+  }
+}
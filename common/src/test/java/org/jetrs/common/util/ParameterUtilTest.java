@@ -0,0 +1,176 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import static org.junit.Assert.*;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ext.ParamConverter;
+import javax.ws.rs.ext.ParamConverterProvider;
+
+import org.jetrs.common.ProviderResource;
+import org.junit.Test;
+
+public class ParameterUtilTest {
+  public enum Color {
+    RED,
+    GREEN;
+
+    public static Color fromString(final String value) {
+      return valueOf(value.toUpperCase());
+    }
+  }
+
+  public static class Custom {
+  }
+
+  public static class CustomParamConverterProvider implements ParamConverterProvider {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T>ParamConverter<T> getConverter(final Class<T> rawType, final Type genericType, final Annotation[] annotations) {
+      return rawType != Custom.class ? null : (ParamConverter<T>)new ParamConverter<String>() {
+        @Override
+        public String fromString(final String value) {
+          return "custom:" + value;
+        }
+
+        @Override
+        public String toString(final String value) {
+          return value;
+        }
+      };
+    }
+  }
+
+  private static final Annotation[] annotations = {};
+  private static final List<ProviderResource<ParamConverterProvider>> paramConverterProviders = new ArrayList<>();
+  private static final ParameterConverterCache parameterConverters = new ParameterConverterCache(paramConverterProviders);
+
+  static {
+    try {
+      paramConverterProviders.add(new ProviderResource<>(ParamConverterProvider.class, new CustomParamConverterProvider()));
+    }
+    catch (final ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static Object convert(final Class<?> type, final String ... values) {
+    return parameterConverters.get(type, type, annotations).convert(Arrays.asList(values));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertNull(parameterConverters.get(int.class, int.class, annotations).convert(null));
+    assertNull(parameterConverters.get(int.class, int.class, annotations).convert(Collections.emptyList()));
+  }
+
+  @Test
+  public void testJdkTypes() {
+    assertEquals("a", convert(String.class, "a", "b"));
+    assertEquals(7, convert(int.class, "7"));
+    assertEquals(7L, convert(Long.class, "7"));
+    assertEquals('A', convert(char.class, "65"));
+    assertEquals(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), convert(UUID.class, "123e4567-e89b-12d3-a456-426614174000"));
+    try {
+      convert(int.class, "a");
+      fail("Expected BadRequestException");
+    }
+    catch (final BadRequestException e) {
+    }
+  }
+
+  @Test
+  public void testParseLong() {
+    final String[] values = {"0", "-0", "+7", "-", "+", "", "12a", "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809", "\u0661\u0662"};
+    for (final String value : values) {
+      Long expected;
+      try {
+        expected = Long.parseLong(value);
+      }
+      catch (final NumberFormatException e) {
+        expected = null;
+      }
+
+      try {
+        assertEquals(value, expected, Long.valueOf(ParameterUtil.parseLong(value, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE)));
+      }
+      catch (final BadRequestException e) {
+        assertNull(value, expected);
+      }
+    }
+
+    assertEquals(42, ParameterUtil.parseLong("id=42;", 3, 5, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    try {
+      ParameterUtil.parseLong("2147483648", 0, 10, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      fail("Expected BadRequestException");
+    }
+    catch (final BadRequestException e) {
+      assertEquals(0, e.getStackTrace().length);
+    }
+  }
+
+  @Test
+  public void testParseDouble() {
+    final String[] values = {"0", "-0.0", "+1.5", " 2 ", "1.", ".5", ".", "", " ", "-", "1e10", "1E-3", "1e", "1e+", "1.5f", "2d", "1.5x", "1ff", "NaN", "-Infinity", "+NaN", "nan", "Inf", "0x1p3", "0X1.8P-1f", "0x.8p1", "0x1", "0x", "0xp1", "0x1.8", "1e1.5", "1_000", "\u0661", "1e9999"};
+    for (final String value : values) {
+      Double expected;
+      try {
+        expected = Double.parseDouble(value);
+      }
+      catch (final NumberFormatException e) {
+        expected = null;
+      }
+
+      assertEquals(value, expected != null, ParameterUtil.isFloatingPoint(value));
+      try {
+        assertEquals(value, expected, Double.valueOf(ParameterUtil.parseDouble(value)));
+        assertEquals(value, Float.valueOf(Float.parseFloat(value)), Float.valueOf(ParameterUtil.parseFloat(value)));
+      }
+      catch (final BadRequestException e) {
+        assertNull(value, expected);
+        assertEquals(0, e.getStackTrace().length);
+      }
+    }
+  }
+
+  @Test
+  public void testValueOf() {
+    assertEquals(Color.GREEN, convert(Color.class, "green"));
+    assertTrue(convert(Color.class, "blue") instanceof IllegalArgumentException);
+  }
+
+  @Test
+  public void testParamConverter() {
+    assertEquals("custom:a;b", convert(Custom.class, "a", "b"));
+  }
+
+  @Test
+  public void testCache() {
+    assertSame(parameterConverters.get(Color.class, Color.class, annotations), parameterConverters.get(Color.class, Color.class, new Annotation[0]));
+    // Converters are cached per application, and not shared between caches of equal providers
+    assertNotSame(parameterConverters.get(Color.class, Color.class, annotations), new ParameterConverterCache(paramConverterProviders).get(Color.class, Color.class, annotations));
+  }
+}
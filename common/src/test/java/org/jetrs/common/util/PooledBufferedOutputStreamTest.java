@@ -0,0 +1,130 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.common.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PooledBufferedOutputStreamTest {
+  private static byte[] newBytes(final int length) {
+    final byte[] bytes = new byte[length];
+    new Random(length).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static void write(final PooledBufferedOutputStream out, final byte[] bytes, final int chunk) throws IOException {
+    for (int i = 0; i < bytes.length; i += chunk) {
+      if (chunk == 1)
+        out.write(bytes[i]);
+      else
+        out.write(bytes, i, Math.min(chunk, bytes.length - i));
+    }
+  }
+
+  @Test
+  public void testBuffer() throws IOException {
+    final BufferPool pool = new BufferPool(16, 7);
+    for (final int chunk : new int[] {1, 5, 16, 100}) {
+      final byte[] bytes = newBytes(100);
+      final PooledBufferedOutputStream out = new PooledBufferedOutputStream(pool);
+      write(out, bytes, chunk);
+      out.flush();
+      out.close();
+      assertEquals(bytes.length, out.getCount());
+      assertFalse(out.isPassThrough());
+
+      final ByteArrayOutputStream target = new ByteArrayOutputStream();
+      out.writeTo(target);
+      assertArrayEquals(bytes, target.toByteArray());
+      out.release();
+      assertEquals(0, out.getCount());
+    }
+
+    assertEquals(7, pool.getRetainedCount());
+    assertEquals(pool.getAcquiredCount(), pool.getReleasedCount());
+    assertTrue(pool.getAllocatedCount() < pool.getAcquiredCount());
+  }
+
+  @Test
+  public void testWriteToPosition() throws IOException {
+    final BufferPool pool = new BufferPool(16, 8);
+    for (final int length : new int[] {0, 16, 100}) {
+      final byte[] bytes = newBytes(length);
+      final PooledBufferedOutputStream out = new PooledBufferedOutputStream(pool);
+      write(out, bytes, 7);
+
+      final ByteArrayOutputStream target = new ByteArrayOutputStream();
+      int writes = 0;
+      for (int position = 0; position < out.getCount(); ++writes) {
+        position = out.writeTo(target, position);
+        assertTrue(position % 16 == 0 || position == out.getCount());
+      }
+
+      assertEquals((length + 15) / 16, writes);
+      assertArrayEquals(bytes, target.toByteArray());
+      assertEquals(length, out.writeTo(target, length));
+      out.release();
+    }
+
+    assertEquals(pool.getAcquiredCount(), pool.getReleasedCount());
+  }
+
+  @Test
+  public void testLimit() throws IOException {
+    final BufferPool pool = new BufferPool(16, 8);
+    for (final int chunk : new int[] {1, 7, 40}) {
+      final ByteArrayOutputStream target = new ByteArrayOutputStream();
+      final PooledBufferedOutputStream out = new PooledBufferedOutputStream(pool, target, 40);
+      final byte[] small = newBytes(40);
+      write(out, small, chunk);
+      out.flush();
+      assertFalse(out.isPassThrough());
+      assertEquals(0, target.size());
+      out.drain();
+      assertArrayEquals(small, target.toByteArray());
+
+      target.reset();
+      final PooledBufferedOutputStream large = new PooledBufferedOutputStream(pool, target, 40);
+      final byte[] bytes = newBytes(100);
+      write(large, bytes, chunk);
+      assertTrue(large.isPassThrough());
+      assertArrayEquals(bytes, target.toByteArray());
+      large.release();
+    }
+
+    assertEquals(pool.getAcquiredCount(), pool.getReleasedCount());
+  }
+
+  @Test
+  public void testDiscard() {
+    final BufferPool pool = new BufferPool(16, 0);
+    pool.release(pool.acquire());
+    assertEquals(0, pool.getRetainedCount());
+    assertEquals(1, pool.getDiscardedCount());
+    try {
+      pool.release(new byte[15]);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+}
@@ -0,0 +1,318 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.ConnectionCallback;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * {@link AsyncResponse} that is injected into a {@link javax.ws.rs.container.Suspended}
+ * parameter of a resource method. The response is resumed with the first call
+ * to {@link #resume(Object)}, {@link #resume(Throwable)} or
+ * {@link #cancel()}, which may occur before or after the request is suspended
+ * with {@link #suspend(Runnable)}. The dispatcher provided to
+ * {@link #suspend(Runnable)} is run exactly once, on the thread that resumes
+ * the response, or on the suspending thread if the response was resumed
+ * already.
+ * <p>
+ * {@link CompletionCallback}s are notified once the response has been written,
+ * and {@link ConnectionCallback}s are notified with {@link #disconnect()} if
+ * the connection fails while the request is suspended, after which the
+ * response is cancelled.
+ */
+final class AsyncResponseImpl implements AsyncResponse {
+  private static final class Timer {
+    private static final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+      final Thread thread = new Thread(r, "jetrs-async-timeout");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    static {
+      executor.setRemoveOnCancelPolicy(true);
+    }
+  }
+
+  private final List<CompletionCallback> completionCallbacks = new ArrayList<>(1);
+  private final List<ConnectionCallback> connectionCallbacks = new ArrayList<>(1);
+  private TimeoutHandler timeoutHandler;
+  private ScheduledFuture<?> timeout;
+  private Runnable dispatcher;
+  private Object result;
+  private boolean done;
+  private boolean cancelled;
+
+  private boolean complete(final Object result, final boolean cancel) {
+    final Runnable dispatcher;
+    synchronized (this) {
+      if (done)
+        return cancel && cancelled;
+
+      this.result = result;
+      this.done = true;
+      this.cancelled = cancel;
+      if (timeout != null)
+        timeout.cancel(false);
+
+      dispatcher = this.dispatcher;
+      notifyAll();
+    }
+
+    if (dispatcher != null)
+      dispatcher.run();
+
+    return true;
+  }
+
+  @Override
+  public boolean resume(final Object response) {
+    return complete(response, false);
+  }
+
+  @Override
+  public boolean resume(final Throwable response) {
+    return complete(response, false);
+  }
+
+  @Override
+  public boolean cancel() {
+    return complete(Response.status(Response.Status.SERVICE_UNAVAILABLE).build(), true);
+  }
+
+  @Override
+  public boolean cancel(final int retryAfter) {
+    return complete(Response.status(Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, retryAfter).build(), true);
+  }
+
+  @Override
+  public boolean cancel(final Date retryAfter) {
+    return complete(Response.status(Response.Status.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, retryAfter).build(), true);
+  }
+
+  @Override
+  public synchronized boolean isSuspended() {
+    return !done;
+  }
+
+  @Override
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public synchronized boolean isDone() {
+    return done;
+  }
+
+  @Override
+  public synchronized boolean setTimeout(final long time, final TimeUnit unit) {
+    if (done)
+      return false;
+
+    if (timeout != null)
+      timeout.cancel(false);
+
+    timeout = time <= 0 ? null : Timer.executor.schedule(this::onTimeout, time, unit);
+    return true;
+  }
+
+  /**
+   * Handles the expiry of the timeout of this response with its
+   * {@link TimeoutHandler}, or resumes the response with
+   * {@link ServiceUnavailableException} if the handler neither resumed the
+   * response nor set a new timeout.
+   */
+  void onTimeout() {
+    final ScheduledFuture<?> fired;
+    final TimeoutHandler timeoutHandler;
+    synchronized (this) {
+      if (done)
+        return;
+
+      fired = this.timeout;
+      timeoutHandler = this.timeoutHandler;
+    }
+
+    if (timeoutHandler != null)
+      timeoutHandler.handleTimeout(this);
+
+    // If the handler neither resumed the response nor set a new timeout, the response is resumed as unavailable
+    final boolean expired;
+    synchronized (this) {
+      expired = !done && timeout == fired;
+    }
+
+    if (expired)
+      resume(new ServiceUnavailableException());
+  }
+
+  @Override
+  public synchronized void setTimeoutHandler(final TimeoutHandler handler) {
+    this.timeoutHandler = handler;
+  }
+
+  @Override
+  public Collection<Class<?>> register(final Class<?> callback) {
+    Objects.requireNonNull(callback);
+    try {
+      return register(callback.getDeclaredConstructor().newInstance());
+    }
+    catch (final ReflectiveOperationException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public Map<Class<?>,Collection<Class<?>>> register(final Class<?> callback, final Class<?> ... callbacks) {
+    final Map<Class<?>,Collection<Class<?>>> registered = new HashMap<>();
+    registered.put(callback, register(callback));
+    for (final Class<?> cls : callbacks)
+      registered.put(cls, register(cls));
+
+    return registered;
+  }
+
+  @Override
+  public Collection<Class<?>> register(final Object callback) {
+    Objects.requireNonNull(callback);
+    final boolean completion = callback instanceof CompletionCallback;
+    final boolean connection = callback instanceof ConnectionCallback;
+    if (completion) {
+      synchronized (completionCallbacks) {
+        completionCallbacks.add((CompletionCallback)callback);
+      }
+    }
+
+    if (connection) {
+      synchronized (connectionCallbacks) {
+        connectionCallbacks.add((ConnectionCallback)callback);
+      }
+    }
+
+    if (completion && connection)
+      return Arrays.asList(CompletionCallback.class, ConnectionCallback.class);
+
+    return completion ? Collections.singletonList(CompletionCallback.class) : connection ? Collections.singletonList(ConnectionCallback.class) : Collections.emptyList();
+  }
+
+  @Override
+  public Map<Class<?>,Collection<Class<?>>> register(final Object callback, final Object ... callbacks) {
+    final Map<Class<?>,Collection<Class<?>>> registered = new HashMap<>();
+    registered.put(callback.getClass(), register(callback));
+    for (final Object object : callbacks)
+      registered.put(object.getClass(), register(object));
+
+    return registered;
+  }
+
+  /**
+   * Suspends the request of this response with the specified dispatcher, which
+   * is run once the response is resumed. If the response was resumed already,
+   * the dispatcher is run on the calling thread.
+   *
+   * @param dispatcher The dispatcher of the resumed response.
+   */
+  void suspend(final Runnable dispatcher) {
+    synchronized (this) {
+      if (!done) {
+        this.dispatcher = dispatcher;
+        return;
+      }
+    }
+
+    dispatcher.run();
+  }
+
+  /**
+   * Blocks the calling thread until this response is resumed, for containers
+   * that do not support asynchronous processing.
+   *
+   * @throws InterruptedException If the calling thread is interrupted.
+   */
+  synchronized void await() throws InterruptedException {
+    while (!done)
+      wait();
+  }
+
+  /**
+   * Returns the entity, {@link Response} or {@link Throwable} with which this
+   * response was resumed.
+   *
+   * @return The entity, {@link Response} or {@link Throwable} with which this
+   *         response was resumed.
+   */
+  synchronized Object getResult() {
+    return result;
+  }
+
+  /**
+   * Notifies the registered {@link ConnectionCallback}s that the connection of
+   * the suspended request has failed, and cancels the response. This method
+   * has no effect if the response was resumed already.
+   */
+  void disconnect() {
+    synchronized (this) {
+      if (done)
+        return;
+    }
+
+    final ConnectionCallback[] callbacks;
+    synchronized (connectionCallbacks) {
+      callbacks = connectionCallbacks.toArray(new ConnectionCallback[connectionCallbacks.size()]);
+    }
+
+    for (final ConnectionCallback callback : callbacks)
+      callback.onDisconnect(this);
+
+    cancel();
+  }
+
+  /**
+   * Notifies the registered {@link CompletionCallback}s that the response has
+   * been written.
+   *
+   * @param throwable The unmapped {@link Throwable} with which the processing
+   *          of the response failed, or {@code null} if it succeeded.
+   */
+  void onComplete(final Throwable throwable) {
+    final CompletionCallback[] callbacks;
+    synchronized (completionCallbacks) {
+      callbacks = completionCallbacks.toArray(new CompletionCallback[completionCallbacks.size()]);
+    }
+
+    for (final CompletionCallback callback : callbacks)
+      callback.onComplete(throwable);
+  }
+}
@@ -24,6 +24,8 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.annotation.WebInitParam;
@@ -35,8 +37,11 @@ import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class EndpointFactory {
+  private static final Logger logger = LoggerFactory.getLogger(EndpointFactory.class);
   private static final String packageName = RestApplicationServlet.class.getPackage().getName().replace('.', '/');
   private static final String superClassName = RestApplicationServlet.class.getName().replace('.', '/');
   private static final boolean isJdk178 = System.getProperty("java.version").startsWith("1.");
@@ -102,6 +107,51 @@ public final class EndpointFactory {
     }
   }
 
+  private static boolean hasVirtualThreads(final Set<?> resources, final boolean singletons) {
+    if (resources != null) {
+      for (final Object resource : resources) {
+        final Class<?> cls = singletons ? resource.getClass() : (Class<?>)resource;
+        final VirtualThreads annotation = cls.getAnnotation(VirtualThreads.class);
+        if (annotation != null && annotation.value())
+          return true;
+
+        for (final Method method : cls.getMethods()) {
+          final VirtualThreads methodAnnotation = method.getAnnotation(VirtualThreads.class);
+          if (methodAnnotation != null && methodAnnotation.value())
+            return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns whether the endpoint of the specified {@link Application} supports
+   * asynchronous processing. Asynchronous processing is supported if so
+   * configured with {@link ServerProperties#ASYNC_SUPPORTED}, or if resource
+   * methods are run on virtual threads by way of
+   * {@link ServerProperties#VIRTUAL_THREADS} or the {@link VirtualThreads}
+   * annotation, unless {@link ServerProperties#ASYNC_SUPPORTED} is explicitly
+   * {@code false}.
+   *
+   * @param application The {@link Application}.
+   * @return Whether the endpoint of the specified {@link Application} supports
+   *         asynchronous processing.
+   */
+  static boolean isAsyncSupported(final Application application) {
+    final boolean virtualThreads = ServerProperties.getBoolean(application, ServerProperties.VIRTUAL_THREADS, false) || hasVirtualThreads(application.getClasses(), false) || hasVirtualThreads(application.getSingletons(), true);
+    if (!virtualThreads)
+      return ServerProperties.getBoolean(application, ServerProperties.ASYNC_SUPPORTED, false);
+
+    final Map<String,Object> properties = application.getProperties();
+    if (properties == null || properties.get(ServerProperties.ASYNC_SUPPORTED) == null || ServerProperties.getBoolean(application, ServerProperties.ASYNC_SUPPORTED, false))
+      return true;
+
+    logger.warn("Resource methods of " + application.getClass().getName() + " are not run on virtual threads, because " + ServerProperties.ASYNC_SUPPORTED + " is false");
+    return false;
+  }
+
   public static RestApplicationServlet createEndpoint(final Application application) {
     try {
       final Class<? extends Application> applicationClass = application.getClass();
@@ -109,6 +159,7 @@ public final class EndpointFactory {
       if (applicationPath == null)
         throw new IllegalArgumentException("Application is missing @ApplicationPath annotation");
 
+      final boolean asyncSupported = isAsyncSupported(application);
       final int index = serial.getAndIncrement();
       final String className = packageName + "/Endpoint" + index + "Servlet";
       final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
@@ -173,7 +224,7 @@ public final class EndpointFactory {
 
         @Override
         public boolean asyncSupported() {
-          return false;
+          return asyncSupported;
         }
       }, WebServlet.class);
       annotationVisitor.visitEnd();
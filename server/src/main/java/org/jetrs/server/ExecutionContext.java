@@ -16,8 +16,8 @@
 
 package org.jetrs.server;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
@@ -26,13 +26,20 @@ import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -41,11 +48,14 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.SseEventSink;
 
 import org.jetrs.common.core.AnnotationInjector;
 import org.jetrs.common.core.ResponseImpl;
+import org.jetrs.common.util.PooledBufferedOutputStream;
 import org.jetrs.server.container.ContainerRequestContextImpl;
 import org.jetrs.server.container.ContainerResponseContextImpl;
+import org.jetrs.server.sse.SseEventSinkImpl;
 import org.libj.util.ArrayUtil;
 import org.libj.util.ObservableList;
 
@@ -62,22 +72,21 @@ public class ExecutionContext {
     this.resourceContext = resourceContext;
   }
 
+  private ResourceMatch[] resourceMatches;
   private List<String> matchedURIs;
   private List<String> decodedMatchedURIs;
   private List<Object> matchedResources;
-  private ByteArrayOutputStream entityStream;
-
-  public ResourceMatch[] filterAndMatch(final ContainerRequestContext containerRequestContext) {
-    return resourceContext.filterAndMatch(containerRequestContext);
-  }
-
-  ResourceMatch filterAndMatch(final ContainerRequestContext containerRequestContext, final AnnotationInjector annotationInjector) {
-    final ResourceMatch[] resources = filterAndMatch(containerRequestContext);
+  private MultivaluedMap<String,String> pathParameters;
+  private MultivaluedMap<String,String> decodedPathParameters;
+  private OutputStream entityStream;
+  private AsyncResponseImpl asyncResponse;
+  private SseEventSinkImpl sseEventSink;
+
+  ResourceMatch filterAndMatch(final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+    final ResourceMatch[] resources = resourceContext.filterAndMatch(containerRequestContext);
     if (resources == null)
       return null;
 
-    final List<String> matchedURIs = new ArrayList<>(resources.length);
-    final List<String> decodedMatchedURIs = new ArrayList<>(resources.length);
     final List<Object> matchedResources = new ObservableList<Object>(new ArrayList<>(resources.length)) {
       @Override
       protected void beforeGet(final int index, final ListIterator<Object> iterator) {
@@ -103,21 +112,57 @@ public class ExecutionContext {
       }
     };
 
-    for (final ResourceMatch resource : resources) {
-      matchedURIs.add(resource.getManifest().getPathPattern().getURI(false));
-      decodedMatchedURIs.add(resource.getManifest().getPathPattern().getURI(true));
+    for (final ResourceMatch resource : resources)
       matchedResources.add(resource.getManifest().getSingleton() != null ? resource.getManifest().getSingleton() : resource.getManifest().getServiceClass());
-    }
 
-    this.matchedURIs = Collections.unmodifiableList(matchedURIs);
-    this.decodedMatchedURIs = Collections.unmodifiableList(decodedMatchedURIs);
+    this.resourceMatches = resources;
+    this.matchedURIs = null;
+    this.decodedMatchedURIs = null;
     this.matchedResources = Collections.unmodifiableList(matchedResources);
 
+    // The parameter values are captured in the decoded path once, and extracted when accessed
+    final PathPattern pathPattern = resources[0].getManifest().getPathPattern();
+    final String path = containerRequestContext.getUriInfo().getPath();
+    this.decodedPathParameters = new PathParameters(pathPattern, path, pathPattern.capture(path));
+    this.pathParameters = null;
+
     return resources[0];
   }
 
+  /**
+   * Returns the path parameters of the matched resource, or {@code null} if
+   * the request has not been matched.
+   *
+   * @param containerRequestContext The {@link ContainerRequestContext}.
+   * @param decode Whether the values are to be decoded.
+   * @return The path parameters of the matched resource, or {@code null} if the
+   *         request has not been matched.
+   */
+  public MultivaluedMap<String,String> getPathParameters(final ContainerRequestContext containerRequestContext, final boolean decode) {
+    if (decode || resourceMatches == null)
+      return decodedPathParameters;
+
+    if (pathParameters == null) {
+      final PathPattern pathPattern = resourceMatches[0].getManifest().getPathPattern();
+      final String path = containerRequestContext.getUriInfo().getPath(false);
+      pathParameters = new PathParameters(pathPattern, path, pathPattern.capture(path));
+    }
+
+    return pathParameters;
+  }
+
   public List<String> getMatchedURIs(final boolean decode) {
-    return decode ? this.decodedMatchedURIs : this.matchedURIs;
+    if (resourceMatches == null)
+      return null;
+
+    if (decode ? decodedMatchedURIs != null : matchedURIs != null)
+      return decode ? decodedMatchedURIs : matchedURIs;
+
+    final List<String> matchedURIs = new ArrayList<>(resourceMatches.length);
+    for (final ResourceMatch resource : resourceMatches)
+      matchedURIs.add(resource.getManifest().getPathPattern().getURI(decode));
+
+    return decode ? decodedMatchedURIs = Collections.unmodifiableList(matchedURIs) : (this.matchedURIs = Collections.unmodifiableList(matchedURIs));
   }
 
   public List<Object> getMatchedResources() {
@@ -152,8 +197,18 @@ public class ExecutionContext {
     setContentType(resource);
 
     final ResourceManifest manifest = resource.getManifest();
-    final Object content = manifest.service(this, containerRequestContext, annotationInjector, resourceContext.getParamConverterProviders());
-    if (content instanceof Response) {
+    final Object content = manifest.service(this, containerRequestContext, annotationInjector, resourceContext.getParameterConverters());
+    if (content instanceof CompletionStage) {
+      // The response is completed with the value of the stage, as if by a @Suspended AsyncResponse
+      final AsyncResponse asyncResponse = suspend();
+      ((CompletionStage<?>)content).whenComplete((value, throwable) -> {
+        if (throwable == null)
+          asyncResponse.resume(value);
+        else
+          asyncResponse.resume(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+      });
+    }
+    else if (content instanceof Response) {
       setResponse((Response)content, manifest.getMethodAnnotations(), resource.getAccept());
     }
     else if (content != null) {
@@ -161,6 +216,103 @@ public class ExecutionContext {
     }
   }
 
+  /**
+   * Returns the {@link AsyncResponse} of a {@link javax.ws.rs.container.Suspended}
+   * parameter, or of the {@link CompletionStage} returned by the resource
+   * method, which is created with the first call and times out after
+   * {@link ServerProperties#ASYNC_TIMEOUT}.
+   *
+   * @return The {@link AsyncResponse} of a
+   *         {@link javax.ws.rs.container.Suspended} parameter, or of the
+   *         {@link CompletionStage} returned by the resource method.
+   */
+  AsyncResponse suspend() {
+    if (asyncResponse == null) {
+      asyncResponse = new AsyncResponseImpl();
+      final long asyncTimeout = resourceContext.getAsyncTimeout();
+      if (asyncTimeout > 0)
+        asyncResponse.setTimeout(asyncTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    return asyncResponse;
+  }
+
+  /**
+   * Returns the {@link AsyncResponseImpl} of the resource method, or
+   * {@code null} if the resource method is not asynchronous.
+   *
+   * @return The {@link AsyncResponseImpl} of the resource method, or
+   *         {@code null} if the resource method is not asynchronous.
+   */
+  AsyncResponseImpl getAsyncResponse() {
+    return asyncResponse;
+  }
+
+  /**
+   * Returns the {@link SseEventSink} of the resource method, which is created
+   * with the first call. The response is set to an event stream, which is
+   * committed before the events of the sink are written.
+   *
+   * @return The {@link SseEventSink} of the resource method.
+   */
+  SseEventSink openEventSink() {
+    if (sseEventSink == null) {
+      sseEventSink = resourceContext.getSse().newEventSink(httpServletResponse);
+      containerResponseContext.setStatus(Response.Status.OK.getStatusCode());
+      containerResponseContext.getStringHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.SERVER_SENT_EVENTS);
+      containerResponseContext.getStringHeaders().putSingle(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    return sseEventSink;
+  }
+
+  /**
+   * Returns the {@link SseEventSinkImpl} of the resource method, or
+   * {@code null} if the resource method does not have an
+   * {@link SseEventSink} parameter.
+   *
+   * @return The {@link SseEventSinkImpl} of the resource method, or
+   *         {@code null} if the resource method does not have an
+   *         {@link SseEventSink} parameter.
+   */
+  SseEventSinkImpl getSseEventSink() {
+    return sseEventSink;
+  }
+
+  /**
+   * Sets the result with which the {@link AsyncResponse} of the resource
+   * method was resumed as the response, as {@link #service} does for the
+   * return value of a synchronous resource method. A response that was resumed
+   * with {@code null} is set to {@code 204 No Content}.
+   *
+   * @param resource The {@link ResourceMatch}.
+   * @throws IOException If the response was resumed with an
+   *           {@link IOException}.
+   */
+  void resume(final ResourceMatch resource) throws IOException {
+    final Object result = asyncResponse.getResult();
+    if (result instanceof RuntimeException)
+      throw (RuntimeException)result;
+
+    if (result instanceof IOException)
+      throw (IOException)result;
+
+    if (result instanceof Throwable)
+      throw new InternalServerErrorException((Throwable)result);
+
+    if (result instanceof Response) {
+      setResponse((Response)result, resource.getManifest().getMethodAnnotations(), resource.getAccept());
+    }
+    else if (result != null) {
+      setEntity(result, resource.getManifest().getMethodAnnotations(), resource.getAccept());
+    }
+    else {
+      // A response that is resumed without an entity has no content, regardless of the @Produces of the resource method
+      containerResponseContext.getStringHeaders().remove(HttpHeaders.CONTENT_TYPE);
+      containerResponseContext.setStatus(Response.Status.NO_CONTENT.getStatusCode());
+    }
+  }
+
   @SuppressWarnings("unchecked")
   Response error(final Providers providers, final WebApplicationException e1) throws WebApplicationException {
     final ExceptionMapper<WebApplicationException> exceptionMapper = providers.getExceptionMapper((Class<WebApplicationException>)e1.getClass());
@@ -219,7 +371,15 @@ public class ExecutionContext {
     final Annotation[] methodAnnotations;
     if (resource != null) {
       final ResourceManifest manifest = resource.getManifest();
-      methodReturnType = manifest.getMethodReturnType();
+      // The entity of an asynchronous method is typed by the value of its CompletionStage, or by itself for a void method
+      if (asyncResponse == null)
+        methodReturnType = manifest.getMethodReturnType();
+      else if (containerResponseContext.getEntityType() != null)
+        methodReturnType = containerResponseContext.getEntityType();
+      else if (manifest.getCompletionStageType() != null)
+        methodReturnType = manifest.getCompletionStageType();
+      else
+        methodReturnType = containerResponseContext.getEntityClass();
       methodAnnotations = manifest.getMethodAnnotations();
     }
     else {
@@ -231,30 +391,173 @@ public class ExecutionContext {
     if (messageBodyWriter == null)
       throw new WebApplicationException("Could not find MessageBodyWriter for type: " + entity.getClass().getName());
 
-    if (containerResponseContext.getOutputStream() == null)
-      containerResponseContext.setEntityStream(entityStream = new ByteArrayOutputStream(1024));
+    if (containerResponseContext.getOutputStream() == null) {
+      releaseEntityStream();
+      containerResponseContext.setEntityStream(entityStream = resourceContext.isStreamResponse() ? new StreamingOutputStream() : new PooledBufferedOutputStream(resourceContext.getBufferPool()));
+    }
 
     // Start WriterInterceptor process chain
     containerResponseContext.writeBody(messageBodyWriter);
   }
 
+  /**
+   * {@link OutputStream} of the entity of a streamed response, which writes the
+   * header of the response to the {@link HttpServletResponse} before the first
+   * byte of the entity. The entity is buffered by
+   * {@link org.jetrs.common.util.ProviderUtil ProviderUtil} up to the
+   * {@code Content-Length} threshold, so small entities are written with a
+   * {@code Content-Length} header.
+   */
+  private final class StreamingOutputStream extends OutputStream {
+    private OutputStream out;
+
+    private OutputStream getOut() throws IOException {
+      if (out == null) {
+        writeHeader();
+        out = httpServletResponse.getOutputStream();
+      }
+
+      return out;
+    }
+
+    boolean isStarted() {
+      return out != null;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      getOut().write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      getOut().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (out != null)
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+      // The response is committed in commitResponse()
+    }
+  }
+
   void writeResponse(final ResourceMatch resource, final ContainerRequestContext requestContext, final Providers providers) throws IOException {
-    writeHeader();
+    if (!resourceContext.isStreamResponse()) {
+      writeHeader();
+      if (!HttpMethod.HEAD.equals(requestContext.getMethod()))
+        writeBody(resource, providers);
+
+      return;
+    }
+
+    if (entityStream instanceof StreamingOutputStream && ((StreamingOutputStream)entityStream).isStarted()) {
+      // The response is being rewritten after the header of a streamed response was written, i.e. for an error
+      if (httpServletResponse.isCommitted())
+        throw new IllegalStateException("Response has already been committed");
+
+      httpServletResponse.reset();
+    }
+
+    entityStream = null;
     if (!HttpMethod.HEAD.equals(requestContext.getMethod()))
       writeBody(resource, providers);
+
+    if (!(entityStream instanceof StreamingOutputStream) || !((StreamingOutputStream)entityStream).isStarted())
+      writeHeader();
+  }
+
+  private void releaseEntityStream() {
+    if (entityStream instanceof PooledBufferedOutputStream)
+      ((PooledBufferedOutputStream)entityStream).release();
   }
 
   void commitResponse() throws IOException {
-    if (httpServletResponse.isCommitted())
-      return;
+    try {
+      if (httpServletResponse.isCommitted())
+        return;
+
+      if (entityStream instanceof PooledBufferedOutputStream && entityStream == containerResponseContext.getOutputStream()) {
+        final PooledBufferedOutputStream buffer = (PooledBufferedOutputStream)entityStream;
+        httpServletResponse.addHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(buffer.getCount()));
+        buffer.writeTo(httpServletResponse.getOutputStream());
+      }
 
-    if (entityStream != null && entityStream == containerResponseContext.getOutputStream()) {
-      final byte[] bytes = entityStream.toByteArray();
-      httpServletResponse.addHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bytes.length));
-      httpServletResponse.getOutputStream().write(bytes);
+      // @see ServletResponse#getOutputStream :: "Calling flush() on the ServletOutputStream commits the response."
+      httpServletResponse.getOutputStream().flush();
     }
+    finally {
+      releaseEntityStream();
+    }
+  }
+
+  /**
+   * Commits the response of a suspended request, and completes the specified
+   * {@link AsyncContext}. A buffered entity is written with a
+   * {@link WriteListener} one segment at a time, whenever the
+   * {@link ServletOutputStream} is ready, so that no thread is blocked by a
+   * slow client. Once the response is complete, the
+   * {@link javax.ws.rs.container.CompletionCallback}s of the
+   * {@link AsyncResponse}, if any, are notified.
+   *
+   * @param asyncContext The {@link AsyncContext} of the suspended request.
+   * @param throwable The unmapped {@link Throwable} with which the processing
+   *          of the response failed, or {@code null} if it succeeded.
+   */
+  void commitResponse(final AsyncContext asyncContext, final Throwable throwable) {
+    try {
+      if (httpServletResponse.isCommitted() || !(entityStream instanceof PooledBufferedOutputStream) || entityStream != containerResponseContext.getOutputStream()) {
+        complete(asyncContext, throwable);
+        return;
+      }
+
+      final PooledBufferedOutputStream buffer = (PooledBufferedOutputStream)entityStream;
+      httpServletResponse.addHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(buffer.getCount()));
+      final ServletOutputStream out = httpServletResponse.getOutputStream();
+      out.setWriteListener(new WriteListener() {
+        private int position;
+
+        @Override
+        public void onWritePossible() throws IOException {
+          while (out.isReady()) {
+            if (position == buffer.getCount()) {
+              complete(asyncContext, throwable);
+              return;
+            }
+
+            position = buffer.writeTo(out, position);
+          }
+        }
 
-    // @see ServletResponse#getOutputStream :: "Calling flush() on the ServletOutputStream commits the response."
-    httpServletResponse.getOutputStream().flush();
+        @Override
+        public void onError(final Throwable t) {
+          if (throwable != null)
+            t.addSuppressed(throwable);
+
+          complete(asyncContext, t);
+        }
+      });
+    }
+    catch (final IOException | RuntimeException e) {
+      if (throwable != null)
+        e.addSuppressed(throwable);
+
+      complete(asyncContext, e);
+    }
+  }
+
+  private void complete(final AsyncContext asyncContext, final Throwable throwable) {
+    try {
+      releaseEntityStream();
+      asyncContext.complete();
+    }
+    finally {
+      if (asyncResponse != null)
+        asyncResponse.onComplete(throwable);
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.core.MediaType;
+
+import org.jetrs.common.util.MediaTypes;
+
+/**
+ * Lookup table of the {@link MediaType}s declared by a
+ * {@link javax.ws.rs.Consumes} or {@link javax.ws.rs.Produces} annotation,
+ * indexed by type, subtype and suffix. For a requested {@link MediaType}, the
+ * table selects the declared media types that can be compatible with a few hash
+ * probes, and only those are evaluated with
+ * {@link MediaTypes#getCompatible(MediaType,MediaType)}.
+ */
+final class MediaTypeTable {
+  private static final String WILDCARD = MediaType.MEDIA_TYPE_WILDCARD;
+
+  private static void put(final Map<String,Long> map, final String key, final long bit) {
+    final Long bits = map.get(key);
+    map.put(key, bits == null ? bit : bits | bit);
+  }
+
+  private static long get(final Map<String,Long> map, final String key) {
+    final Long bits = map.get(key.toLowerCase(Locale.ROOT));
+    return bits == null ? 0 : bits;
+  }
+
+  private final MediaType[] mediaTypes;
+  private final boolean indexed;
+  private final long all;
+  private final long wildcardTypes;
+  private final long wildcardSubtypes;
+  private final long wildcardPrefixes;
+  private final long wildcardSuffixes;
+  private final Map<String,Long> types = new HashMap<>();
+  private final Map<String,Long> subtypes = new HashMap<>();
+  private final Map<String,Long> suffixes = new HashMap<>();
+
+  /**
+   * Creates a new {@link MediaTypeTable} for the specified {@link MediaType}s.
+   *
+   * @param mediaTypes The {@link MediaType}s sorted on the "q" parameter in
+   *          descending order.
+   */
+  MediaTypeTable(final MediaType[] mediaTypes) {
+    this.mediaTypes = mediaTypes;
+    this.indexed = mediaTypes.length <= Long.SIZE;
+    long all = 0;
+    long wildcardTypes = 0;
+    long wildcardSubtypes = 0;
+    long wildcardPrefixes = 0;
+    long wildcardSuffixes = 0;
+    for (int i = 0; indexed && i < mediaTypes.length; ++i) {
+      final long bit = 1L << i;
+      all |= bit;
+      final MediaType mediaType = mediaTypes[i];
+      if (mediaType.isWildcardType())
+        wildcardTypes |= bit;
+      else
+        put(types, mediaType.getType().toLowerCase(Locale.ROOT), bit);
+
+      final String subtype = mediaType.getSubtype().toLowerCase(Locale.ROOT);
+      if (WILDCARD.equals(subtype))
+        wildcardSubtypes |= bit;
+      else
+        put(subtypes, subtype, bit);
+
+      final int plus = subtype.indexOf('+');
+      if (plus > -1) {
+        if (WILDCARD.equals(subtype.substring(0, plus)))
+          wildcardPrefixes |= bit;
+
+        final String suffix = subtype.substring(plus + 1);
+        if (WILDCARD.equals(suffix))
+          wildcardSuffixes |= bit;
+        else
+          put(suffixes, suffix, bit);
+      }
+    }
+
+    this.all = all;
+    this.wildcardTypes = wildcardTypes;
+    this.wildcardSubtypes = wildcardSubtypes;
+    this.wildcardPrefixes = wildcardPrefixes;
+    this.wildcardSuffixes = wildcardSuffixes;
+  }
+
+  /**
+   * Returns the bits of the declared media types that can be compatible with
+   * the specified {@link MediaType}, following the rules of
+   * {@link MediaTypes#getCompatible(MediaType,MediaType)}.
+   *
+   * @param mediaType The requested {@link MediaType}.
+   * @return The bits of the declared media types that can be compatible with
+   *         the specified {@link MediaType}.
+   */
+  private long getCandidates(final MediaType mediaType) {
+    final long typeBits = mediaType.isWildcardType() ? all : wildcardTypes | get(types, mediaType.getType());
+    if (typeBits == 0)
+      return 0;
+
+    final String subtype = mediaType.getSubtype();
+    if (WILDCARD.equals(subtype))
+      return typeBits;
+
+    long subtypeBits = wildcardSubtypes | wildcardSuffixes | get(subtypes, subtype);
+    final int plus = subtype.indexOf('+');
+    if (plus < 0)
+      return typeBits & (subtypeBits | get(suffixes, subtype));
+
+    final String suffix = subtype.substring(plus + 1);
+    if (WILDCARD.equals(suffix))
+      return typeBits;
+
+    subtypeBits |= wildcardPrefixes | get(subtypes, suffix) | get(suffixes, subtype);
+    if (WILDCARD.equals(subtype.substring(0, plus)))
+      subtypeBits |= get(suffixes, suffix);
+
+    return typeBits & subtypeBits;
+  }
+
+  /**
+   * Returns the first declared {@link MediaType} that is compatible with the
+   * specified {@link MediaType}, as evaluated by
+   * {@link MediaTypes#getCompatible(MediaType,MediaType)}, or {@code null} if
+   * there is none.
+   *
+   * @param mediaType The requested {@link MediaType}.
+   * @return The first declared {@link MediaType} that is compatible with the
+   *         specified {@link MediaType}, or {@code null} if there is none.
+   */
+  MediaType getCompatible(final MediaType mediaType) {
+    if (!indexed)
+      return MediaTypes.getCompatible(mediaType, mediaTypes);
+
+    for (long bits = getCandidates(mediaType); bits != 0; bits &= bits - 1) {
+      final MediaType compatible = MediaTypes.getCompatible(mediaType, mediaTypes[Long.numberOfTrailingZeros(bits)]);
+      if (compatible != null)
+        return compatible;
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,304 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.jetrs.common.core.AnnotationInjector;
+import org.jetrs.common.util.ParameterConverter;
+import org.jetrs.common.util.ParameterConverterCache;
+import org.jetrs.common.util.ParameterUtil;
+import org.jetrs.server.container.ContainerRequestContextImpl;
+import org.libj.lang.IllegalAnnotationException;
+
+/**
+ * Binder of the argument of a resource method parameter, specialized for the
+ * kind of the parameter ({@link QueryParam}, {@link PathParam},
+ * {@link MatrixParam}, {@link CookieParam}, {@link HeaderParam},
+ * {@link Context}, {@link Suspended}, {@link SseEventSink}, or the entity),
+ * with everything that does not depend on the request, such as the
+ * {@link ParameterConverter}, resolved when the binder is created.
+ */
+abstract class ParameterBinder {
+  private static final ParameterBinder[] EMPTY_ARRAY = {};
+
+  /**
+   * Returns the {@link ParameterBinder}s for the parameters of the specified
+   * resource method.
+   *
+   * @param method The resource method.
+   * @param parameterConverters The {@link ParameterConverterCache} of the
+   *          application.
+   * @return The {@link ParameterBinder}s for the parameters of the specified
+   *         resource method.
+   */
+  static ParameterBinder[] newBinders(final Method method, final ParameterConverterCache parameterConverters) {
+    final Parameter[] parameters = method.getParameters();
+    if (parameters.length == 0)
+      return EMPTY_ARRAY;
+
+    final Type[] genericParameterTypes = method.getGenericParameterTypes();
+    final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    final ParameterBinder[] binders = new ParameterBinder[parameters.length];
+    for (int i = 0; i < parameters.length; ++i)
+      binders[i] = newBinder(parameters[i], genericParameterTypes[i], parameterAnnotations[i], parameterConverters);
+
+    return binders;
+  }
+
+  private static ParameterBinder newBinder(final Parameter parameter, final Type genericParameterType, final Annotation[] annotations, final ParameterConverterCache parameterConverters) {
+    for (final Annotation annotation : annotations)
+      if (annotation.annotationType() == Suspended.class)
+        return new SuspendedBinder(parameter);
+
+    final Annotation paramAnnotation;
+    try {
+      paramAnnotation = AnnotationInjector.getInjectableAnnotation(parameter, annotations);
+    }
+    catch (final IllegalAnnotationException e) {
+      // The exception is thrown when the parameter is bound, as it would be without the binder
+      return new ParameterBinder() {
+        @Override
+        Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+          throw e;
+        }
+      };
+    }
+
+    final Class<?> parameterType = parameter.getType();
+    if (paramAnnotation == null)
+      return new EntityBinder(parameter);
+
+    final Class<? extends Annotation> annotationType = paramAnnotation.annotationType();
+    if (annotationType == QueryParam.class)
+      return new QueryBinder(((QueryParam)paramAnnotation).value(), ParameterUtil.decode(annotations), parameterConverters.get(parameterType, genericParameterType, annotations));
+
+    if (annotationType == PathParam.class)
+      return new PathBinder(((PathParam)paramAnnotation).value(), ParameterUtil.decode(annotations), parameterConverters.get(parameterType, genericParameterType, annotations));
+
+    if (annotationType == MatrixParam.class)
+      return new MatrixBinder(((MatrixParam)paramAnnotation).value(), ParameterUtil.decode(annotations));
+
+    if (annotationType == CookieParam.class)
+      return new CookieBinder(((CookieParam)paramAnnotation).value());
+
+    if (annotationType == HeaderParam.class)
+      return new HeaderBinder(((HeaderParam)paramAnnotation).value());
+
+    if (parameterType == SseEventSink.class)
+      return new SseEventSinkBinder();
+
+    return new ContextBinder(parameterType);
+  }
+
+  /**
+   * Returns the argument for the parameter of this binder in the specified
+   * request.
+   *
+   * @param executionContext The {@link ExecutionContext}.
+   * @param containerRequestContext The {@link ContainerRequestContextImpl}.
+   * @param annotationInjector The {@link AnnotationInjector}.
+   * @return The argument for the parameter of this binder in the specified
+   *         request, or the {@link Exception} that occurred while converting
+   *         a {@link QueryParam} or {@link PathParam} value.
+   * @throws IOException If an I/O error has occurred reading the entity.
+   */
+  abstract Object bind(ExecutionContext executionContext, ContainerRequestContextImpl containerRequestContext, AnnotationInjector annotationInjector) throws IOException;
+
+  /**
+   * Returns whether the argument of this binder is the entity of the request.
+   *
+   * @return Whether the argument of this binder is the entity of the request.
+   */
+  boolean isEntity() {
+    return false;
+  }
+
+  private static final class QueryBinder extends ParameterBinder {
+    private final String name;
+    private final boolean decode;
+    private final ParameterConverter converter;
+
+    private QueryBinder(final String name, final boolean decode, final ParameterConverter converter) {
+      this.name = name;
+      this.decode = decode;
+      this.converter = converter;
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      return converter.convert(containerRequestContext.getUriInfo().getQueryParameters(decode).get(name));
+    }
+  }
+
+  private static final class PathBinder extends ParameterBinder {
+    private final String name;
+    private final boolean decode;
+    private final ParameterConverter converter;
+
+    private PathBinder(final String name, final boolean decode, final ParameterConverter converter) {
+      this.name = name;
+      this.decode = decode;
+      this.converter = converter;
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      return converter.convert(containerRequestContext.getUriInfo().getPathParameters(decode).get(name));
+    }
+  }
+
+  private static final class MatrixBinder extends ParameterBinder {
+    private final String name;
+    private final boolean decode;
+
+    private MatrixBinder(final String name, final boolean decode) {
+      this.name = name;
+      this.decode = decode;
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      final List<PathSegment> pathSegments = containerRequestContext.getUriInfo().getPathSegments(decode);
+      // FIXME: Is it the last PathSegment that from which to get the matrix?
+      final PathSegment pathSegment = pathSegments.get(pathSegments.size() - 1);
+      final MultivaluedMap<String,String> matrixParameters = pathSegment.getMatrixParameters();
+      return matrixParameters == null ? null : matrixParameters.get(name);
+    }
+  }
+
+  private static final class CookieBinder extends ParameterBinder {
+    private final String name;
+
+    private CookieBinder(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      final Map<String,Cookie> cookies = containerRequestContext.getCookies();
+      return cookies == null ? null : cookies.get(name);
+    }
+  }
+
+  private static final class HeaderBinder extends ParameterBinder {
+    private final String name;
+
+    private HeaderBinder(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      return containerRequestContext.getHeaderString(name);
+    }
+  }
+
+  private static final class ContextBinder extends ParameterBinder {
+    private final Class<?> parameterType;
+    private final int slot;
+
+    private ContextBinder(final Class<?> parameterType) {
+      this.parameterType = parameterType;
+      this.slot = AnnotationInjector.getContextSlot(parameterType);
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      return annotationInjector.getContextObject(slot, parameterType);
+    }
+  }
+
+  private static final class SuspendedBinder extends ParameterBinder {
+    private final IllegalAnnotationException exception;
+
+    private SuspendedBinder(final Parameter parameter) {
+      this.exception = parameter.getType() == AsyncResponse.class ? null : new IllegalAnnotationException(parameter.getAnnotation(Suspended.class), "@Suspended parameter " + parameter.getName() + " is not of type " + AsyncResponse.class.getName());
+    }
+
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      if (exception != null)
+        throw exception;
+
+      return executionContext.suspend();
+    }
+  }
+
+  private static final class SseEventSinkBinder extends ParameterBinder {
+    @Override
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) {
+      return executionContext.openEventSink();
+    }
+  }
+
+  private static final class EntityBinder extends ParameterBinder {
+    private final Class<?> parameterType;
+    private final Type genericParameterType;
+    private final Type genericSuperclass;
+    private final Annotation[] annotations;
+
+    private EntityBinder(final Parameter parameter) {
+      this.parameterType = parameter.getType();
+      this.genericParameterType = parameter.getParameterizedType();
+      this.genericSuperclass = parameterType.getGenericSuperclass();
+      this.annotations = parameter.getAnnotations();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    Object bind(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector) throws IOException {
+      final Providers providers = annotationInjector.getContextObject(Providers.class);
+      final MessageBodyReader messageBodyReader = providers.getMessageBodyReader(parameterType, genericParameterType, annotations, containerRequestContext.getMediaType());
+      if (messageBodyReader == null)
+        throw new WebApplicationException("Could not find MessageBodyReader for type: " + parameterType.getName());
+
+      // FIXME: Why is there a return type for ReaderInterceptorContext#proceed()? And it's of type Object. What type is ReaderInterceptorContext supposed to return? It should be InputStream, but then it makes it redundant.
+      containerRequestContext.setType(parameterType);
+      containerRequestContext.setGenericType(genericSuperclass);
+      containerRequestContext.setAnnotations(annotations);
+      return containerRequestContext.readBody(messageBodyReader);
+    }
+
+    @Override
+    boolean isEntity() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Unmodifiable {@link MultivaluedMap} view of the path parameters of a matched
+ * {@link PathPattern}, backed by the offsets of the parameter values captured
+ * in the request path with {@link PathPattern#capture(String)}. The values of a
+ * parameter are extracted from the path only when the parameter is first
+ * accessed.
+ */
+final class PathParameters extends AbstractMap<String,List<String>> implements MultivaluedMap<String,String> {
+  private static List<String> split(String value) {
+    value = value.replace("%3B", ";");
+    final List<String> values = new ArrayList<>(1);
+    int start = 0;
+    for (int end = -1; (end = value.indexOf(';', end + 1)) != -1; start = end + 1)
+      if (start != end)
+        values.add(value.substring(start, end));
+
+    values.add(value.substring(start));
+    return Collections.unmodifiableList(values);
+  }
+
+  private final String path;
+  private final String[] names;
+  private final int[] offsets;
+  private final List<String>[] values;
+  private Set<Entry<String,List<String>>> entrySet;
+
+  @SuppressWarnings("unchecked")
+  PathParameters(final PathPattern pathPattern, final String path, final int[] offsets) {
+    this.path = path;
+    this.names = offsets != null ? pathPattern.getParameterNames() : new String[0];
+    this.offsets = offsets;
+    this.values = new List[names.length];
+  }
+
+  private int indexOf(final Object key) {
+    for (int i = 0; i < names.length; ++i)
+      if (names[i].equals(key))
+        return i;
+
+    return -1;
+  }
+
+  private List<String> getValues(final int index) {
+    if (values[index] != null)
+      return values[index];
+
+    final int start = offsets[index * 2];
+    return start < 0 ? null : (values[index] = split(path.substring(start, offsets[index * 2 + 1])));
+  }
+
+  @Override
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return indexOf(key) > -1;
+  }
+
+  @Override
+  public List<String> get(final Object key) {
+    final int index = indexOf(key);
+    return index < 0 ? null : getValues(index);
+  }
+
+  @Override
+  public String getFirst(final String key) {
+    final List<String> values = get(key);
+    return values == null || values.size() == 0 ? null : values.get(0);
+  }
+
+  @Override
+  public Set<Entry<String,List<String>>> entrySet() {
+    return entrySet == null ? entrySet = new AbstractSet<Entry<String,List<String>>>() {
+      @Override
+      public Iterator<Entry<String,List<String>>> iterator() {
+        return new Iterator<Entry<String,List<String>>>() {
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < names.length;
+          }
+
+          @Override
+          public Entry<String,List<String>> next() {
+            if (!hasNext())
+              throw new NoSuchElementException();
+
+            final int index = this.index++;
+            return new SimpleImmutableEntry<>(names[index], getValues(index));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return names.length;
+      }
+    } : entrySet;
+  }
+
+  @Override
+  public void putSingle(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addAll(final String key, final String ... newValues) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addAll(final String key, final List<String> valueList) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addFirst(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean equalsIgnoreValueOrder(final MultivaluedMap<String,String> otherMap) {
+    if (otherMap == this)
+      return true;
+
+    if (otherMap == null || otherMap.size() != size())
+      return false;
+
+    for (int i = 0; i < names.length; ++i) {
+      final List<String> values = getValues(i);
+      final List<String> otherValues = otherMap.get(names[i]);
+      if (values == null || otherValues == null ? values != otherValues : values.size() != otherValues.size() || !values.containsAll(otherValues) || !otherValues.containsAll(values))
+        return false;
+    }
+
+    return true;
+  }
+}
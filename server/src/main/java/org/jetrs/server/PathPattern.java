@@ -17,6 +17,7 @@
 package org.jetrs.server;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +30,8 @@ import org.libj.util.Patterns;
 
 public class PathPattern {
   private static final Pattern pathExpressionPattern = Pattern.compile("(\\w+)\\s*(:\\s*\\(([^)]+)\\))?");
+  private static final String defaultRegex = "[^\\/]+";
+  private static final String regexChars = "\\^$.|?*+()[]{}";
 
   private static String pathExpressionToRegex(final String pathExpression) {
     final Matcher matcher = pathExpressionPattern.matcher(pathExpression);
@@ -53,6 +56,36 @@ public class PathPattern {
     return Patterns.compile(builder.length() != 0 ? builder.toString() : path);
   }
 
+  private static boolean isLiteral(final String segment) {
+    for (int i = 0; i < segment.length(); ++i)
+      if (regexChars.indexOf(segment.charAt(i)) > -1)
+        return false;
+
+    return true;
+  }
+
+  /**
+   * Returns the name of the parameter declared by the specified segment, if
+   * the segment is a single "{name}" expression (or a "{name: regex}"
+   * expression with the default regex) that matches exactly one path segment;
+   * otherwise {@code null}.
+   *
+   * @param segment The template segment.
+   * @return The name of the parameter declared by the specified segment, or
+   *         {@code null} if the segment cannot be matched without its regex.
+   */
+  private static String getParameterName(final String segment) {
+    if (segment.length() < 3 || segment.charAt(0) != '{' || segment.indexOf('}') != segment.length() - 1)
+      return null;
+
+    final Matcher matcher = pathExpressionPattern.matcher(segment.substring(1, segment.length() - 1));
+    if (!matcher.find())
+      return null;
+
+    final String regex = matcher.group(3);
+    return regex == null || defaultRegex.equals(regex) || "[^/]+".equals(regex) ? matcher.group(1) : null;
+  }
+
   private static String prependSlash(final Path path) {
     return path == null ? null : path.value().startsWith("/") ? path.value() : "/" + path.value();
   }
@@ -60,6 +93,10 @@ public class PathPattern {
   private final String uri;
   private final String decodedUri;
   private final Pattern pattern;
+  private final String[] segments;
+  private final String[] names;
+  private final boolean regexTail;
+  private final String[] parameterNames;
 
   public PathPattern(final Method method) {
     this(method.getDeclaringClass().getAnnotation(Path.class), method.getAnnotation(Path.class));
@@ -74,6 +111,45 @@ public class PathPattern {
     this.uri = index < 0 ? pathString : pathString.substring(0, index);
     this.decodedUri = URLs.decodePath(uri);
     this.pattern = createPattern(pathString);
+
+    final ArrayList<String> segments = new ArrayList<>();
+    final ArrayList<String> names = new ArrayList<>();
+    boolean regexTail = false;
+    for (int start = 1, end; start <= pathString.length(); start = end + 1) {
+      end = start;
+      for (char ch; end < pathString.length() && (ch = pathString.charAt(end)) != '/'; ++end)
+        if (ch == '{' && (end = pathString.indexOf('}', end)) < 0)
+          end = pathString.length() - 1;
+
+      final String segment = pathString.substring(start, end);
+      final String name = getParameterName(segment);
+      if (name == null && !isLiteral(segment)) {
+        regexTail = true;
+        break;
+      }
+
+      segments.add(name == null ? segment : null);
+      names.add(name);
+    }
+
+    this.segments = segments.toArray(new String[segments.size()]);
+    this.names = names.toArray(new String[names.size()]);
+    this.regexTail = regexTail;
+    if (regexTail) {
+      final String[] groupNames = Patterns.getGroupNames(pattern);
+      this.parameterNames = groupNames != null ? groupNames : new String[0];
+    }
+    else {
+      int count = 0;
+      for (final String name : this.names)
+        if (name != null)
+          ++count;
+
+      this.parameterNames = new String[count];
+      for (int i = 0, j = 0; i < this.names.length; ++i)
+        if (this.names[i] != null)
+          this.parameterNames[j++] = this.names[i];
+    }
   }
 
   public String getURI(final boolean decode) {
@@ -84,6 +160,121 @@ public class PathPattern {
     return pattern;
   }
 
+  /**
+   * Returns the number of leading segments of this pattern's template that can
+   * be matched without the regex.
+   *
+   * @return The number of leading segments of this pattern's template that can
+   *         be matched without the regex.
+   */
+  int getSegmentCount() {
+    return segments.length;
+  }
+
+  /**
+   * Returns the literal text of the segment at the specified index, or
+   * {@code null} if the segment is a "{name}" parameter.
+   *
+   * @param index The index of the segment.
+   * @return The literal text of the segment at the specified index, or
+   *         {@code null} if the segment is a "{name}" parameter.
+   */
+  String getSegment(final int index) {
+    return segments[index];
+  }
+
+  /**
+   * Returns the parameter name of the segment at the specified index, or
+   * {@code null} if the segment is literal text.
+   *
+   * @param index The index of the segment.
+   * @return The parameter name of the segment at the specified index, or
+   *         {@code null} if the segment is literal text.
+   */
+  String getSegmentName(final int index) {
+    return names[index];
+  }
+
+  /**
+   * Returns whether this pattern's template has segments following
+   * {@link #getSegmentCount()} that can only be matched with the regex, such as
+   * "{name: regex}" expressions or segments mixing literal text and
+   * expressions.
+   *
+   * @return Whether this pattern's template has segments that can only be
+   *         matched with the regex.
+   */
+  boolean hasRegexTail() {
+    return regexTail;
+  }
+
+  /**
+   * Returns the names of the parameters declared by this pattern's template.
+   *
+   * @return The names of the parameters declared by this pattern's template.
+   */
+  String[] getParameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * Returns whether this pattern's template declares path parameters.
+   *
+   * @return Whether this pattern's template declares path parameters.
+   */
+  boolean hasParameters() {
+    return parameterNames.length > 0;
+  }
+
+  /**
+   * Returns the offsets of the values of this pattern's parameters in the
+   * specified path, as {@code [start0, end0, start1, end1, ...]} in the order of
+   * {@link #getParameterNames()}, or {@code null} if the path does not match
+   * this pattern. The offsets of a parameter that does not participate in the
+   * match are {@code -1}. Templates that are matched by the
+   * {@link ResourceRouter} without regex are captured without regex as well.
+   *
+   * @param path The path.
+   * @return The offsets of the values of this pattern's parameters in the
+   *         specified path, or {@code null} if the path does not match this
+   *         pattern.
+   */
+  int[] capture(final String path) {
+    final int[] offsets = new int[parameterNames.length * 2];
+    if (regexTail) {
+      final Matcher matcher = pattern.matcher(path);
+      if (!matcher.matches())
+        return null;
+
+      for (int i = 0; i < parameterNames.length; ++i) {
+        offsets[i * 2] = matcher.start(parameterNames[i]);
+        offsets[i * 2 + 1] = matcher.end(parameterNames[i]);
+      }
+
+      return offsets;
+    }
+
+    final int len = path.length();
+    if (len == 0 || path.charAt(0) != '/')
+      return null;
+
+    for (int i = 0, j = 0, start = 1, end; i < names.length; ++i, start = end + 1) {
+      if (start > len)
+        return null;
+
+      end = path.indexOf('/', start);
+      if (end < 0)
+        end = len;
+
+      if (names[i] != null) {
+        offsets[j++] = start;
+        offsets[j++] = end;
+      }
+    }
+
+    return offsets;
+  }
+
   public boolean matches(final String path) {
     final Matcher matcher = pattern.matcher(path);
     return matcher.matches();
@@ -28,14 +28,16 @@ import javax.ws.rs.MatrixParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.SseEventSink;
 
 import org.jetrs.common.util.MediaTypes;
 import org.libj.lang.IllegalAnnotationException;
 
 class ResourceAnnotationProcessor<T extends Annotation> {
-  private static final Class<?>[] paramAnnotations = {Context.class, CookieParam.class, HeaderParam.class, MatrixParam.class, PathParam.class, QueryParam.class};
+  private static final Class<?>[] paramAnnotations = {Context.class, CookieParam.class, HeaderParam.class, MatrixParam.class, PathParam.class, QueryParam.class, Suspended.class};
   private static final MediaType[] wildcard = {MediaType.WILDCARD_TYPE};
 
   static <T extends Annotation>T getMethodClassAnnotation(final Class<T> annotationClass, final Method method) {
@@ -43,6 +45,28 @@ class ResourceAnnotationProcessor<T extends Annotation> {
     return annotation != null ? annotation : method.getDeclaringClass().getAnnotation(annotationClass);
   }
 
+  /**
+   * Tests whether the specified method contains a {@link Suspended} or
+   * {@link SseEventSink} parameter, with which the response is written
+   * asynchronously.
+   *
+   * @param method The {@link Method}.
+   * @return {@code true} if the specified method contains a {@link Suspended}
+   *         or {@link SseEventSink} parameter; otherwise {@code false}.
+   */
+  static boolean hasAsyncParameter(final Method method) {
+    for (final Class<?> parameterType : method.getParameterTypes())
+      if (parameterType == SseEventSink.class)
+        return true;
+
+    for (final Annotation[] annotations : method.getParameterAnnotations())
+      for (final Annotation annotation : annotations)
+        if (annotation.annotationType() == Suspended.class)
+          return true;
+
+    return false;
+  }
+
   /**
    * Tests whether the specified method contains an entity parameter.
    *
@@ -66,6 +90,7 @@ class ResourceAnnotationProcessor<T extends Annotation> {
 
   private final T annotation;
   private final MediaType[] mediaTypes;
+  private final MediaTypeTable mediaTypeTable;
 
   @SuppressWarnings("unchecked")
   ResourceAnnotationProcessor(final Method method, final Class<T> annotationClass) {
@@ -77,30 +102,51 @@ class ResourceAnnotationProcessor<T extends Annotation> {
           throw new IllegalAnnotationException(annotation, method.getDeclaringClass().getName() + "#" + method.getName() + " does not specify entity parameters, and thus cannot declare @Consumes annotation");
       }
       else {
-        this.mediaTypes = annotation != null ? MediaTypes.parse(((Consumes)annotation).value()) : wildcard;
+        this.mediaTypes = annotation != null ? MediaTypes.intern(((Consumes)annotation).value()) : wildcard;
       }
     }
     else if (annotationClass == Produces.class) {
       annotation = (T)getMethodClassAnnotation((Class<Produces>)annotationClass, method);
-      if (Void.TYPE.equals(method.getReturnType())) {
+      // The entity of an asynchronous method is provided to its AsyncResponse or SseEventSink, so it may declare @Produces
+      if (Void.TYPE.equals(method.getReturnType()) && !hasAsyncParameter(method)) {
         this.mediaTypes = null;
         if (annotation != null)
           throw new IllegalAnnotationException(annotation, method.getDeclaringClass().getName() + "#" + method.getName() + " is void return type, and thus cannot declare @Produces annotation");
       }
       else {
-        this.mediaTypes = annotation != null ? MediaTypes.parse(((Produces)annotation).value()) : wildcard;
+        this.mediaTypes = annotation != null ? MediaTypes.intern(((Produces)annotation).value()) : wildcard;
       }
     }
     else {
       throw new UnsupportedOperationException("Expected @Consumes or @Produces, but got: " + annotationClass.getName());
     }
+
+    this.mediaTypeTable = this.mediaTypes == null ? null : new MediaTypeTable(this.mediaTypes);
   }
 
+  /**
+   * Returns the first {@link MediaType} of this processor's annotation that is
+   * compatible with the specified request media types, or {@code null} if none
+   * is compatible.
+   *
+   * @param mediaTypes The request media types sorted on the "q" parameter in
+   *          descending order, or {@code null} if the request header is
+   *          absent.
+   * @return The first {@link MediaType} of this processor's annotation that is
+   *         compatible with the specified request media types, or {@code null}
+   *         if none is compatible.
+   */
   MediaType getCompatibleMediaType(final MediaType[] mediaTypes) {
-    if (this.mediaTypes == null)
-      return mediaTypes == null ? MediaType.WILDCARD_TYPE : MediaTypes.getCompatible(MediaType.WILDCARD_TYPE, mediaTypes);
+    if (mediaTypes == null)
+      return this.mediaTypes == null ? MediaType.WILDCARD_TYPE : this.mediaTypes[0];
+
+    for (final MediaType mediaType : mediaTypes) {
+      final MediaType compatible = mediaTypeTable == null ? MediaTypes.getCompatible(MediaType.WILDCARD_TYPE, mediaType) : mediaTypeTable.getCompatible(mediaType);
+      if (compatible != null)
+        return compatible;
+    }
 
-    return mediaTypes == null ? this.mediaTypes[0] : MediaTypes.getCompatible(this.mediaTypes, mediaTypes);
+    return null;
   }
 
   T getAnnotation() {
@@ -16,8 +16,11 @@
 
 package org.jetrs.server;
 
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.HttpMethod;
@@ -33,31 +36,103 @@ import javax.ws.rs.ext.ParamConverterProvider;
 import javax.ws.rs.ext.Providers;
 import javax.ws.rs.ext.ReaderInterceptor;
 import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.sse.Sse;
 
 import org.jetrs.common.ProviderResource;
 import org.jetrs.common.ReaderInterceptorEntityProviderResource;
 import org.jetrs.common.WriterInterceptorEntityProviderResource;
 import org.jetrs.common.core.AnnotationInjector;
 import org.jetrs.common.ext.ProvidersImpl;
+import org.jetrs.common.util.BufferPool;
+import org.jetrs.common.util.ParameterConverterCache;
+import org.jetrs.server.container.ContainerRequestContextImpl;
 import org.jetrs.server.core.ServerConfiguration;
+import org.jetrs.server.sse.OverflowPolicy;
+import org.jetrs.server.sse.SseImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ResourceContext {
+  private static final Logger logger = LoggerFactory.getLogger(ResourceContext.class);
+
   private final Application application;
   private final Configuration configuration;
-  private final MultivaluedMap<String,ResourceManifest> resources;
+  private final Map<String,ResourceRouter> routers;
+  private final String allowHeaders;
+  private final ResourceMatchCache matchCache;
+  private final boolean streamResponse;
+  private final BufferPool bufferPool;
+  private final boolean virtualThreads;
+  private final long asyncTimeout;
+  private volatile boolean asyncUnsupportedLogged;
+  private final SseImpl sse;
   private final ContainerFilters containerFilters;
   private final ProvidersImpl providers;
   private final ReaderInterceptor[] readerInterceptors;
   private final WriterInterceptor[] writerInterceptors;
-  private final List<ProviderResource<ParamConverterProvider>> paramConverterProviders;
+  private final ParameterConverterCache parameterConverters;
+
+  private static BufferPool newBufferPool(final Application application) {
+    int segmentSize = ServerProperties.getInt(application, ServerProperties.BUFFER_SEGMENT_SIZE, BufferPool.DEFAULT_SEGMENT_SIZE);
+    if (segmentSize <= 0) {
+      logger.warn("Value of " + ServerProperties.BUFFER_SEGMENT_SIZE + " must be positive, so the default of " + BufferPool.DEFAULT_SEGMENT_SIZE + " is used: " + segmentSize);
+      segmentSize = BufferPool.DEFAULT_SEGMENT_SIZE;
+    }
+
+    int maxRetained = ServerProperties.getInt(application, ServerProperties.BUFFER_POOL_MAX_RETAINED, BufferPool.DEFAULT_MAX_RETAINED);
+    if (maxRetained < 0) {
+      logger.warn("Value of " + ServerProperties.BUFFER_POOL_MAX_RETAINED + " must be non-negative, so the default of " + BufferPool.DEFAULT_MAX_RETAINED + " is used: " + maxRetained);
+      maxRetained = BufferPool.DEFAULT_MAX_RETAINED;
+    }
+
+    // Applications with the default configuration share the default pool
+    return segmentSize == BufferPool.DEFAULT_SEGMENT_SIZE && maxRetained == BufferPool.DEFAULT_MAX_RETAINED ? BufferPool.DEFAULT : new BufferPool(segmentSize, maxRetained);
+  }
+
+  static SseImpl newSse(final Application application, final Providers providers) {
+    int queueSize = ServerProperties.getInt(application, ServerProperties.SSE_QUEUE_SIZE, SseImpl.DEFAULT_QUEUE_SIZE);
+    if (queueSize <= 0) {
+      logger.warn("Value of " + ServerProperties.SSE_QUEUE_SIZE + " must be positive, so the default of " + SseImpl.DEFAULT_QUEUE_SIZE + " is used: " + queueSize);
+      queueSize = SseImpl.DEFAULT_QUEUE_SIZE;
+    }
+
+    return new SseImpl(providers, queueSize, ServerProperties.getEnum(application, ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+  }
 
   public ResourceContext(final Application application, final MultivaluedMap<String,ResourceManifest> resources, final ContainerFilters containerFilters, final ProvidersImpl providers, final List<ReaderInterceptorEntityProviderResource> readerInterceptors, final List<WriterInterceptorEntityProviderResource> writerInterceptors, final List<ProviderResource<ParamConverterProvider>> paramConverterProviders) {
     this.application = application;
     this.configuration = new ServerConfiguration(application);
-    this.resources = resources;
+    this.routers = new LinkedHashMap<>();
+    this.parameterConverters = new ParameterConverterCache(paramConverterProviders);
+    boolean allowContentType = false;
+    boolean allowAccept = false;
+    for (final Map.Entry<String,List<ResourceManifest>> entry : resources.entrySet()) {
+      this.routers.put(entry.getKey(), new ResourceRouter(entry.getValue()));
+      for (final ResourceManifest resource : entry.getValue()) {
+        allowContentType |= resource.getResourceAnnotationProcessor(Consumes.class).getMediaTypes() != null;
+        allowAccept |= resource.getResourceAnnotationProcessor(Produces.class).getMediaTypes() != null;
+        resource.initParameterBinders(parameterConverters);
+      }
+    }
+
+    if (allowAccept && allowContentType)
+      this.allowHeaders = HttpHeaders.ACCEPT + "," + HttpHeaders.CONTENT_TYPE;
+    else if (allowAccept)
+      this.allowHeaders = HttpHeaders.ACCEPT;
+    else if (allowContentType)
+      this.allowHeaders = HttpHeaders.CONTENT_TYPE;
+    else
+      this.allowHeaders = null;
+
+    final int matchCacheSize = ServerProperties.getInt(application, ServerProperties.MATCH_CACHE_SIZE, 1024);
+    this.matchCache = matchCacheSize > 0 ? new ResourceMatchCache(matchCacheSize) : null;
+    this.streamResponse = ServerProperties.getBoolean(application, ServerProperties.STREAM_RESPONSE, false);
+    this.bufferPool = newBufferPool(application);
+    this.virtualThreads = ServerProperties.getBoolean(application, ServerProperties.VIRTUAL_THREADS, false);
+    this.asyncTimeout = ServerProperties.getInt(application, ServerProperties.ASYNC_TIMEOUT, 0);
     this.containerFilters = containerFilters;
     this.providers = providers;
-    this.paramConverterProviders = paramConverterProviders;
+    this.sse = newSse(application, providers);
 
     if (readerInterceptors.size() > 0) {
       readerInterceptors.sort(ProvidersImpl.providerResourceComparator);
@@ -88,6 +163,98 @@ public class ResourceContext {
     return configuration;
   }
 
+  /**
+   * Returns the cache of {@link ResourceMatch} arrays resolved by this context,
+   * or {@code null} if the cache is disabled with
+   * {@link ServerProperties#MATCH_CACHE_SIZE}.
+   *
+   * @return The cache of {@link ResourceMatch} arrays resolved by this context,
+   *         or {@code null} if the cache is disabled.
+   */
+  public ResourceMatchCache getMatchCache() {
+    return matchCache;
+  }
+
+  /**
+   * Returns whether the entity of a response is streamed to the
+   * {@link javax.servlet.http.HttpServletResponse} as it is written, as
+   * configured with {@link ServerProperties#STREAM_RESPONSE}.
+   *
+   * @return Whether the entity of a response is streamed to the
+   *         {@link javax.servlet.http.HttpServletResponse} as it is written.
+   */
+  public boolean isStreamResponse() {
+    return streamResponse;
+  }
+
+  /**
+   * Returns the number of milliseconds after which a suspended response times
+   * out, as configured with {@link ServerProperties#ASYNC_TIMEOUT}, or
+   * {@code 0} if suspended responses do not time out.
+   *
+   * @return The number of milliseconds after which a suspended response times
+   *         out, or {@code 0} if suspended responses do not time out.
+   */
+  public long getAsyncTimeout() {
+    return asyncTimeout;
+  }
+
+  /**
+   * Returns the {@link ExecutorService} on which the specified resource is to
+   * be serviced, or {@code null} if it is to be serviced on the request
+   * thread. Resources are serviced on a virtual thread per request if so
+   * configured with {@link ServerProperties#VIRTUAL_THREADS}, or with the
+   * {@link VirtualThreads} annotation of the resource, and if virtual threads
+   * are supported by the JDK. As the request is suspended while the resource
+   * runs, the resource is serviced on the request thread if the request does
+   * not support asynchronous processing, which is logged once.
+   *
+   * @param manifest The {@link ResourceManifest}.
+   * @param asyncSupported Whether the request supports asynchronous
+   *          processing.
+   * @return The {@link ExecutorService} on which the specified resource is to
+   *         be serviced, or {@code null} if it is to be serviced on the request
+   *         thread.
+   */
+  ExecutorService getServiceExecutor(final ResourceManifest manifest, final boolean asyncSupported) {
+    final VirtualThreads annotation = manifest.getVirtualThreads();
+    if (!(annotation != null ? annotation.value() : virtualThreads))
+      return null;
+
+    if (asyncSupported)
+      return VirtualThreadExecutor.get();
+
+    if (!asyncUnsupportedLogged) {
+      asyncUnsupportedLogged = true;
+      logger.warn("Resource methods of " + application.getClass().getName() + " are run on the request thread instead of virtual threads, because the servlet does not support asynchronous processing");
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the {@link BufferPool} in which the response entities of this
+   * context are buffered, as configured with
+   * {@link ServerProperties#BUFFER_SEGMENT_SIZE} and
+   * {@link ServerProperties#BUFFER_POOL_MAX_RETAINED}.
+   *
+   * @return The {@link BufferPool} in which the response entities of this
+   *         context are buffered.
+   */
+  public BufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  /**
+   * Returns the {@link Sse} of this context, which is injected into
+   * {@link javax.ws.rs.core.Context} members of type {@link Sse}.
+   *
+   * @return The {@link Sse} of this context.
+   */
+  public SseImpl getSse() {
+    return sse;
+  }
+
   public ContainerFilters getContainerFilters() {
     return containerFilters;
   }
@@ -104,36 +271,24 @@ public class ResourceContext {
     return this.writerInterceptors;
   }
 
-  public List<ProviderResource<ParamConverterProvider>> getParamConverterProviders() {
-    return paramConverterProviders;
+  public ParameterConverterCache getParameterConverters() {
+    return parameterConverters;
   }
 
-  ResourceMatch[] filterAndMatch(final ContainerRequestContext containerRequestContext) {
-    List<ResourceManifest> manifests = resources.get(containerRequestContext.getMethod());
-    if (manifests == null) {
+  ResourceMatch[] filterAndMatch(final ContainerRequestContextImpl containerRequestContext) {
+    ResourceRouter router = routers.get(containerRequestContext.getMethod());
+    if (router == null) {
       if (HttpMethod.HEAD.equals(containerRequestContext.getMethod())) {
-        manifests = resources.get(HttpMethod.GET);
+        router = routers.get(HttpMethod.GET);
       }
       else if (HttpMethod.OPTIONS.equals(containerRequestContext.getMethod())) {
         final String path = containerRequestContext.getUriInfo().getPath();
         final StringBuilder allowMethods = new StringBuilder();
-        boolean allowContentType = false;
-        boolean allowAccept = false;
-        for (final List<ResourceManifest> resources : resources.values()) {
-          for (final ResourceManifest resource : resources) {
-            if (!allowContentType) {
-              final ResourceAnnotationProcessor<Consumes> resourceAnnotationProcessor = resource.getResourceAnnotationProcessor(Consumes.class);
-              allowContentType = resourceAnnotationProcessor.getMediaTypes() != null;
-            }
-
-            if (!allowAccept) {
-              final ResourceAnnotationProcessor<Produces> resourceAnnotationProcessor = resource.getResourceAnnotationProcessor(Produces.class);
-              allowAccept = resourceAnnotationProcessor.getMediaTypes() != null;
-            }
-
-            if (resource.getPathPattern().matches(path))
-              allowMethods.append(resource.getHttpMethod()).append(',');
-          }
+        for (final ResourceRouter methodRouter : routers.values()) {
+          final ResourceManifest[] manifests = methodRouter.route(path);
+          if (manifests != null)
+            for (final ResourceManifest manifest : manifests)
+              allowMethods.append(manifest.getHttpMethod()).append(',');
         }
 
         if (allowMethods.length() > 0)
@@ -143,38 +298,67 @@ public class ResourceContext {
         final Response.ResponseBuilder response = Response.ok();
         response.header(HttpHeaders.ALLOW, methods);
         response.header("Access-Control-Allow-Methods", methods);
-
-        final String allow;
-        if (allowAccept && allowContentType)
-          allow = HttpHeaders.ACCEPT + "," + HttpHeaders.CONTENT_TYPE;
-        else if (allowAccept)
-          allow = HttpHeaders.ACCEPT;
-        else if (allowContentType)
-          allow = HttpHeaders.CONTENT_TYPE;
-        else
-          allow = null;
-
-        if (allow != null)
-          response.header("Access-Control-Allow-Headers", allow);
+        if (allowHeaders != null)
+          response.header("Access-Control-Allow-Headers", allowHeaders);
 
         containerRequestContext.abortWith(response.build());
       }
     }
 
-    return manifests == null ? null : filterAndMatch(containerRequestContext, manifests.iterator(), 0);
-  }
+    if (router == null)
+      return null;
+
+    final String path = containerRequestContext.getUriInfo().getPath();
+    if (matchCache == null) {
+      final ResourceManifest[] manifests = router.route(path);
+      return manifests == null ? null : negotiate(containerRequestContext, manifests);
+    }
+
+    final String method = containerRequestContext.getMethod();
+    final String accept = getHeaderString(containerRequestContext, HttpHeaders.ACCEPT);
+    final String contentType = getHeaderString(containerRequestContext, HttpHeaders.CONTENT_TYPE);
+    final ResourceMatchCache.Key pathKey = new ResourceMatchCache.Key(method, path, null, accept, contentType);
+    ResourceMatch[] matches = matchCache.get(pathKey);
+    if (matches != null)
+      return matches;
+
+    final ResourceManifest[] manifests = router.route(path);
+    if (manifests == null) {
+      matchCache.miss();
+      return null;
+    }
+
+    boolean hasParameters = false;
+    for (int i = 0; i < manifests.length && !hasParameters; ++i)
+      hasParameters = manifests[i].getPathPattern().hasParameters();
 
-  private static ResourceMatch[] filterAndMatch(final ContainerRequestContext containerRequestContext, final Iterator<? extends ResourceManifest> manifests, final int depth) {
-    if (!manifests.hasNext())
-      return depth == 0 ? null : new ResourceMatch[depth];
+    // Paths of templates with parameters are keyed by the routed manifests, so that each template is cached once
+    final ResourceMatchCache.Key key = hasParameters ? new ResourceMatchCache.Key(method, null, manifests, accept, contentType) : pathKey;
+    if (hasParameters && (matches = matchCache.get(key)) != null)
+      return matches;
 
-    final ResourceManifest manifest = manifests.next();
-    final MediaType accept = manifest.getCompatibleAccept(containerRequestContext);
-    if (accept == null)
-      return filterAndMatch(containerRequestContext, manifests, depth);
+    matchCache.miss();
+    matches = negotiate(containerRequestContext, manifests);
+    if (matches != null)
+      matchCache.put(key, matches);
 
-    final ResourceMatch[] matches = filterAndMatch(containerRequestContext, manifests, depth + 1);
-    matches[depth] = new ResourceMatch(manifest, accept);
     return matches;
   }
-}
\ No newline at end of file
+
+  private static String getHeaderString(final ContainerRequestContext containerRequestContext, final String name) {
+    final List<String> values = containerRequestContext.getHeaders().get(name);
+    return values == null || values.size() == 0 ? null : values.size() == 1 ? values.get(0) : String.join(",", values);
+  }
+
+  private static ResourceMatch[] negotiate(final ContainerRequestContextImpl containerRequestContext, final ResourceManifest[] manifests) {
+    final ResourceMatch[] matches = new ResourceMatch[manifests.length];
+    int size = 0;
+    for (final ResourceManifest manifest : manifests) {
+      final MediaType accept = manifest.getCompatibleAccept(containerRequestContext);
+      if (accept != null)
+        matches[size++] = new ResourceMatch(manifest, accept);
+    }
+
+    return size == 0 ? null : size == matches.length ? matches : Arrays.copyOf(matches, size);
+  }
+}
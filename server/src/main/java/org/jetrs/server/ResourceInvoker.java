@@ -0,0 +1,132 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invoker of a resource method through a {@link MethodHandle} that is adapted
+ * at init time to the shape {@code (Object,Object[])Object}, with the unboxing
+ * of parameters and the boxing of the return value built into the handle.
+ * <p>
+ * The invoker has the same contract as {@link Method#invoke(Object,Object...)}:
+ * exceptions thrown by the resource method are wrapped in an
+ * {@link InvocationTargetException}. Invocations with arguments that would
+ * require a reflective conversion (or be rejected with an
+ * {@link IllegalArgumentException}), as well as methods that are not
+ * accessible to a {@link MethodHandles.Lookup}, are delegated to
+ * {@link Method#invoke(Object,Object...)}.
+ */
+final class ResourceInvoker {
+  private static final Logger logger = LoggerFactory.getLogger(ResourceInvoker.class);
+  private static final Object[] EMPTY_ARRAY = {};
+
+  private static MethodHandle getMethodHandle(final Method method) {
+    try {
+      MethodHandle methodHandle = MethodHandles.lookup().unreflect(method).asFixedArity();
+      if (Modifier.isStatic(method.getModifiers()))
+        methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+
+      final int parameterCount = method.getParameterCount();
+      return methodHandle.asType(MethodType.genericMethodType(parameterCount + 1)).asSpreader(Object[].class, parameterCount);
+    }
+    catch (final IllegalAccessException e) {
+      if (logger.isDebugEnabled())
+        logger.debug("Invoking " + method + " with reflection: " + e.getMessage());
+
+      return null;
+    }
+  }
+
+  private final Method method;
+  private final Class<?> declaringClass;
+  private final Class<?>[] parameterTypes;
+  private final boolean[] primitives;
+  private final MethodHandle methodHandle;
+
+  ResourceInvoker(final Method method) {
+    this.method = method;
+    this.declaringClass = Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass();
+    final Class<?>[] parameterTypes = method.getParameterTypes();
+    this.parameterTypes = new Class<?>[parameterTypes.length];
+    this.primitives = new boolean[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; ++i) {
+      this.primitives[i] = parameterTypes[i].isPrimitive();
+      this.parameterTypes[i] = primitives[i] ? MethodType.methodType(parameterTypes[i]).wrap().returnType() : parameterTypes[i];
+    }
+
+    this.methodHandle = getMethodHandle(method);
+  }
+
+  /**
+   * Returns whether the specified instance and arguments can be passed to the
+   * {@link MethodHandle} as-is, i.e. whether the instance is of the declaring
+   * class, and each argument is either an instance of its parameter type (or
+   * its wrapper type), or {@code null} for a non-primitive parameter type.
+   */
+  private boolean isExact(final Object instance, final Object[] args) {
+    if (declaringClass != null && !declaringClass.isInstance(instance))
+      return false;
+
+    final int length = args == null ? 0 : args.length;
+    if (length != parameterTypes.length)
+      return false;
+
+    for (int i = 0; i < length; ++i) {
+      final Object arg = args[i];
+      if (arg == null ? primitives[i] : !parameterTypes[i].isInstance(arg))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Invokes the resource method on the specified instance with the provided
+   * arguments.
+   *
+   * @param instance The resource instance.
+   * @param args The arguments, or {@code null} if the method has no
+   *          parameters.
+   * @return The value returned by the resource method, or {@code null} if the
+   *         method is {@code void}.
+   * @throws IllegalAccessException If the method is not accessible.
+   * @throws IllegalArgumentException If the instance or arguments are not
+   *           compatible with the method.
+   * @throws InvocationTargetException If the method throws an exception.
+   */
+  Object invoke(final Object instance, final Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (methodHandle == null || !isExact(instance, args))
+      return args != null ? method.invoke(instance, args) : method.invoke(instance);
+
+    final Object[] arguments = args != null ? args : EMPTY_ARRAY;
+    try {
+      return (Object)methodHandle.invokeExact(instance, arguments);
+    }
+    catch (final Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+}
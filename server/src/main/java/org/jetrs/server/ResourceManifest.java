@@ -20,9 +20,9 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import javax.annotation.security.DenyAll;
 import javax.annotation.security.PermitAll;
@@ -34,17 +34,13 @@ import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.Produces;
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.container.ContainerRequestContext;
-import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.ext.MessageBodyReader;
-import javax.ws.rs.ext.ParamConverterProvider;
-import javax.ws.rs.ext.Providers;
 
-import org.jetrs.common.ProviderResource;
 import org.jetrs.common.core.AnnotationInjector;
+import org.jetrs.common.core.ConstructorPlan;
 import org.jetrs.common.util.MediaTypes;
+import org.jetrs.common.util.ParameterConverterCache;
 import org.jetrs.server.container.ContainerRequestContextImpl;
 import org.libj.lang.Identifiers;
 import org.slf4j.Logger;
@@ -80,22 +76,47 @@ public class ResourceManifest {
   private final HttpMethod httpMethod;
   private final Annotation securityAnnotation;
   private final Method method;
+  private final ResourceInvoker invoker;
   private final Object singleton;
   private final Class<?> serviceClass;
   private final PathPattern pathPattern;
   private final ResourceAnnotationProcessor<Consumes> consumesMatcher;
   private final ResourceAnnotationProcessor<Produces> producesMatcher;
+  private final VirtualThreads virtualThreads;
+  private final Type completionStageType;
+  private volatile ParameterBinder[] parameterBinders;
 
   ResourceManifest(final HttpMethod httpMethod, final Method method, final Object singleton) {
     this.httpMethod = httpMethod;
     final Annotation securityAnnotation = findSecurityAnnotation(method);
     this.securityAnnotation = securityAnnotation != null ? securityAnnotation : permitAll;
     this.method = method;
+    this.invoker = new ResourceInvoker(method);
     this.singleton = singleton;
     this.serviceClass = singleton != null ? singleton.getClass() : method.getDeclaringClass();
+    // Resolve the constructor of the resource class at init, so that unsuitable constructors are reported at startup
+    if (singleton == null)
+      ConstructorPlan.forResource(serviceClass);
+
     this.pathPattern = new PathPattern(method);
     this.consumesMatcher = new ResourceAnnotationProcessor<>(method, Consumes.class);
     this.producesMatcher = new ResourceAnnotationProcessor<>(method, Produces.class);
+    this.virtualThreads = ResourceAnnotationProcessor.getMethodClassAnnotation(VirtualThreads.class, method);
+    this.completionStageType = getCompletionStageType(method);
+  }
+
+  private static Type getCompletionStageType(final Method method) {
+    if (!CompletionStage.class.isAssignableFrom(method.getReturnType()))
+      return null;
+
+    final Type returnType = method.getGenericReturnType();
+    if (returnType instanceof ParameterizedType) {
+      final Type[] typeArguments = ((ParameterizedType)returnType).getActualTypeArguments();
+      if (typeArguments.length == 1 && (typeArguments[0] instanceof Class || typeArguments[0] instanceof ParameterizedType))
+        return typeArguments[0];
+    }
+
+    return Object.class;
   }
 
   Object getSingleton() {
@@ -106,6 +127,17 @@ public class ResourceManifest {
     return this.serviceClass;
   }
 
+  /**
+   * Returns the {@link VirtualThreads} annotation of the resource method, or
+   * of its class, or {@code null} if neither is annotated.
+   *
+   * @return The {@link VirtualThreads} annotation of the resource method, or
+   *         of its class, or {@code null} if neither is annotated.
+   */
+  VirtualThreads getVirtualThreads() {
+    return this.virtualThreads;
+  }
+
   Annotation[] getMethodAnnotations() {
     return method.getAnnotations();
   }
@@ -118,57 +150,65 @@ public class ResourceManifest {
     return method.getGenericReturnType();
   }
 
-  MediaType getCompatibleAccept(final ContainerRequestContext containerRequestContext) {
-    if (!httpMethod.value().toUpperCase().equals(containerRequestContext.getMethod()))
-      return null;
-
-    final String path = containerRequestContext.getUriInfo().getPath();
-    if (!pathPattern.matches(path))
-      return null;
+  /**
+   * Returns the type of the value of the {@link CompletionStage} returned by
+   * the resource method, or {@code null} if the resource method does not
+   * return a {@link CompletionStage}.
+   *
+   * @return The type of the value of the {@link CompletionStage} returned by
+   *         the resource method, or {@code null} if the resource method does
+   *         not return a {@link CompletionStage}.
+   */
+  Type getCompletionStageType() {
+    return completionStageType;
+  }
 
-    final MediaType[] accept = MediaTypes.parse(containerRequestContext.getHeaders().get(HttpHeaders.ACCEPT));
-    final MediaType acceptedType = producesMatcher.getCompatibleMediaType(accept);
+  /**
+   * Returns the {@link MediaType} negotiated between this manifest's
+   * {@link Produces} and {@link Consumes} annotations and the request's
+   * {@code Accept} and {@code Content-Type} headers, or {@code null} if the
+   * request is not compatible. The HTTP method and path are matched by the
+   * {@link ResourceRouter} beforehand.
+   *
+   * @param containerRequestContext The {@link ContainerRequestContextImpl}.
+   * @return The negotiated {@link MediaType}, or {@code null} if the request is
+   *         not compatible.
+   */
+  MediaType getCompatibleAccept(final ContainerRequestContextImpl containerRequestContext) {
+    final MediaType acceptedType = producesMatcher.getCompatibleMediaType(containerRequestContext.getAcceptMediaTypes());
     if (acceptedType == null)
       return null;
 
-    final MediaType[] contentType = MediaTypes.parse(containerRequestContext.getHeaders().get(HttpHeaders.CONTENT_TYPE));
-    if (consumesMatcher.getCompatibleMediaType(contentType) == null)
+    if (consumesMatcher.getCompatibleMediaType(containerRequestContext.getContentMediaTypes()) == null)
       return null;
 
     return acceptedType;
   }
 
-  @SuppressWarnings("rawtypes")
-  private static Object[] getParameters(final Method method, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final List<ProviderResource<ParamConverterProvider>> paramConverterProviders) throws IOException {
-    final Parameter[] parameters = method.getParameters();
-    final Type[] genericParameterTypes = method.getGenericParameterTypes();
-    final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-    if (parameters.length == 0)
+  /**
+   * Resolves the {@link ParameterBinder}s for the parameters of the resource
+   * method of this manifest, if they have not been resolved already.
+   *
+   * @param parameterConverters The {@link ParameterConverterCache} of the
+   *          application.
+   * @return The {@link ParameterBinder}s for the parameters of the resource
+   *         method of this manifest.
+   */
+  ParameterBinder[] initParameterBinders(final ParameterConverterCache parameterConverters) {
+    return parameterBinders != null ? parameterBinders : (parameterBinders = ParameterBinder.newBinders(method, parameterConverters));
+  }
+
+  private Object[] getParameters(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final ParameterConverterCache parameterConverters) throws IOException {
+    final ParameterBinder[] parameterBinders = initParameterBinders(parameterConverters);
+    if (parameterBinders.length == 0)
       return null;
 
-    final Object[] parameterInstances = new Object[parameters.length];
-    for (int i = 0; i < parameters.length; ++i) {
-      final Parameter parameter = parameters[i];
-      final Type genericParameterType = genericParameterTypes[i];
-      final Annotation[] annotations = parameterAnnotations[i];
-      final Annotation paramAnnotation = AnnotationInjector.getInjectableAnnotation(parameter, annotations);
-      if (paramAnnotation == null) {
-        final Providers providers = annotationInjector.getContextObject(Providers.class);
-        final MessageBodyReader messageBodyReader = providers.getMessageBodyReader(parameter.getType(), genericParameterType, annotations, containerRequestContext.getMediaType());
-        if (messageBodyReader == null)
-          throw new WebApplicationException("Could not find MessageBodyReader for type: " + parameter.getType().getName());
-
-        // FIXME: Why is there a return type for ReaderInterceptorContext#proceed()? And it's of type Object. What type is ReaderInterceptorContext supposed to return? It should be InputStream, but then it makes it redundant.
-        containerRequestContext.setType(parameter.getType());
-        containerRequestContext.setGenericType(parameter.getType().getGenericSuperclass());
-        containerRequestContext.setAnnotations(parameter.getAnnotations());
-        parameterInstances[i] = containerRequestContext.readBody(messageBodyReader);
-      }
-      else {
-        parameterInstances[i] = annotationInjector.getParamObject(paramAnnotation, parameter.getType(), annotations, genericParameterType, paramConverterProviders);
-        if (parameterInstances[i] instanceof Exception)
-          throw new BadRequestException((Exception)parameterInstances[i]);
-      }
+    final Object[] parameterInstances = new Object[parameterBinders.length];
+    for (int i = 0; i < parameterBinders.length; ++i) {
+      final ParameterBinder parameterBinder = parameterBinders[i];
+      parameterInstances[i] = parameterBinder.bind(executionContext, containerRequestContext, annotationInjector);
+      if (!parameterBinder.isEntity() && parameterInstances[i] instanceof Exception)
+        throw new BadRequestException((Exception)parameterInstances[i]);
     }
 
     return parameterInstances;
@@ -233,7 +273,7 @@ public class ResourceManifest {
     throw new NotAuthorizedException(challenges);
   }
 
-  Object service(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final List<ProviderResource<ParamConverterProvider>> paramConverterProviders) throws IOException, ServletException {
+  Object service(final ExecutionContext executionContext, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final ParameterConverterCache parameterConverters) throws IOException, ServletException {
     if (executionContext.getMatchedResources() == null)
       throw new IllegalStateException("service() called before filterAndMatch()");
 
@@ -246,8 +286,8 @@ public class ResourceManifest {
     allow(securityAnnotation, containerRequestContext);
 
     try {
-      final Object[] parameters = getParameters(method, containerRequestContext, annotationInjector, paramConverterProviders);
-      return parameters != null ? method.invoke(serviceResource, parameters) : method.invoke(serviceResource);
+      final Object[] parameters = getParameters(executionContext, containerRequestContext, annotationInjector, parameterConverters);
+      return invoker.invoke(serviceResource, parameters);
     }
     catch (final IllegalAccessException e) {
       throw new ServletException(e);
@@ -0,0 +1,235 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, concurrent, LRU-evicting cache of {@link ResourceMatch} arrays
+ * resolved by {@link ResourceContext#filterAndMatch}. Entries are keyed by the
+ * HTTP method, the {@code Accept} and {@code Content-Type} headers, and either:
+ * <ul>
+ * <li>the request path, if none of the matched templates declares path
+ * parameters, or</li>
+ * <li>the matched {@link ResourceManifest}s, if a matched template declares
+ * path parameters, whereby the cache is not flooded by the distinct paths of a
+ * single template.</li>
+ * </ul>
+ * The cache is divided into segments that are locked independently, each
+ * evicting its least recently used entry when full.
+ */
+public final class ResourceMatchCache {
+  static final class Key {
+    private final String method;
+    private final String path;
+    private final ResourceManifest[] manifests;
+    private final String accept;
+    private final String contentType;
+    private final int hashCode;
+
+    Key(final String method, final String path, final ResourceManifest[] manifests, final String accept, final String contentType) {
+      this.method = method;
+      this.path = path;
+      this.manifests = manifests;
+      this.accept = accept;
+      this.contentType = contentType;
+
+      int hashCode = method.hashCode();
+      hashCode = 31 * hashCode + Objects.hashCode(path);
+      if (manifests != null)
+        for (final ResourceManifest manifest : manifests)
+          hashCode = 31 * hashCode + System.identityHashCode(manifest);
+
+      hashCode = 31 * hashCode + Objects.hashCode(accept);
+      hashCode = 31 * hashCode + Objects.hashCode(contentType);
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      if (hashCode != that.hashCode || !method.equals(that.method) || !Objects.equals(path, that.path) || !Objects.equals(accept, that.accept) || !Objects.equals(contentType, that.contentType))
+        return false;
+
+      if (manifests == null || that.manifests == null)
+        return manifests == that.manifests;
+
+      if (manifests.length != that.manifests.length)
+        return false;
+
+      for (int i = 0; i < manifests.length; ++i)
+        if (manifests[i] != that.manifests[i])
+          return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final class Segment extends LinkedHashMap<Key,ResourceMatch[]> {
+    private static final long serialVersionUID = -2848021395766530913L;
+
+    private final int capacity;
+
+    private Segment(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key,ResourceMatch[]> eldest) {
+      if (size() <= capacity)
+        return false;
+
+      evictions.increment();
+      return true;
+    }
+  }
+
+  private final int maxSize;
+  private final Segment[] segments;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  ResourceMatchCache(final int maxSize) {
+    if (maxSize <= 0)
+      throw new IllegalArgumentException("maxSize (" + maxSize + ") must be positive");
+
+    this.maxSize = maxSize;
+    int count = 1;
+    while (count < 16 && count * 2 <= maxSize / 16)
+      count *= 2;
+
+    this.segments = new Segment[count];
+    final int capacity = (maxSize + count - 1) / count;
+    for (int i = 0; i < count; ++i)
+      segments[i] = new Segment(capacity);
+  }
+
+  private Segment segment(final Key key) {
+    final int hash = key.hashCode ^ (key.hashCode >>> 16);
+    return segments[hash & (segments.length - 1)];
+  }
+
+  /**
+   * Returns the {@link ResourceMatch} array mapped to the specified key, or
+   * {@code null} if no mapping exists. A mapping that exists is counted as a
+   * hit.
+   *
+   * @param key The key.
+   * @return The {@link ResourceMatch} array mapped to the specified key, or
+   *         {@code null} if no mapping exists.
+   */
+  ResourceMatch[] get(final Key key) {
+    final Segment segment = segment(key);
+    final ResourceMatch[] matches;
+    synchronized (segment) {
+      matches = segment.get(key);
+    }
+
+    if (matches != null)
+      hits.increment();
+
+    return matches;
+  }
+
+  /**
+   * Counts a miss, to be called when a request could not be served from this
+   * cache.
+   */
+  void miss() {
+    misses.increment();
+  }
+
+  void put(final Key key, final ResourceMatch[] matches) {
+    final Segment segment = segment(key);
+    synchronized (segment) {
+      segment.put(key, matches);
+    }
+  }
+
+  /**
+   * Returns the maximum number of entries in this cache.
+   *
+   * @return The maximum number of entries in this cache.
+   */
+  public int getMaxSize() {
+    return this.maxSize;
+  }
+
+  /**
+   * Returns the number of entries in this cache.
+   *
+   * @return The number of entries in this cache.
+   */
+  public int size() {
+    int size = 0;
+    for (final Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+
+    return size;
+  }
+
+  /**
+   * Returns the number of lookups that were served from this cache.
+   *
+   * @return The number of lookups that were served from this cache.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that were not served from this cache.
+   *
+   * @return The number of lookups that were not served from this cache.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of entries that were evicted from this cache.
+   *
+   * @return The number of entries that were evicted from this cache.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "{size: " + size() + ", maxSize: " + maxSize + ", hits: " + getHitCount() + ", misses: " + getMissCount() + ", evictions: " + getEvictionCount() + "}";
+  }
+}
@@ -0,0 +1,181 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Router of request paths to the {@link ResourceManifest}s of a single HTTP
+ * method. The {@link PathPattern} templates of the manifests are compiled into a
+ * trie of path segments, whereby literal segments and "{name}" parameter
+ * segments are matched without regex. Only the templates with a "{name: regex}"
+ * expression (or a segment mixing literal text and expressions) are matched
+ * with {@link PathPattern#matches(String)}, and only once the trie has matched
+ * the segments preceding the expression.
+ */
+final class ResourceRouter {
+  private static final class Node {
+    private String[] keys;
+    private Node[] children;
+    private int size;
+    private Node parameter;
+    private int[] terminals;
+    private int[] regexes;
+
+    private static int hash(final String path, final int start, final int end) {
+      int hash = 0;
+      for (int i = start; i < end; ++i)
+        hash = 31 * hash + path.charAt(i);
+
+      return hash ^ (hash >>> 16);
+    }
+
+    private static int[] append(final int[] array, final int value) {
+      if (array == null)
+        return new int[] {value};
+
+      final int[] copy = Arrays.copyOf(array, array.length + 1);
+      copy[array.length] = value;
+      return copy;
+    }
+
+    private Node getChild(final String path, final int start, final int end) {
+      if (keys == null)
+        return null;
+
+      final int len = end - start;
+      final int mask = keys.length - 1;
+      for (int i = hash(path, start, end) & mask; keys[i] != null; i = (i + 1) & mask)
+        if (keys[i].length() == len && path.regionMatches(start, keys[i], 0, len))
+          return children[i];
+
+      return null;
+    }
+
+    private Node addChild(final String segment) {
+      Node child = getChild(segment, 0, segment.length());
+      if (child != null)
+        return child;
+
+      if (keys == null || (size + 1) * 2 > keys.length) {
+        final String[] keys = this.keys;
+        final Node[] children = this.children;
+        this.keys = new String[keys == null ? 4 : keys.length * 2];
+        this.children = new Node[this.keys.length];
+        if (keys != null)
+          for (int i = 0; i < keys.length; ++i)
+            if (keys[i] != null)
+              put(keys[i], children[i]);
+      }
+
+      put(segment, child = new Node());
+      ++size;
+      return child;
+    }
+
+    private void put(final String key, final Node child) {
+      final int mask = keys.length - 1;
+      int i = hash(key, 0, key.length()) & mask;
+      while (keys[i] != null)
+        i = (i + 1) & mask;
+
+      keys[i] = key;
+      children[i] = child;
+    }
+  }
+
+  private final ResourceManifest[] manifests;
+  private final Node root = new Node();
+
+  ResourceRouter(final List<ResourceManifest> manifests) {
+    this.manifests = manifests.toArray(new ResourceManifest[manifests.size()]);
+    for (int i = 0; i < this.manifests.length; ++i) {
+      final PathPattern pathPattern = this.manifests[i].getPathPattern();
+      Node node = root;
+      for (int j = 0; j < pathPattern.getSegmentCount(); ++j) {
+        final String segment = pathPattern.getSegment(j);
+        if (segment != null)
+          node = node.addChild(segment);
+        else if (node.parameter != null)
+          node = node.parameter;
+        else
+          node = node.parameter = new Node();
+      }
+
+      if (pathPattern.hasRegexTail())
+        node.regexes = Node.append(node.regexes, i);
+      else
+        node.terminals = Node.append(node.terminals, i);
+    }
+  }
+
+  /**
+   * Returns the {@link ResourceManifest}s with a {@link PathPattern} that
+   * matches the specified path, in the order in which they were registered, or
+   * {@code null} if no manifest matches.
+   *
+   * @param path The decoded request path.
+   * @return The {@link ResourceManifest}s with a {@link PathPattern} that
+   *         matches the specified path, or {@code null} if no manifest matches.
+   */
+  ResourceManifest[] route(final String path) {
+    if (path.length() == 0 || path.charAt(0) != '/')
+      return null;
+
+    final BitSet matches = new BitSet(manifests.length);
+    route(root, path, 1, matches);
+    final int size = matches.cardinality();
+    if (size == 0)
+      return null;
+
+    final ResourceManifest[] routed = new ResourceManifest[size];
+    for (int i = matches.nextSetBit(0), j = 0; i >= 0; i = matches.nextSetBit(i + 1))
+      routed[j++] = manifests[i];
+
+    return routed;
+  }
+
+  private void route(final Node node, final String path, final int start, final BitSet matches) {
+    if (node.regexes != null)
+      for (final int index : node.regexes)
+        if (manifests[index].getPathPattern().matches(path))
+          matches.set(index);
+
+    final int len = path.length();
+    if (start > len) {
+      if (node.terminals != null)
+        for (final int index : node.terminals)
+          matches.set(index);
+
+      return;
+    }
+
+    int end = path.indexOf('/', start);
+    if (end < 0)
+      end = len;
+
+    final Node child = node.getChild(path, start, end);
+    if (child != null)
+      route(child, path, end + 1, matches);
+
+    // A "{name}" parameter does not match an empty segment
+    if (node.parameter != null && end > start)
+      route(node.parameter, path, end + 1, matches);
+  }
+}
@@ -18,7 +18,11 @@ package org.jetrs.server;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
 import javax.servlet.annotation.WebInitParam;
@@ -30,6 +34,7 @@ import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ServiceUnavailableException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Application;
@@ -42,10 +47,14 @@ import org.jetrs.common.core.HttpHeadersImpl;
 import org.jetrs.common.core.RequestImpl;
 import org.jetrs.server.container.ContainerRequestContextImpl;
 import org.jetrs.server.container.ContainerResponseContextImpl;
+import org.jetrs.server.sse.SseEventSinkImpl;
 import org.libj.lang.Classes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 abstract class RestApplicationServlet extends RestHttpServlet {
   private static final long serialVersionUID = 3700080355780006441L;
+  private static final Logger logger = LoggerFactory.getLogger(RestApplicationServlet.class);
 
   private static String getApplicationClassName(final WebServlet webServlet) {
     final WebInitParam[] webInitParams = webServlet.initParams();
@@ -59,11 +68,12 @@ abstract class RestApplicationServlet extends RestHttpServlet {
   private static AnnotationInjector createAnnotationInjector(final ContainerRequestContext containerRequestContext, final HttpServletRequest httpServletRequest, final HttpServletResponse httpServletResponse, final HttpHeaders headers, final ResourceContext resourceContext) {
     final AnnotationInjector annotationInjector = new AnnotationInjector(containerRequestContext, new RequestImpl(httpServletRequest.getMethod()), httpServletRequest, httpServletResponse, headers, resourceContext.getConfiguration(), resourceContext.getApplication());
     annotationInjector.setProviders(resourceContext.getProviders(annotationInjector));
+    annotationInjector.setSse(resourceContext.getSse());
     return annotationInjector;
   }
 
   private static void service(final ResourceContext resourceContext, final HttpServletRequestContext httpServletRequestContext, final HttpServletResponse httpServletResponse) throws IOException {
-    final ContainerResponseContextImpl containerResponseContext = new ContainerResponseContextImpl(httpServletResponse, resourceContext.getWriterInterceptors());
+    final ContainerResponseContextImpl containerResponseContext = new ContainerResponseContextImpl(httpServletResponse, resourceContext.getWriterInterceptors(), resourceContext.getBufferPool());
     final HttpHeaders requestHeaders = new HttpHeadersImpl(httpServletRequestContext);
     final ExecutionContext executionContext = new ExecutionContext(requestHeaders, httpServletResponse, containerResponseContext, resourceContext);
 
@@ -73,6 +83,7 @@ abstract class RestApplicationServlet extends RestHttpServlet {
     final AnnotationInjector annotationInjector = createAnnotationInjector(containerRequestContext, httpServletRequestContext, httpServletResponse, requestHeaders, resourceContext);
     final Providers providers = resourceContext.getProviders(annotationInjector);
     ResourceMatch resource = null;
+    boolean suspended = false;
     try {
       // (1) Filter Request (Pre-Match)
       executionContext.filterPreMatchContainerRequest(containerRequestContext, annotationInjector);
@@ -87,9 +98,54 @@ abstract class RestApplicationServlet extends RestHttpServlet {
       // (3) Filter Request
       executionContext.filterContainerRequest(containerRequestContext, annotationInjector);
 
+      final ExecutorService executor = resourceContext.getServiceExecutor(resource.getManifest(), httpServletRequestContext.isAsyncSupported());
+      if (executor != null) {
+        // The resource method is run on a virtual thread, and the request thread is returned to the container
+        final AsyncContext asyncContext = startAsync(httpServletRequestContext);
+        final ResourceMatch match = resource;
+        executor.execute(() -> service(executionContext, match, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext));
+        suspended = true;
+        return;
+      }
+
       // (4a) Service
       executionContext.service(resource, containerRequestContext, annotationInjector);
 
+      final SseEventSinkImpl sseEventSink = executionContext.getSseEventSink();
+      if (sseEventSink != null) {
+        commitEventStream(executionContext, resource, containerRequestContext, annotationInjector, providers);
+        suspended = true;
+        if (httpServletRequestContext.isAsyncSupported())
+          sseEventSink.start(startAsync(httpServletRequestContext));
+        else
+          sseEventSink.run();
+
+        return;
+      }
+
+      final AsyncResponseImpl asyncResponse = executionContext.getAsyncResponse();
+      if (asyncResponse != null) {
+        if (httpServletRequestContext.isAsyncSupported()) {
+          // The response is written by the thread that resumes the AsyncResponse, and the request thread is returned to the container
+          final AsyncContext asyncContext = startAsync(httpServletRequestContext);
+          final ResourceMatch match = resource;
+          suspend(asyncResponse, asyncContext, () -> complete(executionContext, match, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext, null));
+          suspended = true;
+          return;
+        }
+
+        // The container does not support asynchronous processing, so the request thread waits for the AsyncResponse
+        try {
+          asyncResponse.await();
+        }
+        catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new ServiceUnavailableException();
+        }
+
+        executionContext.resume(resource);
+      }
+
       // (5a) Filter Response
       executionContext.filterContainerResponse(containerRequestContext, annotationInjector);
 
@@ -97,37 +153,208 @@ abstract class RestApplicationServlet extends RestHttpServlet {
       executionContext.writeResponse(resource, containerRequestContext, providers);
     }
     catch (final IOException | RuntimeException | ServletException e) {
-      final WebApplicationException e1 = e instanceof WebApplicationException ? (WebApplicationException)e : new InternalServerErrorException(e instanceof ServletException && e.getCause() != null ? e.getCause() : e);
-      final Response response;
-      try {
-        // (4b) Error
-        response = executionContext.error(providers, e1);
+      error(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, e);
+    }
+    finally {
+      // (7) Commit Response
+      if (!suspended)
+        executionContext.commitResponse();
+    }
+  }
 
-        // (5b) Filter Response
-        executionContext.filterContainerResponse(containerRequestContext, annotationInjector);
+  private static AsyncContext startAsync(final HttpServletRequestContext httpServletRequestContext) {
+    final AsyncContext asyncContext = httpServletRequestContext.startAsync();
+    // The request is not timed out by the container, but by AsyncResponse#setTimeout(long,TimeUnit)
+    asyncContext.setTimeout(0);
+    return asyncContext;
+  }
+
+  /**
+   * Suspends the specified {@link AsyncResponseImpl} with the specified
+   * dispatcher, and registers an {@link AsyncListener} with which the response
+   * is cancelled if the connection fails, or timed out if the container times
+   * out the request, while it is suspended.
+   */
+  private static void suspend(final AsyncResponseImpl asyncResponse, final AsyncContext asyncContext, final Runnable dispatcher) {
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onStartAsync(final AsyncEvent event) {
+      }
+
+      @Override
+      public void onComplete(final AsyncEvent event) {
+      }
+
+      @Override
+      public void onTimeout(final AsyncEvent event) {
+        asyncResponse.onTimeout();
+      }
+
+      @Override
+      public void onError(final AsyncEvent event) {
+        asyncResponse.disconnect();
+      }
+    });
+
+    asyncResponse.suspend(dispatcher);
+  }
+
+  private static void service(final ExecutionContext executionContext, final ResourceMatch resource, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final Providers providers, final HttpServletResponse httpServletResponse, final AsyncContext asyncContext) {
+    try {
+      // (4a) Service
+      executionContext.service(resource, containerRequestContext, annotationInjector);
+    }
+    catch (final IOException | RuntimeException | ServletException e) {
+      complete(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext, e);
+      return;
+    }
+    catch (final Throwable t) {
+      abort(executionContext, httpServletResponse, asyncContext, t);
+      return;
+    }
 
-        // (6b) Write Response
-        executionContext.writeResponse(resource, containerRequestContext, providers);
+    final SseEventSinkImpl sseEventSink = executionContext.getSseEventSink();
+    if (sseEventSink != null) {
+      try {
+        commitEventStream(executionContext, resource, containerRequestContext, annotationInjector, providers);
+        sseEventSink.start(asyncContext);
       }
-      catch (final WebApplicationException e2) {
-        e2.addSuppressed(e1);
-        throw e2;
+      catch (final IOException | RuntimeException e) {
+        complete(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext, e);
       }
-      catch (final IOException | RuntimeException e2) {
+      catch (final Throwable t) {
+        abort(executionContext, httpServletResponse, asyncContext, t);
+      }
+
+      return;
+    }
+
+    final AsyncResponseImpl asyncResponse = executionContext.getAsyncResponse();
+    if (asyncResponse != null)
+      suspend(asyncResponse, asyncContext, () -> complete(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext, null));
+    else
+      complete(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, asyncContext, null);
+  }
+
+  /**
+   * Aborts a request that is processed on a virtual thread with the specified
+   * {@link Throwable} that cannot be mapped to a response, such as an
+   * {@link Error}. The request thread has already been returned to the
+   * container, so the response is failed with {@code 500 Internal Server Error}
+   * here, and the {@link AsyncContext} is completed, so that the connection is
+   * not left open.
+   */
+  private static void abort(final ExecutionContext executionContext, final HttpServletResponse httpServletResponse, final AsyncContext asyncContext, final Throwable t) {
+    logger.error("Error processing asynchronous request", t);
+    try {
+      if (!httpServletResponse.isCommitted())
         httpServletResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        e2.addSuppressed(e1);
-        throw e2;
+    }
+    catch (final IOException | RuntimeException e) {
+      t.addSuppressed(e);
+    }
+    finally {
+      // (7) Commit Response
+      executionContext.commitResponse(asyncContext, t);
+    }
+  }
+
+  /**
+   * Filters, writes and commits the header of the event stream of an
+   * {@link javax.ws.rs.sse.SseEventSink}, before its events are written.
+   */
+  private static void commitEventStream(final ExecutionContext executionContext, final ResourceMatch resource, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final Providers providers) throws IOException {
+    // (5a) Filter Response
+    executionContext.filterContainerResponse(containerRequestContext, annotationInjector);
+
+    // (6a) Write Response
+    executionContext.writeResponse(resource, containerRequestContext, providers);
+
+    // (7) Commit Response
+    executionContext.commitResponse();
+  }
+
+  private static void complete(final ExecutionContext executionContext, final ResourceMatch resource, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final Providers providers, final HttpServletResponse httpServletResponse, final AsyncContext asyncContext, final Exception serviceException) {
+    Throwable throwable = null;
+    try {
+      Exception exception = serviceException;
+      if (exception == null) {
+        try {
+          if (executionContext.getAsyncResponse() != null)
+            executionContext.resume(resource);
+
+          // (5a) Filter Response
+          executionContext.filterContainerResponse(containerRequestContext, annotationInjector);
+
+          // (6a) Write Response
+          executionContext.writeResponse(resource, containerRequestContext, providers);
+        }
+        catch (final IOException | RuntimeException e) {
+          exception = e;
+        }
       }
 
-      if (response.getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR)
-        throw e1;
+      if (exception != null) {
+        // A server error that is mapped to a response is not a failure to write the response, so the response is completed without it
+        final WebApplicationException serverError = writeError(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, exception);
+        if (serverError != null)
+          logger.warn("Server error of asynchronous request", serverError);
+      }
+    }
+    catch (final Throwable t) {
+      logger.error("Error writing response of asynchronous request", t);
+      throwable = t;
     }
     finally {
       // (7) Commit Response
-      executionContext.commitResponse();
+      executionContext.commitResponse(asyncContext, throwable);
     }
   }
 
+  private static void error(final ExecutionContext executionContext, final ResourceMatch resource, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final Providers providers, final HttpServletResponse httpServletResponse, final Exception e) throws IOException {
+    final WebApplicationException serverError = writeError(executionContext, resource, containerRequestContext, annotationInjector, providers, httpServletResponse, e);
+    if (serverError != null)
+      throw serverError;
+  }
+
+  /**
+   * Maps the specified {@link Exception} to a response, and filters and writes
+   * the response.
+   *
+   * @return The {@link WebApplicationException} of the specified
+   *         {@link Exception} if it is mapped to a response of a server error,
+   *         or {@code null} otherwise.
+   * @throws IOException If an I/O error has occurred while writing the
+   *           response.
+   * @throws RuntimeException If the response could not be filtered or
+   *           written.
+   */
+  private static WebApplicationException writeError(final ExecutionContext executionContext, final ResourceMatch resource, final ContainerRequestContextImpl containerRequestContext, final AnnotationInjector annotationInjector, final Providers providers, final HttpServletResponse httpServletResponse, final Exception e) throws IOException {
+    final WebApplicationException e1 = e instanceof WebApplicationException ? (WebApplicationException)e : new InternalServerErrorException(e instanceof ServletException && e.getCause() != null ? e.getCause() : e);
+    final Response response;
+    try {
+      // (4b) Error
+      response = executionContext.error(providers, e1);
+
+      // (5b) Filter Response
+      executionContext.filterContainerResponse(containerRequestContext, annotationInjector);
+
+      // (6b) Write Response
+      executionContext.writeResponse(resource, containerRequestContext, providers);
+    }
+    catch (final WebApplicationException e2) {
+      e2.addSuppressed(e1);
+      throw e2;
+    }
+    catch (final IOException | RuntimeException e2) {
+      httpServletResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+      e2.addSuppressed(e1);
+      throw e2;
+    }
+
+    return response.getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR ? e1 : null;
+  }
+
   RestApplicationServlet(final Application application) {
     super(application);
     final Class<?> applicationClass;
@@ -0,0 +1,170 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.ws.rs.core.Application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Names of the properties that configure the server, as specified in
+ * {@link Application#getProperties()}.
+ */
+public final class ServerProperties {
+  private static final Logger logger = LoggerFactory.getLogger(ServerProperties.class);
+
+  /**
+   * The maximum number of entries in the route match cache of the
+   * {@link ResourceContext}, or {@code 0} to disable the cache. Default:
+   * {@code 1024}.
+   */
+  public static final String MATCH_CACHE_SIZE = "org.jetrs.server.MATCH_CACHE_SIZE";
+
+  /**
+   * Whether the entity of a response is streamed to the
+   * {@link javax.servlet.http.HttpServletResponse} as it is written, instead of
+   * being buffered in full before the response is committed. In streaming
+   * mode, the headers are written before the first byte of the entity, and
+   * {@code Content-Length} is set only for entities smaller than the
+   * {@code org.jetrs.AUTO_CONTENT_LENGTH_THRESHOLD} system property, leaving
+   * larger entities to the chunked transfer encoding of the container.
+   * Default: {@code false}.
+   */
+  public static final String STREAM_RESPONSE = "org.jetrs.server.STREAM_RESPONSE";
+
+  /**
+   * Whether the endpoints created by {@link EndpointFactory} support
+   * asynchronous processing. With asynchronous processing, the request of a
+   * resource method with a {@link javax.ws.rs.container.Suspended} parameter
+   * is suspended when the method returns, so that the request thread is
+   * returned to the container, and a buffered entity is written with
+   * non-blocking I/O once the {@link javax.ws.rs.container.AsyncResponse} is
+   * resumed. The same applies to resource methods that return a
+   * {@link java.util.concurrent.CompletionStage}. Without it, the request
+   * thread waits for the {@link javax.ws.rs.container.AsyncResponse} to be
+   * resumed. Default: {@code false}, or {@code true} if resource methods are
+   * run on virtual threads (see {@link #VIRTUAL_THREADS}).
+   */
+  public static final String ASYNC_SUPPORTED = "org.jetrs.server.ASYNC_SUPPORTED";
+
+  /**
+   * The number of milliseconds after which the response of a resource method
+   * with a {@link javax.ws.rs.container.Suspended} parameter, or that returns a
+   * {@link java.util.concurrent.CompletionStage}, times out if it has not been
+   * resumed, or {@code 0} for no timeout. A timed out response is handled by
+   * the {@link javax.ws.rs.container.TimeoutHandler} of its
+   * {@link javax.ws.rs.container.AsyncResponse}, or is resumed with
+   * {@link javax.ws.rs.ServiceUnavailableException}. The timeout can be
+   * changed for a single response with
+   * {@link javax.ws.rs.container.AsyncResponse#setTimeout(long,java.util.concurrent.TimeUnit)}.
+   * Default: {@code 0}.
+   */
+  public static final String ASYNC_TIMEOUT = "org.jetrs.server.ASYNC_TIMEOUT";
+
+  /**
+   * Whether resource methods are run on a virtual thread per request, so that
+   * blocking resource methods do not occupy the threads of the container. The
+   * request is suspended while the resource method runs, so this enables
+   * asynchronous processing for the application unless {@link #ASYNC_SUPPORTED}
+   * is explicitly {@code false}, as does a {@link VirtualThreads} annotation
+   * with a value of {@code true}. The property is overridden by the
+   * {@link VirtualThreads} annotation of a resource class or method, and has
+   * no effect on JDKs without virtual threads. Default: {@code false}.
+   */
+  public static final String VIRTUAL_THREADS = "org.jetrs.server.VIRTUAL_THREADS";
+
+  /**
+   * The size in bytes of the segments of the {@link org.jetrs.common.util.BufferPool}
+   * in which response entities are buffered. Default: {@code 8192}.
+   */
+  public static final String BUFFER_SEGMENT_SIZE = "org.jetrs.server.BUFFER_SEGMENT_SIZE";
+
+  /**
+   * The maximum number of segments that are retained by the
+   * {@link org.jetrs.common.util.BufferPool} in which response entities are
+   * buffered, or {@code 0} to disable the retention of segments. Default:
+   * {@code 1024}.
+   */
+  public static final String BUFFER_POOL_MAX_RETAINED = "org.jetrs.server.BUFFER_POOL_MAX_RETAINED";
+
+  /**
+   * The maximum number of events that are queued for a
+   * {@link javax.ws.rs.sse.SseEventSink} that does not read them as fast as
+   * they are sent. Default: {@code 256}.
+   */
+  public static final String SSE_QUEUE_SIZE = "org.jetrs.server.SSE_QUEUE_SIZE";
+
+  /**
+   * The {@link org.jetrs.server.sse.OverflowPolicy} with which an event is
+   * handled when the queue of a {@link javax.ws.rs.sse.SseEventSink} is full,
+   * as the name of the policy. Default: {@code DROP_OLDEST}.
+   */
+  public static final String SSE_OVERFLOW_POLICY = "org.jetrs.server.SSE_OVERFLOW_POLICY";
+
+  static <E extends Enum<E>>E getEnum(final Application application, final String name, final E defaultValue) {
+    final Map<String,Object> properties = application == null ? null : application.getProperties();
+    final Object value = properties == null ? null : properties.get(name);
+    if (defaultValue.getDeclaringClass().isInstance(value))
+      return defaultValue.getDeclaringClass().cast(value);
+
+    if (value == null)
+      return defaultValue;
+
+    final E[] constants = defaultValue.getDeclaringClass().getEnumConstants();
+    if (value instanceof String)
+      for (final E constant : constants)
+        if (constant.name().equalsIgnoreCase(((String)value).trim()))
+          return constant;
+
+    logger.warn("Value of " + name + " is not one of " + Arrays.toString(constants) + ", so the default of " + defaultValue + " is used: " + value);
+    return defaultValue;
+  }
+
+  static boolean getBoolean(final Application application, final String name, final boolean defaultValue) {
+    final Map<String,Object> properties = application == null ? null : application.getProperties();
+    final Object value = properties == null ? null : properties.get(name);
+    if (value instanceof Boolean)
+      return (Boolean)value;
+
+    return value instanceof String ? Boolean.parseBoolean((String)value) : defaultValue;
+  }
+
+  static int getInt(final Application application, final String name, final int defaultValue) {
+    final Map<String,Object> properties = application == null ? null : application.getProperties();
+    final Object value = properties == null ? null : properties.get(name);
+    if (value instanceof Number)
+      return ((Number)value).intValue();
+
+    if (!(value instanceof String))
+      return defaultValue;
+
+    try {
+      return Integer.parseInt(((String)value).trim());
+    }
+    catch (final NumberFormatException e) {
+      logger.warn("Value of " + name + " is not an integer, so the default of " + defaultValue + " is used: " + value);
+      return defaultValue;
+    }
+  }
+
+  private ServerProperties() {
+  }
+}
@@ -0,0 +1,70 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holder of the virtual-thread-per-task {@link ExecutorService} that runs
+ * resource methods with {@link ServerProperties#VIRTUAL_THREADS}. The executor
+ * is created reflectively with {@code Executors.newVirtualThreadPerTaskExecutor()}
+ * the first time it is requested, so that the server still runs on JDKs
+ * without virtual threads, on which {@link #get()} returns {@code null} and
+ * resource methods are run on the request thread.
+ */
+final class VirtualThreadExecutor {
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+  private static final ExecutorService executor;
+
+  static {
+    ExecutorService virtualThreadExecutor;
+    try {
+      virtualThreadExecutor = (ExecutorService)MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class)).invoke();
+    }
+    catch (final NoSuchMethodException | IllegalAccessException e) {
+      logger.warn("Virtual threads are not supported by Java " + System.getProperty("java.version") + ", so resource methods are run on the request thread");
+      virtualThreadExecutor = null;
+    }
+    catch (final Throwable t) {
+      // Virtual threads are a preview feature that is not enabled on Java 19 and 20
+      logger.warn("Virtual threads are not available, so resource methods are run on the request thread: " + t);
+      virtualThreadExecutor = null;
+    }
+
+    executor = virtualThreadExecutor;
+  }
+
+  /**
+   * Returns the virtual-thread-per-task {@link ExecutorService}, or
+   * {@code null} if virtual threads are not supported by the JDK.
+   *
+   * @return The virtual-thread-per-task {@link ExecutorService}, or
+   *         {@code null} if virtual threads are not supported by the JDK.
+   */
+  static ExecutorService get() {
+    return executor;
+  }
+
+  private VirtualThreadExecutor() {
+  }
+}
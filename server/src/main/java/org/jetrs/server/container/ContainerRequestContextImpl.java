@@ -23,6 +23,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.InternalServerErrorException;
@@ -40,11 +41,22 @@ import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.ReaderInterceptor;
 import javax.ws.rs.ext.ReaderInterceptorContext;
 
+import org.jetrs.common.util.MediaTypes;
 import org.jetrs.server.ExecutionContext;
 import org.jetrs.server.core.DefaultSecurityContext;
 import org.jetrs.server.core.UriInfoImpl;
 
 public class ContainerRequestContextImpl extends InterceptorContextImpl implements ContainerRequestContext, ReaderInterceptorContext {
+  private static final class MediaTypeHeader {
+    private final String value;
+    private final MediaType[] mediaTypes;
+
+    private MediaTypeHeader(final String value, final MediaType[] mediaTypes) {
+      this.value = value;
+      this.mediaTypes = mediaTypes;
+    }
+  }
+
   private static Locale getAcceptableLanguage(final HttpHeaders requestHeaders) {
     final List<Locale> list = requestHeaders.getAcceptableLanguages();
     return list == null || list.size() == 0 ? null : list.get(0);
@@ -59,6 +71,8 @@ public class ContainerRequestContextImpl extends InterceptorContextImpl implemen
   private final List<MediaType> accept;
   private final List<Locale> acceptLanguages;
   private InputStream entityStream;
+  private MediaTypeHeader acceptHeader;
+  private MediaTypeHeader contentTypeHeader;
 
   public ContainerRequestContextImpl(final HttpServletRequest httpServletRequest, final ContainerResponseContextImpl containerResponseContext, final ExecutionContext executionContext, final ReaderInterceptor[] readerInterceptors) {
     super(getAcceptableLanguage(executionContext.getRequestHeaders()), containerResponseContext.properties);
@@ -123,6 +137,40 @@ public class ContainerRequestContextImpl extends InterceptorContextImpl implemen
     return accept;
   }
 
+  private MediaTypeHeader getMediaTypeHeader(final String name, final MediaTypeHeader header) {
+    final List<String> values = headers.getRequestHeaders().get(name);
+    final String value = values == null ? null : values.size() == 0 ? "" : values.size() == 1 ? values.get(0) : String.join(",", values);
+    return header != null && Objects.equals(header.value, value) ? header : new MediaTypeHeader(value, MediaTypes.parse(values));
+  }
+
+  /**
+   * Returns the {@link MediaType}s of the {@code Accept} header sorted on the
+   * "q" parameter in descending order, or {@code null} if the header is absent.
+   * The header is parsed once, and again only if its value is changed. The
+   * returned array must not be modified.
+   *
+   * @return The {@link MediaType}s of the {@code Accept} header sorted on the
+   *         "q" parameter in descending order, or {@code null} if the header is
+   *         absent.
+   */
+  public MediaType[] getAcceptMediaTypes() {
+    return (acceptHeader = getMediaTypeHeader(HttpHeaders.ACCEPT, acceptHeader)).mediaTypes;
+  }
+
+  /**
+   * Returns the {@link MediaType}s of the {@code Content-Type} header sorted on
+   * the "q" parameter in descending order, or {@code null} if the header is
+   * absent. The header is parsed once, and again only if its value is changed.
+   * The returned array must not be modified.
+   *
+   * @return The {@link MediaType}s of the {@code Content-Type} header sorted on
+   *         the "q" parameter in descending order, or {@code null} if the header
+   *         is absent.
+   */
+  public MediaType[] getContentMediaTypes() {
+    return (contentTypeHeader = getMediaTypeHeader(HttpHeaders.CONTENT_TYPE, contentTypeHeader)).mediaTypes;
+  }
+
   @Override
   public List<Locale> getAcceptableLanguages() {
     return acceptLanguages;
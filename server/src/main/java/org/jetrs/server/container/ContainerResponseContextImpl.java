@@ -42,10 +42,12 @@ import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
 import org.jetrs.common.core.HttpHeadersImpl;
+import org.jetrs.common.util.BufferPool;
 import org.jetrs.common.util.ProviderUtil;
 
 public class ContainerResponseContextImpl extends InterceptorContextImpl implements ContainerResponseContext, WriterInterceptorContext {
   private final WriterInterceptor[] writerInterceptors;
+  private final BufferPool bufferPool;
   private final HttpHeadersImpl headers;
   private Response.StatusType status;
 
@@ -55,10 +57,11 @@ public class ContainerResponseContextImpl extends InterceptorContextImpl impleme
   private Class<?> type;
   private Type genericType;
 
-  public ContainerResponseContextImpl(final HttpServletResponse response, final WriterInterceptor[] writerInterceptors) {
+  public ContainerResponseContextImpl(final HttpServletResponse response, final WriterInterceptor[] writerInterceptors, final BufferPool bufferPool) {
     super(response.getLocale(), new HashMap<>());
     this.headers = new HttpHeadersImpl(response);
     this.writerInterceptors = writerInterceptors;
+    this.bufferPool = bufferPool;
     this.status = Response.Status.fromStatusCode(response.getStatus());
   }
 
@@ -215,7 +218,7 @@ public class ContainerResponseContextImpl extends InterceptorContextImpl impleme
   @SuppressWarnings("unchecked")
   public void proceed() throws IOException {
     if (writerInterceptors == null || ++interceptorIndex == writerInterceptors.length) {
-      ProviderUtil.writeTo(messageBodyWriter, getEntity(), getEntityClass(), getEntityType(), getEntityAnnotations(), getMediaType(), getHeaders(), getEntityStream());
+      ProviderUtil.writeTo(bufferPool, messageBodyWriter, getEntity(), getEntityClass(), getEntityType(), getEntityAnnotations(), getMediaType(), getHeaders(), getEntityStream());
       getEntityStream().close();
     }
     else if (interceptorIndex < writerInterceptors.length) {
@@ -0,0 +1,269 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.core;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Unmodifiable {@link MultivaluedMap} view of the parameters in a query string,
+ * backed by the offsets of the keys and values that are indexed in a single
+ * pass over the query string. The values of a parameter are extracted, and
+ * decoded if requested, only when the parameter is first accessed. The
+ * {@link #entrySet()} materializes all parameters.
+ */
+final class QueryParameters extends AbstractMap<String,List<String>> implements MultivaluedMap<String,String> {
+  private static final int[] EMPTY_OFFSETS = {};
+
+  private static boolean isEncoded(final String query, final int start, final int end) {
+    for (int i = start; i < end; ++i) {
+      final char ch = query.charAt(i);
+      if (ch == '%' || ch == '+')
+        return true;
+    }
+
+    return false;
+  }
+
+  private static String decode(final String value) {
+    try {
+      return URLDecoder.decode(value, "UTF-8");
+    }
+    catch (final UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the offsets of the keys and values of the parameters in the
+   * specified query string, as quadruples of the start and end of the key, and
+   * the start and end of the value.
+   */
+  private static int[] index(final String query) {
+    if (query == null || query.length() == 0)
+      return EMPTY_OFFSETS;
+
+    int[] offsets = new int[16];
+    int size = 0;
+    final int len = query.length();
+    for (int start = 0; start <= len;) {
+      int end = query.indexOf('&', start);
+      if (end == -1)
+        end = len;
+
+      if (start != end) {
+        if (size == offsets.length) {
+          final int[] copy = new int[size * 2];
+          System.arraycopy(offsets, 0, copy, 0, size);
+          offsets = copy;
+        }
+
+        int equals = query.indexOf('=', start);
+        if (equals == -1 || equals > end)
+          equals = end;
+
+        offsets[size++] = start;
+        offsets[size++] = equals;
+        offsets[size++] = equals == end ? end : equals + 1;
+        offsets[size++] = end;
+      }
+
+      start = end + 1;
+    }
+
+    if (size == offsets.length)
+      return offsets;
+
+    final int[] copy = new int[size];
+    System.arraycopy(offsets, 0, copy, 0, size);
+    return copy;
+  }
+
+  private final String query;
+  private final boolean decode;
+  private final int[] offsets;
+  private Map<String,List<String>> values;
+  private Map<String,List<String>> parameters;
+
+  QueryParameters(final String query, final boolean decode) {
+    this.query = query;
+    this.decode = decode;
+    this.offsets = index(query);
+  }
+
+  private String getKey(final int index) {
+    final int start = offsets[index];
+    final int end = offsets[index + 1];
+    final String key = query.substring(start, end);
+    return decode && isEncoded(query, start, end) ? decode(key) : key;
+  }
+
+  private String getValue(final int index) {
+    final int start = offsets[index + 2];
+    final int end = offsets[index + 3];
+    final String value = query.substring(start, end);
+    return decode && isEncoded(query, start, end) ? decode(value) : value;
+  }
+
+  private boolean keyEquals(final int index, final String name) {
+    final int start = offsets[index];
+    final int end = offsets[index + 1];
+    if (decode && isEncoded(query, start, end))
+      return name.equals(getKey(index));
+
+    return end - start == name.length() && query.regionMatches(start, name, 0, end - start);
+  }
+
+  /**
+   * Returns all parameters of the query string, which are materialized with
+   * the first call to this method.
+   *
+   * @return All parameters of the query string.
+   */
+  private Map<String,List<String>> getParameters() {
+    if (parameters != null)
+      return parameters;
+
+    final Map<String,List<String>> parameters = new LinkedHashMap<>();
+    for (int i = 0; i < offsets.length; i += 4) {
+      final String key = getKey(i);
+      List<String> values = parameters.get(key);
+      if (values == null)
+        parameters.put(key, values = new ArrayList<>(1));
+
+      values.add(getValue(i));
+    }
+
+    for (final Map.Entry<String,List<String>> entry : parameters.entrySet())
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+
+    return this.parameters = Collections.unmodifiableMap(parameters);
+  }
+
+  @Override
+  public int size() {
+    return getParameters().size();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    if (parameters != null)
+      return parameters.containsKey(key);
+
+    if (!(key instanceof String))
+      return false;
+
+    for (int i = 0; i < offsets.length; i += 4)
+      if (keyEquals(i, (String)key))
+        return true;
+
+    return false;
+  }
+
+  @Override
+  public List<String> get(final Object key) {
+    if (parameters != null)
+      return parameters.get(key);
+
+    if (!(key instanceof String))
+      return null;
+
+    if (values != null && values.containsKey(key))
+      return values.get(key);
+
+    List<String> list = null;
+    for (int i = 0; i < offsets.length; i += 4) {
+      if (keyEquals(i, (String)key)) {
+        if (list == null)
+          list = new ArrayList<>(1);
+
+        list.add(getValue(i));
+      }
+    }
+
+    if (values == null)
+      values = new HashMap<>();
+
+    final List<String> unmodifiable = list == null ? null : Collections.unmodifiableList(list);
+    values.put((String)key, unmodifiable);
+    return unmodifiable;
+  }
+
+  @Override
+  public String getFirst(final String key) {
+    final List<String> values = get(key);
+    return values == null || values.size() == 0 ? null : values.get(0);
+  }
+
+  @Override
+  public Set<Entry<String,List<String>>> entrySet() {
+    return getParameters().entrySet();
+  }
+
+  @Override
+  public void putSingle(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addAll(final String key, final String ... newValues) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addAll(final String key, final List<String> valueList) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addFirst(final String key, final String value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean equalsIgnoreValueOrder(final MultivaluedMap<String,String> otherMap) {
+    if (otherMap == this)
+      return true;
+
+    if (otherMap == null || otherMap.size() != size())
+      return false;
+
+    for (final Map.Entry<String,List<String>> entry : getParameters().entrySet()) {
+      final List<String> values = entry.getValue();
+      final List<String> otherValues = otherMap.get(entry.getKey());
+      if (otherValues == null || values.size() != otherValues.size() || !values.containsAll(otherValues) || !otherValues.containsAll(values))
+        return false;
+    }
+
+    return true;
+  }
+}
@@ -20,20 +20,16 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.container.ContainerRequestContext;
-import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.jetrs.server.ExecutionContext;
-import org.jetrs.server.ResourceMatch;
-import org.libj.net.URIComponent;
 import org.libj.net.URLs;
 
 public class UriInfoImpl implements UriInfo {
@@ -150,17 +146,9 @@ public class UriInfoImpl implements UriInfo {
     return getPathParameters(true);
   }
 
-  private MultivaluedMap<String,String> filterPathParameters(final boolean decode) {
-    final ResourceMatch[] resourceMatches = executionContext.filterAndMatch(containerRequestContext);
-    return resourceMatches == null ? null : resourceMatches[0].getManifest().getPathPattern().getParameters(getPath(decode));
-  }
-
-  private MultivaluedMap<String,String> parametersDecoded;
-  private MultivaluedMap<String,String> parametersEncoded;
-
   @Override
   public MultivaluedMap<String,String> getPathParameters(final boolean decode) {
-    return decode ? (parametersDecoded == null ? parametersDecoded = filterPathParameters(decode) : parametersDecoded) : parametersEncoded == null ? parametersEncoded = filterPathParameters(decode) : parametersEncoded;
+    return executionContext.getPathParameters(containerRequestContext, decode);
   }
 
   @Override
@@ -181,17 +169,8 @@ public class UriInfoImpl implements UriInfo {
       return queryParametersEncoded;
     }
 
-    final MultivaluedMap<String,String> parameters = new MultivaluedHashMap<>();
-    if (decode) {
-      for (final Map.Entry<String,String[]> entry : httpServletRequest.getParameterMap().entrySet())
-        for (final String value : entry.getValue())
-          parameters.add(entry.getKey(), URIComponent.decode(value));
-    }
-    else {
-      for (final Map.Entry<String,String[]> entry : httpServletRequest.getParameterMap().entrySet())
-        parameters.addAll(entry.getKey(), entry.getValue());
-    }
-
+    // The query string is parsed directly, because HttpServletRequest#getParameterMap() also includes form parameters, and forces the container to read the body
+    final MultivaluedMap<String,String> parameters = new QueryParameters(httpServletRequest.getQueryString(), decode);
     return decode ? queryParametersDecoded = parameters : (queryParametersEncoded = parameters);
   }
 
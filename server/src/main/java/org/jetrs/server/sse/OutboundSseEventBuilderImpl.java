@@ -0,0 +1,109 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEvent;
+
+class OutboundSseEventBuilderImpl implements OutboundSseEvent.Builder {
+  private String id;
+  private String name;
+  private String comment;
+  private long reconnectDelay = SseEvent.RECONNECT_NOT_SET;
+  private Class<?> type;
+  private Type genericType;
+  private MediaType mediaType = MediaType.TEXT_PLAIN_TYPE;
+  private Object data;
+
+  @Override
+  public OutboundSseEvent.Builder id(final String id) {
+    this.id = id;
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder name(final String name) {
+    this.name = name;
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder reconnectDelay(final long milliseconds) {
+    this.reconnectDelay = milliseconds < 0 ? SseEvent.RECONNECT_NOT_SET : milliseconds;
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder mediaType(final MediaType mediaType) {
+    this.mediaType = Objects.requireNonNull(mediaType);
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder comment(final String comment) {
+    this.comment = comment;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public OutboundSseEvent.Builder data(final Class type, final Object data) {
+    this.type = Objects.requireNonNull(type);
+    this.genericType = type;
+    this.data = Objects.requireNonNull(data);
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public OutboundSseEvent.Builder data(final GenericType type, final Object data) {
+    this.type = type.getRawType();
+    this.genericType = type.getType();
+    this.data = Objects.requireNonNull(data);
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder data(final Object data) {
+    if (data instanceof GenericEntity) {
+      final GenericEntity<?> entity = (GenericEntity<?>)data;
+      this.type = entity.getRawType();
+      this.genericType = entity.getType();
+      this.data = entity.getEntity();
+    }
+    else {
+      this.type = data.getClass();
+      this.genericType = type;
+      this.data = data;
+    }
+
+    return this;
+  }
+
+  @Override
+  public OutboundSseEvent build() {
+    if (comment == null && data == null)
+      throw new IllegalStateException("Event must have a comment or data");
+
+    return new OutboundSseEventImpl(id, name, comment, reconnectDelay, type, genericType, mediaType, data);
+  }
+}
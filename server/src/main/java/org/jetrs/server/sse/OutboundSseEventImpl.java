@@ -0,0 +1,88 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+
+class OutboundSseEventImpl implements OutboundSseEvent {
+  private final String id;
+  private final String name;
+  private final String comment;
+  private final long reconnectDelay;
+  private final Class<?> type;
+  private final Type genericType;
+  private final MediaType mediaType;
+  private final Object data;
+
+  OutboundSseEventImpl(final String id, final String name, final String comment, final long reconnectDelay, final Class<?> type, final Type genericType, final MediaType mediaType, final Object data) {
+    this.id = id;
+    this.name = name;
+    this.comment = comment;
+    this.reconnectDelay = reconnectDelay;
+    this.type = type;
+    this.genericType = genericType;
+    this.mediaType = mediaType;
+    this.data = data;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getComment() {
+    return comment;
+  }
+
+  @Override
+  public long getReconnectDelay() {
+    return reconnectDelay;
+  }
+
+  @Override
+  public boolean isReconnectDelaySet() {
+    return reconnectDelay != RECONNECT_NOT_SET;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+  @Override
+  public Type getGenericType() {
+    return genericType;
+  }
+
+  @Override
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  @Override
+  public Object getData() {
+    return data;
+  }
+}
@@ -0,0 +1,39 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+/**
+ * Policy with which an event is handled when the queue of events of an
+ * {@link javax.ws.rs.sse.SseEventSink} is full, because the subscriber does not
+ * read the events as fast as they are sent. The {@link java.util.concurrent.CompletionStage}
+ * of a dropped event is cancelled.
+ */
+public enum OverflowPolicy {
+  /**
+   * The new event is dropped.
+   */
+  DROP_NEWEST,
+  /**
+   * The oldest queued event is dropped to make room for the new event.
+   */
+  DROP_OLDEST,
+  /**
+   * The new event replaces the queued event with the same name, so that a
+   * slow subscriber receives the latest value of each named event. If no
+   * queued event has the same name, the oldest queued event is dropped.
+   */
+  COALESCE
+}
@@ -0,0 +1,123 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseBroadcaster;
+import javax.ws.rs.sse.SseEventSink;
+
+/**
+ * {@link SseBroadcaster} that encodes each event once, and queues the encoded
+ * event to the bounded queue of each registered {@link SseEventSinkImpl}, so
+ * that a slow subscriber does not delay the others. The
+ * {@link CompletionStage} of a broadcast is completed once the event has been
+ * written or dropped for every subscriber.
+ */
+class SseBroadcasterImpl implements SseBroadcaster {
+  private final Set<SseEventSinkImpl> sinks = ConcurrentHashMap.newKeySet();
+  private final List<Consumer<SseEventSink>> closeHandlers = new CopyOnWriteArrayList<>();
+  private final List<BiConsumer<SseEventSink,Throwable>> errorHandlers = new CopyOnWriteArrayList<>();
+  private final Providers providers;
+  private volatile boolean closed;
+
+  SseBroadcasterImpl(final Providers providers) {
+    this.providers = providers;
+  }
+
+  @Override
+  public void onError(final BiConsumer<SseEventSink,Throwable> onError) {
+    errorHandlers.add(onError);
+  }
+
+  @Override
+  public void onClose(final Consumer<SseEventSink> onClose) {
+    closeHandlers.add(onClose);
+  }
+
+  @Override
+  public void register(final SseEventSink sseEventSink) {
+    if (closed)
+      throw new IllegalStateException("SseBroadcaster is closed");
+
+    if (!(sseEventSink instanceof SseEventSinkImpl))
+      throw new IllegalArgumentException("Unsupported SseEventSink: " + sseEventSink.getClass().getName());
+
+    final SseEventSinkImpl sink = (SseEventSinkImpl)sseEventSink;
+    if (sinks.add(sink))
+      sink.addCloseListener(() -> {
+        if (sinks.remove(sink))
+          for (final Consumer<SseEventSink> closeHandler : closeHandlers)
+            closeHandler.accept(sink);
+      });
+  }
+
+  @Override
+  public CompletionStage<?> broadcast(final OutboundSseEvent event) {
+    if (closed)
+      throw new IllegalStateException("SseBroadcaster is closed");
+
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    final byte[] bytes;
+    try {
+      bytes = SseEventEncoder.encode(event, providers);
+    }
+    catch (final IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      return future;
+    }
+
+    final SseEventSinkImpl[] sinks = this.sinks.toArray(new SseEventSinkImpl[0]);
+    if (sinks.length == 0) {
+      future.complete(null);
+      return future;
+    }
+
+    final AtomicInteger remaining = new AtomicInteger(sinks.length);
+    for (final SseEventSinkImpl sink : sinks) {
+      sink.send(event.getName(), bytes).whenComplete((v, t) -> {
+        // A dropped event is cancelled, which is not an error of the subscriber
+        if (t != null && !(t instanceof CancellationException))
+          for (final BiConsumer<SseEventSink,Throwable> errorHandler : errorHandlers)
+            errorHandler.accept(sink, t);
+
+        if (remaining.decrementAndGet() == 0)
+          future.complete(null);
+      });
+    }
+
+    return future;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (final SseEventSinkImpl sink : sinks)
+      sink.close();
+  }
+}
@@ -0,0 +1,102 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.OutboundSseEvent;
+
+/**
+ * Encoder of {@link OutboundSseEvent}s in the {@code text/event-stream} format.
+ * An event is encoded once, so that the same bytes are queued to every
+ * subscriber of a broadcast.
+ *
+ * @see <a href="https://html.spec.whatwg.org/multipage/server-sent-events.html#event-stream-interpretation">Event stream interpretation</a>
+ */
+final class SseEventEncoder {
+  private static final Annotation[] EMPTY_ANNOTATIONS = {};
+
+  /**
+   * Returns the bytes of the specified event in the {@code text/event-stream}
+   * format, with its data written by the {@link MessageBodyWriter} for its type
+   * and media type.
+   *
+   * @param event The {@link OutboundSseEvent}.
+   * @param providers The {@link Providers} of the {@link MessageBodyWriter}s.
+   * @return The bytes of the specified event in the {@code text/event-stream}
+   *         format.
+   * @throws WebApplicationException If there is no {@link MessageBodyWriter}
+   *           for the data of the event.
+   * @throws IOException If an I/O error has occurred writing the data.
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static byte[] encode(final OutboundSseEvent event, final Providers providers) throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    if (event.getComment() != null)
+      appendLines(builder, "", event.getComment());
+
+    if (event.getName() != null)
+      appendLines(builder, "event", event.getName());
+
+    if (event.getId() != null)
+      appendLines(builder, "id", event.getId());
+
+    if (event.isReconnectDelaySet())
+      builder.append("retry: ").append(event.getReconnectDelay()).append('\n');
+
+    final Object data = event.getData();
+    if (data != null) {
+      final MessageBodyWriter messageBodyWriter = providers.getMessageBodyWriter(event.getType(), event.getGenericType(), EMPTY_ANNOTATIONS, event.getMediaType());
+      if (messageBodyWriter == null)
+        throw new WebApplicationException("Could not find MessageBodyWriter for type: " + event.getType().getName());
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      messageBodyWriter.writeTo(data, event.getType(), event.getGenericType(), EMPTY_ANNOTATIONS, event.getMediaType(), new MultivaluedHashMap<>(), out);
+      appendLines(builder, "data", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    return builder.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Appends a field with the specified name for each line of the specified
+   * value, as a line break cannot occur in the value of a field. A field with
+   * an empty name is a comment.
+   */
+  private static void appendLines(final StringBuilder builder, final String field, final String value) {
+    for (int i = 0, start = 0, len = value.length(); i <= len; ++i) {
+      final char ch = i < len ? value.charAt(i) : '\n';
+      if (ch != '\n' && ch != '\r')
+        continue;
+
+      builder.append(field).append(": ").append(value, start, i).append('\n');
+      if (ch == '\r' && i + 1 < len && value.charAt(i + 1) == '\n')
+        ++i;
+
+      start = i + 1;
+    }
+  }
+
+  private SseEventEncoder() {
+  }
+}
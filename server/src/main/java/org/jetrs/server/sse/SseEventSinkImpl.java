@@ -0,0 +1,395 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link SseEventSink} that queues encoded events in a bounded queue, and
+ * writes them to the {@link HttpServletResponse} once the sink is started.
+ * <p>
+ * A sink that is started with an {@link AsyncContext} writes its events with
+ * a {@link WriteListener} on whichever thread sends an event or is notified
+ * that the {@link ServletOutputStream} is ready, so an idle subscriber does not
+ * hold a thread. A sink that is started without an {@link AsyncContext} writes
+ * its events on the calling thread until it is closed.
+ * <p>
+ * When the queue is full, events are dropped as specified by the
+ * {@link OverflowPolicy}, and the {@link CompletionStage} of a dropped event
+ * is cancelled.
+ */
+public class SseEventSinkImpl implements SseEventSink {
+  private static final Logger logger = LoggerFactory.getLogger(SseEventSinkImpl.class);
+
+  private static final class Event {
+    private final String name;
+    private final byte[] bytes;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private Event(final String name, final byte[] bytes) {
+      this.name = name;
+      this.bytes = bytes;
+    }
+  }
+
+  private final HttpServletResponse httpServletResponse;
+  private final Providers providers;
+  private final int queueSize;
+  private final OverflowPolicy overflowPolicy;
+  private final ArrayDeque<Event> queue = new ArrayDeque<>();
+  private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+  private AsyncContext asyncContext;
+  private ServletOutputStream out;
+  private boolean listening;
+  private boolean unflushed;
+  private boolean closed;
+  private boolean completed;
+
+  SseEventSinkImpl(final HttpServletResponse httpServletResponse, final Providers providers, final int queueSize, final OverflowPolicy overflowPolicy) {
+    this.httpServletResponse = httpServletResponse;
+    this.providers = providers;
+    this.queueSize = queueSize;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public CompletionStage<?> send(final OutboundSseEvent event) {
+    final byte[] bytes;
+    try {
+      bytes = SseEventEncoder.encode(event, providers);
+    }
+    catch (final IOException | RuntimeException e) {
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+
+    return send(event.getName(), bytes);
+  }
+
+  /**
+   * Queues the specified encoded event, and writes it if the
+   * {@link ServletOutputStream} is ready.
+   *
+   * @param name The name of the event, or {@code null}.
+   * @param bytes The encoded event.
+   * @return The {@link CompletableFuture} that is completed when the event is
+   *         written, or is cancelled if the event is dropped.
+   */
+  CompletableFuture<Void> send(final String name, final byte[] bytes) {
+    final Event event = new Event(name, bytes);
+    final Event dropped;
+    final boolean started;
+    synchronized (this) {
+      if (closed) {
+        event.future.completeExceptionally(new IllegalStateException("SseEventSink is closed"));
+        return event.future;
+      }
+
+      dropped = queue.size() < queueSize ? null : overflow(event);
+      if (dropped != event)
+        queue.add(event);
+
+      started = asyncContext != null;
+      if (!started)
+        notifyAll();
+    }
+
+    if (dropped != null)
+      dropped.future.cancel(false);
+
+    if (started)
+      write();
+
+    return event.future;
+  }
+
+  /**
+   * Removes the event that is dropped from the full queue for the specified
+   * event, as specified by the {@link OverflowPolicy}.
+   *
+   * @param event The event that is to be queued.
+   * @return The event that is dropped, which is the specified event if it is
+   *         not to be queued.
+   */
+  private Event overflow(final Event event) {
+    if (queue.isEmpty() || overflowPolicy == OverflowPolicy.DROP_NEWEST)
+      return event;
+
+    if (overflowPolicy == OverflowPolicy.COALESCE && event.name != null) {
+      for (final Iterator<Event> iterator = queue.iterator(); iterator.hasNext();) {
+        final Event queued = iterator.next();
+        if (event.name.equals(queued.name)) {
+          iterator.remove();
+          return queued;
+        }
+      }
+    }
+
+    return queue.poll();
+  }
+
+  /**
+   * Starts writing the events of this sink with non-blocking I/O to the
+   * {@link ServletOutputStream} of the specified {@link AsyncContext}, which is
+   * completed when the sink is closed.
+   *
+   * @param asyncContext The {@link AsyncContext} of the request.
+   * @throws IOException If an I/O error has occurred.
+   */
+  public void start(final AsyncContext asyncContext) throws IOException {
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onComplete(final AsyncEvent event) {
+        fail(new IOException("Event stream completed by container"));
+      }
+
+      @Override
+      public void onTimeout(final AsyncEvent event) {
+        fail(new IOException("Event stream timed out"));
+      }
+
+      @Override
+      public void onError(final AsyncEvent event) {
+        fail(event.getThrowable());
+      }
+
+      @Override
+      public void onStartAsync(final AsyncEvent event) {
+      }
+    });
+
+    final ServletOutputStream out = httpServletResponse.getOutputStream();
+    synchronized (this) {
+      this.asyncContext = asyncContext;
+      this.out = out;
+    }
+
+    out.setWriteListener(new WriteListener() {
+      @Override
+      public void onWritePossible() {
+        write();
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        fail(t);
+      }
+    });
+
+    // Events that are sent before the WriteListener is installed are only queued, and are drained here
+    synchronized (this) {
+      listening = true;
+    }
+
+    write();
+  }
+
+  /**
+   * Writes the events of this sink to the {@link ServletOutputStream} of the
+   * {@link HttpServletResponse} on the calling thread, until the sink is
+   * closed, or writing fails, for containers that do not support asynchronous
+   * processing.
+   */
+  public void run() {
+    try {
+      final ServletOutputStream out = httpServletResponse.getOutputStream();
+      while (true) {
+        final Event event;
+        final boolean flush;
+        synchronized (this) {
+          while (queue.isEmpty() && !closed)
+            wait();
+
+          event = queue.poll();
+          flush = queue.isEmpty();
+        }
+
+        if (event == null)
+          break;
+
+        out.write(event.bytes);
+        if (flush)
+          out.flush();
+
+        event.future.complete(null);
+      }
+
+      complete();
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(e);
+    }
+    catch (final IOException | RuntimeException e) {
+      fail(e);
+    }
+  }
+
+  /**
+   * Writes the queued events while the {@link ServletOutputStream} is ready.
+   * The events are written while holding the lock of this sink, which is not
+   * contended for long, because the writes do not block. The futures of the
+   * written events are completed after the lock is released.
+   */
+  private void write() {
+    final List<Event> written = new ArrayList<>();
+    Event writing = null;
+    boolean complete = false;
+    try {
+      synchronized (this) {
+        if (!listening || completed)
+          return;
+
+        while (out.isReady()) {
+          writing = queue.poll();
+          if (writing != null) {
+            out.write(writing.bytes);
+            written.add(writing);
+            writing = null;
+            unflushed = true;
+          }
+          else if (unflushed) {
+            unflushed = false;
+            out.flush();
+          }
+          else {
+            complete = closed;
+            break;
+          }
+        }
+      }
+    }
+    catch (final IOException | RuntimeException e) {
+      if (writing != null)
+        writing.future.completeExceptionally(e);
+
+      fail(e);
+    }
+
+    for (final Event event : written)
+      event.future.complete(null);
+
+    if (complete)
+      complete();
+  }
+
+  private void fail(final Throwable t) {
+    final Event[] events;
+    synchronized (this) {
+      if (completed)
+        return;
+
+      closed = true;
+      events = queue.toArray(new Event[queue.size()]);
+      queue.clear();
+      notifyAll();
+    }
+
+    logger.debug("Event stream failed", t);
+    for (final Event event : events)
+      event.future.completeExceptionally(t);
+
+    complete();
+  }
+
+  private void complete() {
+    final AsyncContext asyncContext;
+    synchronized (this) {
+      if (completed)
+        return;
+
+      closed = true;
+      completed = true;
+      asyncContext = this.asyncContext;
+    }
+
+    try {
+      if (asyncContext != null)
+        asyncContext.complete();
+    }
+    catch (final IllegalStateException e) {
+      // The AsyncContext has already been completed by the container
+    }
+
+    // A listener is removed before it is run, so that it runs once if it is added concurrently
+    for (final Runnable closeListener : closeListeners)
+      if (closeListeners.remove(closeListener))
+        closeListener.run();
+  }
+
+  /**
+   * Adds a listener that is run once this sink is closed and its queued events
+   * have been written, or once writing to it has failed.
+   *
+   * @param closeListener The listener.
+   */
+  void addCloseListener(final Runnable closeListener) {
+    closeListeners.add(closeListener);
+    final boolean completed;
+    synchronized (this) {
+      completed = this.completed;
+    }
+
+    if (completed && closeListeners.remove(closeListener))
+      closeListener.run();
+  }
+
+  @Override
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Closes this sink. Events that are queued are written before the response
+   * is completed.
+   */
+  @Override
+  public void close() {
+    final boolean started;
+    synchronized (this) {
+      if (closed)
+        return;
+
+      closed = true;
+      started = out != null;
+      notifyAll();
+    }
+
+    if (started)
+      write();
+  }
+}
@@ -0,0 +1,68 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+package org.jetrs.server.sse;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseBroadcaster;
+
+/**
+ * {@link Sse} of a {@link org.jetrs.server.ResourceContext}, which creates the
+ * {@link SseEventSinkImpl}s of the requests of {@code text/event-stream}
+ * resource methods, with the queue size and {@link OverflowPolicy} of the
+ * application.
+ */
+public class SseImpl implements Sse {
+  /** The default maximum number of events that are queued for a sink. */
+  public static final int DEFAULT_QUEUE_SIZE = 256;
+
+  private final Providers providers;
+  private final int queueSize;
+  private final OverflowPolicy overflowPolicy;
+
+  public SseImpl(final Providers providers, final int queueSize, final OverflowPolicy overflowPolicy) {
+    if (queueSize <= 0)
+      throw new IllegalArgumentException("queueSize (" + queueSize + ") must be positive");
+
+    this.providers = providers;
+    this.queueSize = queueSize;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public OutboundSseEvent.Builder newEventBuilder() {
+    return new OutboundSseEventBuilderImpl();
+  }
+
+  @Override
+  public SseBroadcaster newBroadcaster() {
+    return new SseBroadcasterImpl(providers);
+  }
+
+  /**
+   * Returns a new {@link SseEventSinkImpl} that writes to the specified
+   * {@link HttpServletResponse}.
+   *
+   * @param httpServletResponse The {@link HttpServletResponse}.
+   * @return A new {@link SseEventSinkImpl} that writes to the specified
+   *         {@link HttpServletResponse}.
+   */
+  public SseEventSinkImpl newEventSink(final HttpServletResponse httpServletResponse) {
+    return new SseEventSinkImpl(httpServletResponse, providers, queueSize, overflowPolicy);
+  }
+}
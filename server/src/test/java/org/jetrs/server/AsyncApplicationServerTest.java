@@ -0,0 +1,89 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.jetrs.server.app.AsyncApplicationServer;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class AsyncApplicationServerTest {
+  private static final AsyncApplicationServer server = new AsyncApplicationServer();
+
+  private static HttpURLConnection get(final String path) throws IOException {
+    final URL url = new URL("http://localhost:" + server.getContainerPort() + path);
+    return (HttpURLConnection)url.openConnection();
+  }
+
+  private static String read(final InputStream in) throws IOException {
+    try (final InputStream is = in) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1024];
+      for (int len; (len = is.read(buffer)) != -1;)
+        out.write(buffer, 0, len);
+
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testCompletionStageValue() throws IOException {
+    final HttpURLConnection connection = get("/async/value");
+    assertEquals(200, connection.getResponseCode());
+    assertEquals("value", read(connection.getInputStream()));
+  }
+
+  @Test
+  public void testCompletionStageNull() throws IOException {
+    final HttpURLConnection connection = get("/async/null");
+    assertEquals(204, connection.getResponseCode());
+    assertNull(connection.getHeaderField("Content-Type"));
+  }
+
+  @Test
+  public void testCompletionStageError() throws IOException {
+    // The ClientErrorException is unwrapped from the CompletionException with which the stage completed
+    final HttpURLConnection connection = get("/async/error");
+    assertEquals(409, connection.getResponseCode());
+  }
+
+  @Test
+  public void testCompletionStageServerError() throws IOException {
+    // A server error that is mapped to a response is written as any other response
+    final HttpURLConnection connection = get("/async/server-error");
+    assertEquals(500, connection.getResponseCode());
+  }
+
+  @Test
+  public void testCompletionStageTimeout() throws IOException {
+    final HttpURLConnection connection = get("/async/timeout");
+    assertEquals(503, connection.getResponseCode());
+  }
+
+  @AfterClass
+  public static void afterClass() throws Exception {
+    server.close();
+  }
+}
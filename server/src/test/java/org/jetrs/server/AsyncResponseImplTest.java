@@ -0,0 +1,163 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.ConnectionCallback;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+public class AsyncResponseImplTest {
+  @Test
+  public void testResume() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    assertTrue(asyncResponse.isSuspended());
+    assertTrue(asyncResponse.resume("a"));
+    assertFalse(asyncResponse.resume("b"));
+    assertFalse(asyncResponse.resume(new IllegalStateException()));
+    assertFalse(asyncResponse.cancel());
+    assertFalse(asyncResponse.isSuspended());
+    assertFalse(asyncResponse.isCancelled());
+    assertTrue(asyncResponse.isDone());
+    assertFalse(asyncResponse.setTimeout(1, TimeUnit.SECONDS));
+    assertEquals("a", asyncResponse.getResult());
+  }
+
+  @Test
+  public void testCancel() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    assertTrue(asyncResponse.cancel());
+    assertTrue(asyncResponse.cancel());
+    assertTrue(asyncResponse.cancel(5));
+    assertFalse(asyncResponse.resume("a"));
+    assertTrue(asyncResponse.isCancelled());
+    assertTrue(asyncResponse.isDone());
+    assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), ((Response)asyncResponse.getResult()).getStatus());
+  }
+
+  @Test
+  public void testResumeBeforeSuspend() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    assertTrue(asyncResponse.resume("a"));
+
+    final Thread[] dispatched = new Thread[1];
+    asyncResponse.suspend(() -> dispatched[0] = Thread.currentThread());
+    assertSame(Thread.currentThread(), dispatched[0]);
+    assertEquals("a", asyncResponse.getResult());
+  }
+
+  @Test
+  public void testResumeAfterSuspend() throws InterruptedException {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    final AtomicInteger dispatched = new AtomicInteger();
+    asyncResponse.suspend(dispatched::incrementAndGet);
+    assertEquals(0, dispatched.get());
+
+    final Thread thread = new Thread(() -> asyncResponse.resume("a"));
+    thread.start();
+    asyncResponse.await();
+    thread.join();
+    assertEquals(1, dispatched.get());
+    assertFalse(asyncResponse.resume("b"));
+    assertEquals(1, dispatched.get());
+    assertEquals("a", asyncResponse.getResult());
+  }
+
+  @Test
+  public void testTimeoutHandler() throws InterruptedException {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    asyncResponse.setTimeoutHandler(r -> r.resume("timeout"));
+    assertTrue(asyncResponse.setTimeout(10, TimeUnit.MILLISECONDS));
+    asyncResponse.await();
+    assertEquals("timeout", asyncResponse.getResult());
+    assertFalse(asyncResponse.isCancelled());
+  }
+
+  @Test
+  public void testTimeoutExtended() throws InterruptedException {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    final AtomicInteger timeouts = new AtomicInteger();
+    asyncResponse.setTimeoutHandler(r -> {
+      // The first timeout is extended, and the second expires
+      if (timeouts.incrementAndGet() == 1)
+        r.setTimeout(10, TimeUnit.MILLISECONDS);
+    });
+
+    assertTrue(asyncResponse.setTimeout(10, TimeUnit.MILLISECONDS));
+    asyncResponse.await();
+    assertEquals(2, timeouts.get());
+    assertTrue(asyncResponse.getResult() instanceof ServiceUnavailableException);
+  }
+
+  @Test
+  public void testTimeoutExpiry() throws InterruptedException {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    assertTrue(asyncResponse.setTimeout(10, TimeUnit.MILLISECONDS));
+    asyncResponse.await();
+    assertTrue(asyncResponse.getResult() instanceof ServiceUnavailableException);
+    assertFalse(asyncResponse.resume("a"));
+  }
+
+  @Test
+  public void testTimeoutAfterResume() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    final AtomicInteger timeouts = new AtomicInteger();
+    asyncResponse.setTimeoutHandler(r -> timeouts.incrementAndGet());
+    assertTrue(asyncResponse.resume("a"));
+    asyncResponse.onTimeout();
+    assertEquals(0, timeouts.get());
+    assertEquals("a", asyncResponse.getResult());
+  }
+
+  @Test
+  public void testDisconnect() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    final AtomicInteger disconnects = new AtomicInteger();
+    final ConnectionCallback callback = r -> {
+      assertSame(asyncResponse, r);
+      disconnects.incrementAndGet();
+    };
+
+    assertEquals(Collections.singletonList(ConnectionCallback.class), asyncResponse.register(callback));
+    asyncResponse.disconnect();
+    assertEquals(1, disconnects.get());
+    assertTrue(asyncResponse.isCancelled());
+
+    asyncResponse.disconnect();
+    assertEquals(1, disconnects.get());
+  }
+
+  @Test
+  public void testCompletionCallback() {
+    final AsyncResponseImpl asyncResponse = new AsyncResponseImpl();
+    final Throwable[] completed = new Throwable[1];
+    final IllegalStateException e = new IllegalStateException();
+    assertEquals(Collections.singletonList(CompletionCallback.class), asyncResponse.register((CompletionCallback)t -> completed[0] = t));
+    assertEquals(Collections.emptyList(), asyncResponse.register(new Object()));
+    asyncResponse.resume("a");
+    asyncResponse.onComplete(e);
+    assertSame(e, completed[0]);
+  }
+}
@@ -18,6 +18,10 @@ package org.jetrs.server;
 
 import static org.junit.Assert.*;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 import javax.servlet.annotation.WebServlet;
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.core.Application;
@@ -32,6 +36,33 @@ public class EndpointFactoryTest {
   public static class App extends Application {
   }
 
+  public static class Resource {
+    @VirtualThreads
+    public void get() {
+    }
+  }
+
+  @ApplicationPath("/*")
+  public static class PropertiesApp extends Application {
+    private final Map<String,Object> properties;
+    private final Set<Class<?>> classes;
+
+    PropertiesApp(final Map<String,Object> properties, final Set<Class<?>> classes) {
+      this.properties = properties;
+      this.classes = classes;
+    }
+
+    @Override
+    public Map<String,Object> getProperties() {
+      return properties;
+    }
+
+    @Override
+    public Set<Class<?>> getClasses() {
+      return classes;
+    }
+  }
+
   @Test
   public void testAnnotation() {
     final RestApplicationServlet servlet = EndpointFactory.createEndpoint(new App());
@@ -56,4 +87,16 @@ public class EndpointFactoryTest {
     final RestApplicationServlet servlet2 = EndpointFactory.createEndpoint(new App());
     assertNotEquals(servlet1.getClass(), servlet2.getClass());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testAsyncSupported() {
+    assertFalse(EndpointFactory.isAsyncSupported(new App()));
+    assertTrue(EndpointFactory.isAsyncSupported(new PropertiesApp(Collections.singletonMap(ServerProperties.ASYNC_SUPPORTED, true), Collections.emptySet())));
+    assertTrue(EndpointFactory.isAsyncSupported(new PropertiesApp(Collections.singletonMap(ServerProperties.VIRTUAL_THREADS, "true"), Collections.emptySet())));
+    assertTrue(EndpointFactory.isAsyncSupported(new PropertiesApp(Collections.emptyMap(), Collections.singleton(Resource.class))));
+    assertFalse(EndpointFactory.isAsyncSupported(new PropertiesApp(Collections.singletonMap(ServerProperties.ASYNC_SUPPORTED, false), Collections.singleton(Resource.class))));
+
+    final RestApplicationServlet servlet = EndpointFactory.createEndpoint(new PropertiesApp(Collections.emptyMap(), Collections.singleton(Resource.class)));
+    assertTrue(servlet.getClass().getAnnotation(WebServlet.class).asyncSupported());
+  }
+}
@@ -0,0 +1,72 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.jetrs.common.util.MediaTypes;
+import org.junit.Test;
+
+public class MediaTypeTableTest {
+  private static final String[] types = {"*", "application", "text", "Application"};
+  private static final String[] subtypes = {"*", "json", "xml", "plain", "JSON", "foo+json", "*+json", "foo+*", "json+xml", "a+b+c", "b+c"};
+
+  private static List<MediaType> getMediaTypes() {
+    final List<MediaType> mediaTypes = new ArrayList<>();
+    for (final String type : types)
+      for (final String subtype : subtypes)
+        mediaTypes.add(new MediaType(type, subtype));
+
+    return mediaTypes;
+  }
+
+  private static void assertTable(final List<MediaType> mediaTypes, final MediaType[] declared) {
+    final MediaTypeTable table = new MediaTypeTable(declared);
+    for (final MediaType mediaType : mediaTypes)
+      assertEquals(mediaType.getType() + "/" + mediaType.getSubtype(), MediaTypes.getCompatible(mediaType, declared), table.getCompatible(mediaType));
+  }
+
+  @Test
+  public void testSingle() {
+    final List<MediaType> mediaTypes = getMediaTypes();
+    for (final MediaType declared : mediaTypes)
+      assertTable(mediaTypes, new MediaType[] {declared});
+  }
+
+  @Test
+  public void testPairs() {
+    final List<MediaType> mediaTypes = getMediaTypes();
+    for (final MediaType a : mediaTypes)
+      for (final MediaType b : mediaTypes)
+        assertTable(mediaTypes, new MediaType[] {a, b});
+  }
+
+  @Test
+  public void testOverflow() {
+    final List<MediaType> mediaTypes = getMediaTypes();
+    final List<MediaType> declared = new ArrayList<>();
+    while (declared.size() <= Long.SIZE)
+      declared.addAll(mediaTypes);
+
+    assertTable(mediaTypes, declared.toArray(new MediaType[declared.size()]));
+  }
+}
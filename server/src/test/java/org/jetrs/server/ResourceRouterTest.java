@@ -0,0 +1,137 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+
+import org.junit.Test;
+
+public class ResourceRouterTest {
+  @Path("/foo")
+  public static class TestResource {
+    @GET
+    public String foo() {
+      return null;
+    }
+
+    @GET
+    @Path("bar")
+    public String bar() {
+      return null;
+    }
+
+    @GET
+    @Path("{id}")
+    public String id() {
+      return null;
+    }
+
+    @GET
+    @Path("{id}/bar")
+    public String idBar() {
+      return null;
+    }
+
+    @GET
+    @Path("files/{path:(.+)}")
+    public String files() {
+      return null;
+    }
+
+    @GET
+    @Path("v{version}/x")
+    public String version() {
+      return null;
+    }
+
+    @GET
+    @Path("a.b")
+    public String dot() {
+      return null;
+    }
+  }
+
+  private static final String[] names = {"foo", "bar", "id", "idBar", "files", "version", "dot"};
+  private static final List<ResourceManifest> manifests = new ArrayList<>();
+
+  static {
+    final HttpMethod httpMethod = GET.class.getAnnotation(HttpMethod.class);
+    try {
+      for (final String name : names) {
+        final Method method = TestResource.class.getMethod(name);
+        manifests.add(new ResourceManifest(httpMethod, method, null));
+      }
+    }
+    catch (final NoSuchMethodException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static final ResourceRouter router = new ResourceRouter(manifests);
+
+  private static void assertRoute(final String path, final String ... expected) {
+    final ResourceManifest[] routed = router.route(path);
+    final List<ResourceManifest> matched = new ArrayList<>();
+    for (final ResourceManifest manifest : manifests)
+      if (manifest.getPathPattern().matches(path))
+        matched.add(manifest);
+
+    if (expected.length == 0) {
+      assertNull(path, routed);
+      assertEquals(path, 0, matched.size());
+      return;
+    }
+
+    assertNotNull(path, routed);
+    assertEquals(path, expected.length, routed.length);
+    for (int i = 0; i < expected.length; ++i)
+      assertEquals(path, expected[i], routed[i].getPathPattern().getPattern().toString());
+
+    assertArrayEquals(path, matched.toArray(), routed);
+  }
+
+  @Test
+  public void testLiteral() {
+    assertRoute("/foo", "/foo");
+    assertRoute("/foo/", new String[0]);
+    assertRoute("/bar", new String[0]);
+  }
+
+  @Test
+  public void testParameter() {
+    assertRoute("/foo/bar", "/foo/bar", "/foo/(?<id>[^\\/]+)");
+    assertRoute("/foo/1", "/foo/(?<id>[^\\/]+)");
+    assertRoute("/foo/1/bar", "/foo/(?<id>[^\\/]+)/bar");
+    assertRoute("/foo//bar", new String[0]);
+  }
+
+  @Test
+  public void testRegex() {
+    assertRoute("/foo/files/a/b/c", "/foo/files/(?<path>.+)");
+    assertRoute("/foo/v2/x", "/foo/v(?<version>[^\\/]+)/x");
+    assertRoute("/foo/a.b", "/foo/(?<id>[^\\/]+)", "/foo/a.b");
+    assertRoute("/foo/axb", "/foo/(?<id>[^\\/]+)", "/foo/a.b");
+  }
+}
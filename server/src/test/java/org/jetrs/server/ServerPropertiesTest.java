@@ -0,0 +1,94 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.core.Application;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.jetrs.server.sse.OverflowPolicy;
+import org.jetrs.server.sse.SseImpl;
+import org.junit.Test;
+
+public class ServerPropertiesTest {
+  private static Application newApplication(final String name, final Object value) {
+    return new Application() {
+      @Override
+      public Map<String,Object> getProperties() {
+        return Collections.singletonMap(name, value);
+      }
+    };
+  }
+
+  @Test
+  public void testGetInt() {
+    assertEquals(7, ServerProperties.getInt(null, ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(7, ServerProperties.getInt(new Application(), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(5, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, 5), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(5, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, 5L), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(5, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, "5"), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(-5, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, " -5 "), ServerProperties.MATCH_CACHE_SIZE, 7));
+
+    // Values that are not integers fall back to the default
+    assertEquals(7, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, "8192.5"), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(7, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, "1e3"), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(7, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, "2147483648"), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(7, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, ""), ServerProperties.MATCH_CACHE_SIZE, 7));
+    assertEquals(7, ServerProperties.getInt(newApplication(ServerProperties.MATCH_CACHE_SIZE, true), ServerProperties.MATCH_CACHE_SIZE, 7));
+  }
+
+  @Test
+  public void testGetBoolean() {
+    assertTrue(ServerProperties.getBoolean(new Application(), ServerProperties.STREAM_RESPONSE, true));
+    assertTrue(ServerProperties.getBoolean(newApplication(ServerProperties.STREAM_RESPONSE, "true"), ServerProperties.STREAM_RESPONSE, false));
+    assertFalse(ServerProperties.getBoolean(newApplication(ServerProperties.STREAM_RESPONSE, Boolean.FALSE), ServerProperties.STREAM_RESPONSE, true));
+  }
+
+  @Test
+  public void testGetEnum() {
+    assertEquals(OverflowPolicy.DROP_OLDEST, ServerProperties.getEnum(new Application(), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+    assertEquals(OverflowPolicy.COALESCE, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, "coalesce"), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+    assertEquals(OverflowPolicy.DROP_NEWEST, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_NEWEST), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+    assertEquals(OverflowPolicy.DROP_NEWEST, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, " drop_newest "), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+
+    // Values that are not names of constants fall back to the default, with a warning
+    assertEquals(OverflowPolicy.DROP_OLDEST, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, "unknown"), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+    assertEquals(OverflowPolicy.DROP_OLDEST, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, ""), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+    assertEquals(OverflowPolicy.DROP_OLDEST, ServerProperties.getEnum(newApplication(ServerProperties.SSE_OVERFLOW_POLICY, 1), ServerProperties.SSE_OVERFLOW_POLICY, OverflowPolicy.DROP_OLDEST));
+  }
+
+  @Test
+  public void testSseQueueSize() {
+    // A queue size that is not positive falls back to the default, instead of failing the deployment of the application
+    final SseImpl sse = ResourceContext.newSse(newApplication(ServerProperties.SSE_QUEUE_SIZE, 0), null);
+    final SseEventSink sink = sse.newEventSink(null);
+    final OutboundSseEvent event = sse.newEventBuilder().comment("tick").build();
+    final CompletableFuture<?> first = sink.send(event).toCompletableFuture();
+    for (int i = 1; i < SseImpl.DEFAULT_QUEUE_SIZE; ++i)
+      sink.send(event);
+
+    assertFalse(first.isDone());
+    sink.send(event);
+    assertTrue(first.isCancelled());
+  }
+}
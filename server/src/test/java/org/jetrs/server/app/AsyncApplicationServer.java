@@ -0,0 +1,51 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.app;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.ApplicationPath;
+
+import org.jetrs.server.ServerProperties;
+import org.jetrs.server.app.service.AsyncService;
+
+/**
+ * {@link ApplicationServer} of an application with asynchronous processing, so
+ * that the configuration of the synchronous {@link ApplicationServer} is not
+ * changed.
+ */
+@ApplicationPath("/*")
+public class AsyncApplicationServer extends ApplicationServer {
+  public static final long ASYNC_TIMEOUT = 500;
+
+  @Override
+  public Set<Object> getSingletons() {
+    final Set<Object> singletons = super.getSingletons();
+    singletons.add(new AsyncService());
+    return singletons;
+  }
+
+  @Override
+  public Map<String,Object> getProperties() {
+    final Map<String,Object> properties = new HashMap<>();
+    properties.put(ServerProperties.ASYNC_SUPPORTED, true);
+    properties.put(ServerProperties.ASYNC_TIMEOUT, ASYNC_TIMEOUT);
+    return properties;
+  }
+}
@@ -0,0 +1,71 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.app.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.GET;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("/async")
+public class AsyncService {
+  @GET
+  @Path("/value")
+  @Produces(MediaType.TEXT_PLAIN)
+  public CompletionStage<String> value() {
+    return CompletableFuture.supplyAsync(() -> "value");
+  }
+
+  @GET
+  @Path("/null")
+  @Produces(MediaType.TEXT_PLAIN)
+  public CompletionStage<String> nullValue() {
+    return CompletableFuture.supplyAsync(() -> null);
+  }
+
+  @GET
+  @Path("/error")
+  @Produces(MediaType.TEXT_PLAIN)
+  public CompletionStage<String> error() {
+    // The exception is wrapped in a CompletionException by supplyAsync
+    return CompletableFuture.supplyAsync(() -> {
+      throw new ClientErrorException(Response.Status.CONFLICT);
+    });
+  }
+
+  @GET
+  @Path("/server-error")
+  @Produces(MediaType.TEXT_PLAIN)
+  public CompletionStage<String> serverError() {
+    return CompletableFuture.supplyAsync(() -> {
+      throw new InternalServerErrorException();
+    });
+  }
+
+  @GET
+  @Path("/timeout")
+  @Produces(MediaType.TEXT_PLAIN)
+  public CompletionStage<String> timeout() {
+    return new CompletableFuture<>();
+  }
+}
@@ -0,0 +1,66 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.core;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class QueryParametersTest {
+  @Test
+  public void testEmpty() {
+    assertEquals(0, new QueryParameters(null, true).size());
+    assertEquals(0, new QueryParameters("", true).size());
+    assertEquals(0, new QueryParameters("&&", true).size());
+    assertNull(new QueryParameters(null, true).get("a"));
+  }
+
+  @Test
+  public void testGet() {
+    final QueryParameters parameters = new QueryParameters("a=1&b&c=&a=2&d=x=y", true);
+    assertEquals(Arrays.asList("1", "2"), parameters.get("a"));
+    assertEquals(Collections.singletonList(""), parameters.get("b"));
+    assertEquals(Collections.singletonList(""), parameters.get("c"));
+    assertEquals("x=y", parameters.getFirst("d"));
+    assertNull(parameters.get("e"));
+    assertTrue(parameters.containsKey("b"));
+    assertFalse(parameters.containsKey("e"));
+    assertEquals(4, parameters.size());
+    assertEquals(Arrays.asList("a", "b", "c", "d"), Arrays.asList(parameters.keySet().toArray()));
+  }
+
+  @Test
+  public void testDecode() {
+    final String query = "na%6De=J%C3%BCrgen+M&x=%2B1";
+    final QueryParameters decoded = new QueryParameters(query, true);
+    assertEquals("Jürgen M", decoded.getFirst("name"));
+    assertEquals("+1", decoded.getFirst("x"));
+
+    final QueryParameters encoded = new QueryParameters(query, false);
+    assertNull(encoded.get("name"));
+    assertEquals("J%C3%BCrgen+M", encoded.getFirst("na%6De"));
+    assertEquals("%2B1", encoded.getFirst("x"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiable() {
+    new QueryParameters("a=1", true).add("a", "2");
+  }
+}
@@ -0,0 +1,130 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.sse;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.sse.SseEventSink;
+
+import org.junit.Test;
+
+public class SseBroadcasterImplTest {
+  private final SseImpl sse = new SseImpl(SseEventSinkImplTest.providers, 1, OverflowPolicy.DROP_NEWEST);
+
+  private static SseEventSinkImpl newSink(final TestServletOutputStream out, final int queueSize) throws IOException {
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), SseEventSinkImplTest.providers, queueSize, OverflowPolicy.DROP_NEWEST);
+    sink.start(out.newAsyncContext());
+    return sink;
+  }
+
+  @Test
+  public void testSharedBytes() throws IOException {
+    final TestServletOutputStream out1 = new TestServletOutputStream();
+    final TestServletOutputStream out2 = new TestServletOutputStream();
+    out1.ready = true;
+    out2.ready = true;
+    final SseBroadcasterImpl broadcaster = new SseBroadcasterImpl(SseEventSinkImplTest.providers);
+    broadcaster.register(newSink(out1, 4));
+    broadcaster.register(newSink(out2, 4));
+
+    final CompletionStage<?> stage = broadcaster.broadcast(sse.newEvent("tick", "1"));
+    assertTrue(stage.toCompletableFuture().isDone());
+    assertEquals("event: tick\ndata: 1\n\n", out1.getString());
+    assertEquals(out1.getString(), out2.getString());
+    assertEquals(1, out1.arrays.size());
+    assertSame(out1.arrays.get(0), out2.arrays.get(0));
+  }
+
+  @Test
+  public void testCompleteAfterDrop() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseBroadcasterImpl broadcaster = new SseBroadcasterImpl(SseEventSinkImplTest.providers);
+    final List<Throwable> errors = new ArrayList<>();
+    broadcaster.onError((s, t) -> errors.add(t));
+    broadcaster.register(newSink(out, 1));
+
+    final CompletionStage<?> first = broadcaster.broadcast(sse.newEvent("1"));
+    final CompletionStage<?> second = broadcaster.broadcast(sse.newEvent("2"));
+    assertFalse(first.toCompletableFuture().isDone());
+    // The second event is dropped, which completes its broadcast without an error
+    assertTrue(second.toCompletableFuture().isDone());
+    assertFalse(second.toCompletableFuture().isCompletedExceptionally());
+    assertTrue(errors.isEmpty());
+
+    out.setReady(true);
+    assertTrue(first.toCompletableFuture().isDone());
+    assertEquals("data: 1\n\n", out.getString());
+  }
+
+  @Test
+  public void testError() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseBroadcasterImpl broadcaster = new SseBroadcasterImpl(SseEventSinkImplTest.providers);
+    final List<SseEventSink> errors = new ArrayList<>();
+    broadcaster.onError((s, t) -> errors.add(s));
+    final SseEventSinkImpl sink = newSink(out, 4);
+    broadcaster.register(sink);
+
+    final CompletionStage<?> stage = broadcaster.broadcast(sse.newEvent("1"));
+    out.exception = new IOException("Broken pipe");
+    out.setReady(true);
+    assertTrue(stage.toCompletableFuture().isDone());
+    assertEquals(1, errors.size());
+    assertSame(sink, errors.get(0));
+  }
+
+  @Test
+  public void testCloseHandlers() throws IOException {
+    final TestServletOutputStream out1 = new TestServletOutputStream();
+    final TestServletOutputStream out2 = new TestServletOutputStream();
+    out1.ready = true;
+    out2.ready = true;
+    final SseBroadcasterImpl broadcaster = new SseBroadcasterImpl(SseEventSinkImplTest.providers);
+    final List<SseEventSink> closed = new ArrayList<>();
+    broadcaster.onClose(closed::add);
+    final SseEventSinkImpl sink1 = newSink(out1, 4);
+    final SseEventSinkImpl sink2 = newSink(out2, 4);
+    broadcaster.register(sink1);
+    broadcaster.register(sink2);
+
+    sink1.close();
+    assertEquals(1, closed.size());
+    assertSame(sink1, closed.get(0));
+    assertTrue(out1.completed);
+
+    broadcaster.broadcast(sse.newEvent("1"));
+    assertEquals("", out1.getString());
+    assertEquals("data: 1\n\n", out2.getString());
+
+    broadcaster.close();
+    assertEquals(2, closed.size());
+    assertSame(sink2, closed.get(1));
+    assertTrue(sink2.isClosed());
+    assertTrue(out2.completed);
+    try {
+      broadcaster.broadcast(sse.newEvent("2"));
+      fail("Expected IllegalStateException");
+    }
+    catch (final IllegalStateException e) {
+    }
+  }
+}
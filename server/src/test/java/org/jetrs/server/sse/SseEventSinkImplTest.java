@@ -0,0 +1,273 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.sse;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.OutboundSseEvent;
+
+import org.junit.Test;
+
+public class SseEventSinkImplTest {
+  private static final MessageBodyWriter<String> stringWriter = new MessageBodyWriter<String>() {
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+      return type == String.class;
+    }
+
+    @Override
+    public void writeTo(final String t, final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String,Object> httpHeaders, final OutputStream entityStream) throws IOException {
+      entityStream.write(t.getBytes(StandardCharsets.UTF_8));
+    }
+  };
+
+  static final Providers providers = new Providers() {
+    @Override
+    public <T>MessageBodyReader<T> getMessageBodyReader(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T>MessageBodyWriter<T> getMessageBodyWriter(final Class<T> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+      return type == String.class ? (MessageBodyWriter<T>)stringWriter : null;
+    }
+
+    @Override
+    public <T extends Throwable>ExceptionMapper<T> getExceptionMapper(final Class<T> type) {
+      return null;
+    }
+
+    @Override
+    public <T>ContextResolver<T> getContextResolver(final Class<T> contextType, final MediaType mediaType) {
+      return null;
+    }
+  };
+
+  private static HttpServletResponse newResponse(final ByteArrayOutputStream out) {
+    final ServletOutputStream servletOutputStream = new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+        out.write(b);
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(final WriteListener writeListener) {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    return (HttpServletResponse)Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(), new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+      if ("getOutputStream".equals(method.getName()))
+        return servletOutputStream;
+
+      throw new UnsupportedOperationException(method.getName());
+    });
+  }
+
+  private static String encode(final OutboundSseEvent event) throws IOException {
+    return new String(SseEventEncoder.encode(event, providers), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] bytes(final String event) {
+    return event.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testEncode() throws IOException {
+    final SseImpl sse = new SseImpl(providers, 1, OverflowPolicy.DROP_OLDEST);
+    assertEquals("data: hello\n\n", encode(sse.newEvent("hello")));
+    assertEquals("event: tick\ndata: 1\n\n", encode(sse.newEvent("tick", "1")));
+    assertEquals(": note\nevent: e\nid: 7\nretry: 1000\ndata: a\ndata: b\ndata: \ndata: c\n\n", encode(sse.newEventBuilder().comment("note").name("e").id("7").reconnectDelay(1000).data("a\r\nb\n\rc").build()));
+    assertEquals(": keep-alive\n\n", encode(sse.newEventBuilder().comment("keep-alive").build()));
+    try {
+      sse.newEventBuilder().name("empty").build();
+      fail("Expected IllegalStateException");
+    }
+    catch (final IllegalStateException e) {
+    }
+  }
+
+  @Test
+  public void testDropNewest() {
+    final SseEventSinkImpl sink = new SseEventSinkImpl(null, providers, 2, OverflowPolicy.DROP_NEWEST);
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    final CompletableFuture<Void> b = sink.send(null, bytes("b"));
+    final CompletableFuture<Void> c = sink.send(null, bytes("c"));
+    assertFalse(a.isDone());
+    assertFalse(b.isDone());
+    assertTrue(c.isCancelled());
+  }
+
+  @Test
+  public void testDropOldest() {
+    final SseEventSinkImpl sink = new SseEventSinkImpl(null, providers, 2, OverflowPolicy.DROP_OLDEST);
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    final CompletableFuture<Void> b = sink.send(null, bytes("b"));
+    final CompletableFuture<Void> c = sink.send(null, bytes("c"));
+    assertTrue(a.isCancelled());
+    assertFalse(b.isDone());
+    assertFalse(c.isDone());
+  }
+
+  @Test
+  public void testCoalesce() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final SseEventSinkImpl sink = new SseEventSinkImpl(newResponse(out), providers, 2, OverflowPolicy.COALESCE);
+    final CompletableFuture<Void> cpu1 = sink.send("cpu", bytes("1"));
+    final CompletableFuture<Void> mem1 = sink.send("mem", bytes("2"));
+    final CompletableFuture<Void> cpu2 = sink.send("cpu", bytes("3"));
+    final CompletableFuture<Void> disk = sink.send("disk", bytes("4"));
+    assertTrue(cpu1.isCancelled());
+    assertTrue(mem1.isCancelled());
+    assertFalse(cpu2.isDone());
+    assertFalse(disk.isDone());
+
+    sink.close();
+    assertTrue(sink.isClosed());
+    assertTrue(sink.send("cpu", bytes("5")).isCompletedExceptionally());
+
+    final boolean[] closed = new boolean[1];
+    sink.addCloseListener(() -> closed[0] = true);
+    sink.run();
+    assertEquals("34", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    assertTrue(cpu2.isDone() && !cpu2.isCompletedExceptionally());
+    assertTrue(closed[0]);
+  }
+
+  @Test
+  public void testNonBlocking() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), providers, 4, OverflowPolicy.DROP_NEWEST);
+    sink.start(out.newAsyncContext());
+    assertNotNull(out.writeListener);
+    assertEquals(1, out.asyncListeners.size());
+
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    final CompletableFuture<Void> b = sink.send(null, bytes("b"));
+    assertFalse(a.isDone());
+    assertFalse(b.isDone());
+    assertEquals("", out.getString());
+
+    out.setReady(true);
+    assertEquals("ab", out.getString());
+    assertTrue(a.isDone() && !a.isCompletedExceptionally());
+    assertTrue(b.isDone() && !b.isCompletedExceptionally());
+    assertEquals(1, out.flushes);
+
+    final CompletableFuture<Void> c = sink.send(null, bytes("c"));
+    assertTrue(c.isDone());
+    assertEquals("abc", out.getString());
+    assertEquals(2, out.flushes);
+    assertFalse(out.completed);
+  }
+
+  @Test
+  public void testCloseAfterDrain() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), providers, 4, OverflowPolicy.DROP_NEWEST);
+    sink.start(out.newAsyncContext());
+    final boolean[] closed = new boolean[1];
+    sink.addCloseListener(() -> closed[0] = true);
+
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    final CompletableFuture<Void> b = sink.send(null, bytes("b"));
+    sink.close();
+    assertTrue(sink.isClosed());
+    assertFalse(out.completed);
+    assertFalse(closed[0]);
+
+    out.setReady(true);
+    assertEquals("ab", out.getString());
+    assertTrue(a.isDone() && !a.isCompletedExceptionally());
+    assertTrue(b.isDone() && !b.isCompletedExceptionally());
+    assertTrue(out.completed);
+    assertTrue(closed[0]);
+  }
+
+  @Test
+  public void testSendBeforeListening() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    out.ready = true;
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), providers, 4, OverflowPolicy.DROP_NEWEST);
+    final CompletableFuture<?>[] sent = new CompletableFuture<?>[1];
+    // An event that is sent while the WriteListener is being installed must be queued, and not be written
+    out.onSetWriteListener = () -> sent[0] = sink.send(null, bytes("a"));
+    sink.start(out.newAsyncContext());
+    assertEquals("a", out.getString());
+    assertTrue(sent[0].isDone() && !sent[0].isCompletedExceptionally());
+  }
+
+  @Test
+  public void testWriteFailure() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), providers, 4, OverflowPolicy.DROP_NEWEST);
+    sink.start(out.newAsyncContext());
+    final boolean[] closed = new boolean[1];
+    sink.addCloseListener(() -> closed[0] = true);
+
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    final CompletableFuture<Void> b = sink.send(null, bytes("b"));
+    out.exception = new IOException("Broken pipe");
+    out.setReady(true);
+    assertTrue(a.isCompletedExceptionally());
+    assertTrue(b.isCompletedExceptionally());
+    assertTrue(sink.isClosed());
+    assertTrue(out.completed);
+    assertTrue(closed[0]);
+    assertTrue(sink.send(null, bytes("c")).isCompletedExceptionally());
+  }
+
+  @Test
+  public void testListenerError() throws IOException {
+    final TestServletOutputStream out = new TestServletOutputStream();
+    final SseEventSinkImpl sink = new SseEventSinkImpl(out.newResponse(), providers, 4, OverflowPolicy.DROP_NEWEST);
+    sink.start(out.newAsyncContext());
+    final CompletableFuture<Void> a = sink.send(null, bytes("a"));
+    out.writeListener.onError(new IOException("Reset"));
+    assertTrue(a.isCompletedExceptionally());
+    assertTrue(sink.isClosed());
+    assertTrue(out.completed);
+
+    // The container reports the completion of the AsyncContext after it is completed
+    out.asyncListeners.get(0).onComplete(null);
+  }
+}
@@ -0,0 +1,126 @@
+/* Copyright (c) 2021 JetRS
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.jetrs.server.sse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link ServletOutputStream} for the tests of non-blocking writes, which is
+ * ready only when {@link #setReady(boolean) set} to be, and which notifies its
+ * {@link WriteListener} when it becomes ready.
+ */
+class TestServletOutputStream extends ServletOutputStream {
+  final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  final List<byte[]> arrays = new ArrayList<>();
+  final List<AsyncListener> asyncListeners = new ArrayList<>();
+  WriteListener writeListener;
+  Runnable onSetWriteListener;
+  IOException exception;
+  boolean ready;
+  boolean completed;
+  int flushes;
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] {(byte)b}, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (writeListener == null)
+      throw new IllegalStateException("Blocking write");
+
+    if (!ready)
+      throw new IllegalStateException("Write while not ready");
+
+    if (exception != null)
+      throw exception;
+
+    arrays.add(b);
+    bytes.write(b, off, len);
+  }
+
+  @Override
+  public void flush() {
+    ++flushes;
+  }
+
+  @Override
+  public boolean isReady() {
+    if (writeListener == null)
+      throw new IllegalStateException("No WriteListener");
+
+    return ready;
+  }
+
+  @Override
+  public void setWriteListener(final WriteListener writeListener) {
+    if (onSetWriteListener != null)
+      onSetWriteListener.run();
+
+    this.writeListener = writeListener;
+  }
+
+  void setReady(final boolean ready) throws IOException {
+    this.ready = ready;
+    if (ready)
+      writeListener.onWritePossible();
+  }
+
+  String getString() {
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  HttpServletResponse newResponse() {
+    return (HttpServletResponse)Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(), new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+      if ("getOutputStream".equals(method.getName()))
+        return this;
+
+      throw new UnsupportedOperationException(method.getName());
+    });
+  }
+
+  AsyncContext newAsyncContext() {
+    return (AsyncContext)Proxy.newProxyInstance(AsyncContext.class.getClassLoader(), new Class<?>[] {AsyncContext.class}, (proxy, method, args) -> {
+      if ("addListener".equals(method.getName())) {
+        asyncListeners.add((AsyncListener)args[0]);
+        return null;
+      }
+
+      if ("complete".equals(method.getName())) {
+        if (completed)
+          throw new IllegalStateException("Completed");
+
+        completed = true;
+        return null;
+      }
+
+      throw new UnsupportedOperationException(method.getName());
+    });
+  }
+}
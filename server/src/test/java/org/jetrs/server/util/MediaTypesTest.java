@@ -75,6 +75,44 @@ public class MediaTypesTest {
     assertEquals(new MediaType("application", "json", parameters), MediaType.valueOf("application/json; q=\"oops\" ; charset=\"utf8\";  "));
   }
 
+  @Test
+  public void testSortByQuality() {
+    testParse(m -> {
+      assertEquals(5, m.length);
+      assertEquals("text/html", m[0].getType() + "/" + m[0].getSubtype());
+      assertEquals("text/plain", m[1].getType() + "/" + m[1].getSubtype());
+      assertEquals("application/xml", m[2].getType() + "/" + m[2].getSubtype());
+      assertEquals("application/json", m[3].getType() + "/" + m[3].getSubtype());
+      assertEquals("*/*", m[4].getType() + "/" + m[4].getSubtype());
+    }, "*/*;q=0.1, application/xml;q=.5", "text/html, application/json;q=.5", "text/plain;q=oops");
+  }
+
+  @Test
+  public void testIntern() {
+    assertSame(MediaTypes.APPLICATION_JSON, MediaTypes.parse("application/json"));
+    assertSame(MediaTypes.parse("application/json;charset=UTF-8"), MediaTypes.parse(" application/json ; charset = UTF-8 "));
+    assertNotSame(MediaTypes.parse("application/json;charset=\"UTF-8\""), MediaTypes.parse("application/json;charset=\"UTF-8\""));
+
+    // Media types that are parsed from request headers are not registered
+    assertNotSame(MediaTypes.parse("application/x-header;v=1"), MediaTypes.parse("application/x-header;v=1"));
+    assertNotSame(MediaTypes.parse(new String[] {"application/x-header, text/html"})[0], MediaTypes.parse(new String[] {"application/x-header, text/html"})[0]);
+
+    final MediaType[] interned = MediaTypes.intern("application/x-intern;v=1", "text/x-intern");
+    final MediaType[] mediaTypes1 = MediaTypes.parse(new String[] {"text/html, application/x-intern; v=1, text/x-intern"});
+    final MediaType[] mediaTypes2 = MediaTypes.parse(new String[] {"text/html,application/x-intern ;v = 1,text/x-intern "});
+    assertEquals(3, mediaTypes1.length);
+    assertSame(MediaType.TEXT_HTML_TYPE, mediaTypes1[0]);
+    for (int i = 0; i < interned.length; ++i) {
+      assertSame(interned[i], mediaTypes1[i + 1]);
+      assertSame(interned[i], mediaTypes2[i + 1]);
+    }
+
+    assertSame(interned[0], MediaTypes.intern("application/x-intern; v=1")[0]);
+    assertSame(MediaTypes.APPLICATION_JSON, MediaTypes.intern("application/json")[0]);
+    assertSame(MediaTypes.APPLICATION_JSON, MediaTypes.getCompatible(MediaTypes.parse("application/json;q=.9"), MediaTypes.APPLICATION_JSON));
+    assertSame(MediaTypes.APPLICATION_JSON, MediaTypes.getCompatible(MediaTypes.parse("application/*;q=.5"), MediaTypes.parse("*/json;q=.2")));
+  }
+
   @Test
   public void testCompatible() {
     same(null, null);